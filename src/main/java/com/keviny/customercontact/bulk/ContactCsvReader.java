@@ -0,0 +1,207 @@
+package com.keviny.customercontact.bulk;
+
+import com.keviny.customercontact.dto.ContactDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming RFC 4180 reader that turns CSV rows into {@link ContactDto}s one at a time.
+ * <p>
+ * The first row must be a header naming the {@code ContactDto} properties (case-insensitive,
+ * any order); unknown columns are rejected so a misspelt header does not silently drop data.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class ContactCsvReader implements Closeable {
+
+    private static final List<String> COLUMNS = List.of(
+            "firstname", "lastname", "email", "phone", "primaryphone", "address", "primaryemail");
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long rowLineNumber;
+    private int[] columnMapping;
+
+    public ContactCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next row, or null at end of input
+     */
+    public ContactDto next() throws IOException {
+        readHeader();
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        if (fields.size() != columnMapping.length) {
+            throw new CsvFormatException(rowLineNumber,
+                    "Expected " + columnMapping.length + " columns but found " + fields.size());
+        }
+        ContactDto dto = new ContactDto();
+        for (int i = 0; i < fields.size(); i++) {
+            String value = fields.get(i).isEmpty() ? null : fields.get(i);
+            switch (columnMapping[i]) {
+                case 0 -> dto.setFirstName(value);
+                case 1 -> dto.setLastName(value);
+                case 2 -> dto.setEmail(value);
+                case 3 -> dto.setPhone(value);
+                case 4 -> dto.setPrimaryPhone(value);
+                case 5 -> dto.setAddress(value);
+                case 6 -> dto.setPrimaryEmail(value);
+                case -1 -> { }
+                default -> throw new IllegalStateException("Unmapped column " + columnMapping[i]);
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * @return the line on which the most recently returned row started
+     */
+    public long getRowLineNumber() {
+        return rowLineNumber;
+    }
+
+    /**
+     * Reads and validates the header row if it has not been read yet. Called implicitly by
+     * {@link #next()}; calling it first separates header problems from row-level ones.
+     */
+    public void readHeader() throws IOException {
+        if (columnMapping != null) {
+            return;
+        }
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new CsvFormatException(1, "CSV input is empty");
+        }
+        int[] mapping = new int[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            if (name.equals("id")) {
+                // Exported snapshots carry ids; they are assigned by the database, so ignore them
+                mapping[i] = -1;
+                continue;
+            }
+            int index = COLUMNS.indexOf(name);
+            if (index < 0) {
+                throw new CsvFormatException(1, "Unknown column '" + header.get(i) + "'");
+            }
+            mapping[i] = index;
+        }
+        if (!contains(mapping, COLUMNS.indexOf("email"))) {
+            throw new CsvFormatException(1, "Header must contain an 'email' column");
+        }
+        columnMapping = mapping;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        rowLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new CsvFormatException(rowLineNumber, "Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next >= 0) {
+                        position--;
+                    }
+                }
+                if (c >= 0) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static class CsvFormatException extends IOException {
+
+        private final long lineNumber;
+
+        public CsvFormatException(long lineNumber, String message) {
+            super("Line " + lineNumber + ": " + message);
+            this.lineNumber = lineNumber;
+        }
+
+        public long getLineNumber() { return lineNumber; }
+    }
+}
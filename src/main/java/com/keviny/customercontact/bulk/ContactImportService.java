@@ -0,0 +1,261 @@
+package com.keviny.customercontact.bulk;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.service.ContactService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Runs CSV contact imports in the background.
+ * <p>
+ * Each job streams its file through {@link ContactCsvReader}, validates rows against the
+ * {@link ContactDto} constraints and hands valid rows to a shared worker pool in chunks, each chunk
+ * upserted in one transaction. The worker pool is deliberately small compared with the Hikari pool
+ * so imports never hold more than {@code max-concurrency} connections and interactive requests
+ * keep getting served. A chunk that fails as a whole (typically two chunks racing to insert the
+ * same new email) is retried row by row so only the offending rows are reported. Rows go through
+ * the batch upsert, one per call, which carries no circuit breaker: a file full of bad rows must
+ * not open the breaker that interactive requests share.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+
+    private final ContactService contactService;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxConcurrency;
+    private final int maxErrors;
+    private final int retainedJobs;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService chunkExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Counter rowsImported;
+    private final Counter rowsFailed;
+
+    public ContactImportService(ContactService contactService,
+                                Validator validator,
+                                MeterRegistry meterRegistry,
+                                @Value("${contact.import.chunk-size:500}") int chunkSize,
+                                @Value("${contact.import.max-concurrency:4}") int maxConcurrency,
+                                @Value("${contact.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                @Value("${contact.import.max-errors-per-job:1000}") int maxErrors,
+                                @Value("${contact.import.retained-jobs:100}") int retainedJobs) {
+        this.contactService = contactService;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxConcurrency = maxConcurrency;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, threadFactory("contact-import-job-"));
+        this.chunkExecutor = Executors.newFixedThreadPool(maxConcurrency, threadFactory("contact-import-chunk-"));
+        this.rowsImported = Counter.builder("contact.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.rowsFailed = Counter.builder("contact.import.rows").tag("outcome", "failed").register(meterRegistry);
+        meterRegistry.gauge("contact.import.jobs.active", jobs,
+                j -> j.values().stream().filter(job -> !job.isFinished()).count());
+    }
+
+    /**
+     * Spools the upload to a local file, checks its header and queues the import.
+     *
+     * @throws IllegalArgumentException if the file is empty or its header is invalid
+     */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Import file must not be empty");
+        }
+        Path spool = Files.createTempFile("contact-import-", ".csv");
+        try {
+            file.transferTo(spool);
+            try (ContactCsvReader reader = open(spool)) {
+                reader.readHeader();
+            } catch (ContactCsvReader.CsvFormatException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), maxErrors);
+        jobs.put(job.getId(), job);
+        evictFinishedJobs();
+        jobExecutor.execute(() -> run(job, spool));
+        logger.info("Queued import job {} for file {}", job.getId(), job.getFileName());
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    void run(ImportJob job, Path spool) {
+        job.markRunning();
+        logger.info("Starting import job {}", job.getId());
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        try (ContactCsvReader reader = open(spool)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                ContactDto dto;
+                try {
+                    dto = reader.next();
+                } catch (ContactCsvReader.CsvFormatException e) {
+                    job.rowRead();
+                    recordFailure(job, e.getLineNumber(), e.getMessage());
+                    continue;
+                }
+                if (dto == null) {
+                    break;
+                }
+                job.rowRead();
+                long line = reader.getRowLineNumber();
+                Set<ConstraintViolation<ContactDto>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    recordFailure(job, line, describe(violations));
+                    continue;
+                }
+                chunk.add(new Row(line, dto));
+                if (chunk.size() == chunkSize) {
+                    submitChunk(job, chunk, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(job, chunk, inFlight);
+            }
+            // Wait for the last chunks to drain
+            inFlight.acquire(maxConcurrency);
+            job.markCompleted();
+            logger.info("Import job {} completed: {} imported, {} failed, {} rows/s",
+                    job.getId(), job.getRowsImported(), job.getRowsFailed(), Math.round(job.getRowsPerSecond()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFailed("Import was interrupted");
+        } catch (Exception e) {
+            logger.error("Import job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                logger.warn("Could not delete import spool file {}: {}", spool, e.getMessage());
+            }
+        }
+    }
+
+    private void submitChunk(ImportJob job, List<Row> chunk, Semaphore inFlight) throws InterruptedException {
+        // Blocks the reader once max-concurrency chunks are outstanding, bounding memory as well as connections
+        inFlight.acquire();
+        try {
+            chunkExecutor.execute(() -> {
+                try {
+                    importChunk(job, chunk);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void importChunk(ImportJob job, List<Row> chunk) {
+        try {
+            contactService.createOrUpdateContacts(chunk.stream().map(Row::dto).collect(Collectors.toList()));
+            job.rowsImported(chunk.size());
+            rowsImported.increment(chunk.size());
+        } catch (RuntimeException e) {
+            logger.debug("Chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            for (Row row : chunk) {
+                try {
+                    contactService.createOrUpdateContacts(List.of(row.dto()));
+                    job.rowsImported(1);
+                    rowsImported.increment();
+                } catch (RuntimeException rowFailure) {
+                    recordFailure(job, row.line(), rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void recordFailure(ImportJob job, long line, String message) {
+        job.rowFailed(line, message);
+        rowsFailed.increment();
+    }
+
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - retainedJobs;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted(Comparator.comparing(ImportJob::getCreatedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    private static ContactCsvReader open(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new ContactCsvReader(reader);
+    }
+
+    private static String describe(Set<ConstraintViolation<ContactDto>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static CustomizableThreadFactory threadFactory(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    private record Row(long line, ContactDto dto) {
+    }
+}
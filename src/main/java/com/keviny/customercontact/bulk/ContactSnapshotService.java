@@ -0,0 +1,294 @@
+package com.keviny.customercontact.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes point-in-time exports of the contact table to compressed files on local disk.
+ * <p>
+ * Rows are streamed from {@link ContactRepository#streamAll()} and detached as soon as they are
+ * written, so memory stays flat regardless of table size. Files are written under a temporary
+ * name and atomically renamed when complete; downloads therefore only ever see finished
+ * snapshots and are served straight from disk without touching the database. With sharding
+ * enabled the shards are exported one after another into the same file.
+ */
+@Service
+public class ContactSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSnapshotService.class);
+
+    private static final DateTimeFormatter ID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+    private static final String CSV_HEADER = "id,firstName,lastName,email,phone,primaryPhone,address,primaryEmail\n";
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Absent with the memory profile, which has no persistence context to detach from
+    @Autowired(required = false)
+    private EntityManager entityManager;
+
+    @Value("${contact.snapshot.directory:./data/snapshots}")
+    private Path directory;
+
+    @Value("${contact.snapshot.retained:24}")
+    private int retained;
+
+    @Value("${contact.snapshot.format:NDJSON}")
+    private SnapshotJob.Format defaultFormat;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(daemonThreads());
+    private final Map<String, SnapshotJob> jobs = new LinkedHashMap<>();
+    private SnapshotJob running;
+
+    @PostConstruct
+    void loadExistingSnapshots() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith("contacts-"))
+                    .sorted()
+                    .forEach(this::registerExisting);
+        }
+        logger.info("Snapshot directory {} holds {} snapshots", directory.toAbsolutePath(), jobs.size());
+    }
+
+    /**
+     * Starts a snapshot unless one is already being written, in which case that one is returned.
+     */
+    public synchronized SnapshotJob startSnapshot(SnapshotJob.Format format) {
+        if (running != null) {
+            return running;
+        }
+        SnapshotJob job = new SnapshotJob(ID_FORMAT.format(Instant.now()), format != null ? format : defaultFormat);
+        jobs.put(job.getId(), job);
+        running = job;
+        executor.execute(() -> run(job));
+        logger.info("Started contact snapshot {}", job.getId());
+        return job;
+    }
+
+    @Scheduled(cron = "${contact.snapshot.cron:-}")
+    public void scheduledSnapshot() {
+        startSnapshot(defaultFormat);
+    }
+
+    public synchronized Optional<SnapshotJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public synchronized Optional<SnapshotJob> findLatestCompleted() {
+        SnapshotJob latest = null;
+        for (SnapshotJob job : jobs.values()) {
+            if (job.getStatus() == SnapshotJob.Status.COMPLETED) {
+                latest = job;
+            }
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    public synchronized List<SnapshotJob> listJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    void run(SnapshotJob job) {
+        Path target = directory.resolve(job.getFileName());
+        Path temp = directory.resolve("." + job.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        try {
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                rows = job.getFormat() == SnapshotJob.Format.CSV ? writeCsv(job, out) : writeNdjson(job, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            job.markCompleted(target, rows, Files.size(target));
+            logger.info("Snapshot {} completed: {} rows, {} bytes in {} ms", job.getId(), rows,
+                    job.getSizeBytes(), (System.nanoTime() - start) / 1_000_000);
+            pruneOldSnapshots();
+        } catch (Exception e) {
+            logger.error("Snapshot {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort; the next snapshot uses a different name
+            }
+        } finally {
+            synchronized (this) {
+                running = null;
+            }
+        }
+    }
+
+    private long writeNdjson(SnapshotJob job, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long rows = streamContacts(job, dto -> {
+            generator.writeObject(dto);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+        return rows;
+    }
+
+    private long writeCsv(SnapshotJob job, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        writer.write(CSV_HEADER);
+        long rows = streamContacts(job, dto -> {
+            writer.write(String.valueOf(dto.getId()));
+            for (String value : new String[] {dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getPhone(),
+                    dto.getPrimaryPhone(), dto.getAddress(), dto.getPrimaryEmail()}) {
+                writer.write(',');
+                writeCsvValue(writer, value);
+            }
+            writer.write('\n');
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long streamContacts(SnapshotJob job, RowWriter rowWriter) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long[] count = {0};
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.run(shard, () -> transaction.executeWithoutResult(status -> {
+                try (Stream<Contact> contacts = contactRepository.streamAll()) {
+                    for (Contact contact : (Iterable<Contact>) contacts::iterator) {
+                        rowWriter.write(ContactMapper.toDto(contact));
+                        // Keep the persistence context from accumulating the whole table
+                        if (entityManager != null) {
+                            entityManager.detach(contact);
+                        }
+                        if (++count[0] % 10_000 == 0) {
+                            job.rowsWritten(count[0]);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return count[0];
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private synchronized void pruneOldSnapshots() {
+        List<SnapshotJob> completed = new ArrayList<>();
+        for (SnapshotJob job : jobs.values()) {
+            if (job.getStatus() != SnapshotJob.Status.RUNNING) {
+                completed.add(job);
+            }
+        }
+        completed.sort(Comparator.comparing(SnapshotJob::getId));
+        for (int i = 0; i < completed.size() - retained; i++) {
+            SnapshotJob old = completed.get(i);
+            jobs.remove(old.getId());
+            if (old.getFile() != null) {
+                try {
+                    Files.deleteIfExists(old.getFile());
+                } catch (IOException e) {
+                    logger.warn("Could not delete old snapshot {}: {}", old.getFile(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void registerExisting(Path file) {
+        String name = file.getFileName().toString();
+        for (SnapshotJob.Format format : SnapshotJob.Format.values()) {
+            String suffix = "." + format.getExtension();
+            if (name.endsWith(suffix)) {
+                String id = name.substring("contacts-".length(), name.length() - suffix.length());
+                SnapshotJob job = new SnapshotJob(id, format);
+                try {
+                    job.markCompleted(file, 0, Files.size(file));
+                    jobs.put(id, job);
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable snapshot {}: {}", file, e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("contact-snapshot-");
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ContactDto dto) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package com.keviny.customercontact.bulk;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable progress of one CSV import. Counters are updated concurrently by chunk workers and
+ * read by status requests without locking.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+
+        public String getMessage() { return message; }
+    }
+
+    private final String id;
+    private final String fileName;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failureReason;
+
+    public ImportJob(String id, String fileName, int maxErrors) {
+        this.id = id;
+        this.fileName = fileName;
+        this.maxErrors = maxErrors;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markCompleted() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void markFailed(String reason) {
+        failureReason = reason;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowsImported(int count) {
+        rowsImported.addAndGet(count);
+    }
+
+    void rowFailed(long line, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    public String getId() { return id; }
+
+    public String getFileName() { return fileName; }
+
+    public Status getStatus() { return status; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public String getFailureReason() { return failureReason; }
+
+    public long getRowsRead() { return rowsRead.get(); }
+
+    public long getRowsImported() { return rowsImported.get(); }
+
+    public long getRowsFailed() { return rowsFailed.get(); }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0.0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return (rowsImported.get() + rowsFailed.get()) * 1000.0 / millis;
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.keviny.customercontact.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * One export of the contact table to a compressed file under the snapshot directory.
+ */
+public class SnapshotJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    public enum Format {
+        NDJSON("ndjson.gz", "application/x-ndjson"),
+        CSV("csv.gz", "text/csv");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() { return extension; }
+
+        public String getContentType() { return contentType; }
+    }
+
+    private final String id;
+    private final Format format;
+    private final Instant startedAt = Instant.now();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile long rows;
+    private volatile long sizeBytes;
+    private volatile Path file;
+    private volatile String failureReason;
+
+    public SnapshotJob(String id, Format format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    void markCompleted(Path file, long rows, long sizeBytes) {
+        this.file = file;
+        this.rows = rows;
+        this.sizeBytes = sizeBytes;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String reason) {
+        this.failureReason = reason;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    void rowsWritten(long rows) {
+        this.rows = rows;
+    }
+
+    public String getId() { return id; }
+
+    public Format getFormat() { return format; }
+
+    public Status getStatus() { return status; }
+
+    public Instant getStartedAt() { return startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public long getRows() { return rows; }
+
+    public long getSizeBytes() { return sizeBytes; }
+
+    public String getFailureReason() { return failureReason; }
+
+    public String getFileName() {
+        return "contacts-" + id + "." + format.getExtension();
+    }
+
+    @JsonIgnore
+    public Path getFile() { return file; }
+}
@@ -0,0 +1,175 @@
+package com.keviny.customercontact.cache;
+
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import com.keviny.customercontact.model.Contact;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local read-through cache of contacts by id and by email hash.
+ * <p>
+ * Every committed create or update evicts the contact here and is published on the
+ * {@link ContactInvalidationBus}, if one is configured, so peers evict it too. A load that
+ * raced an invalidation must not put the stale row back: callers take a {@link #stamp} for the
+ * key before reading the database and {@link #put} discards the row if an invalidation for that
+ * key arrived in between. Entries also expire after {@code contact.cache.ttl-seconds}, which
+ * bounds staleness when an invalidation message is lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.cache", name = "enabled", havingValue = "true")
+public class ContactCache {
+
+    private static final int STRIPES = 1024;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> idsByEmailHash = new ConcurrentHashMap<>();
+    // Invalidation count per key stripe; ids and email hashes share the stripes
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ContactInvalidationBus bus;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public ContactCache(@Value("${contact.cache.max-size:100000}") int maxSize,
+                        @Value("${contact.cache.ttl-seconds:300}") long ttlSeconds,
+                        ObjectProvider<ContactInvalidationBus> bus,
+                        MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.bus = bus.getIfAvailable();
+        if (this.bus != null) {
+            this.bus.subscribe(this::onRemoteInvalidation);
+        }
+        this.hits = Counter.builder("contact.cache.requests")
+                .description("Contact cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("contact.cache.requests")
+                .description("Contact cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.localInvalidations = Counter.builder("contact.cache.invalidations")
+                .description("Cached contacts evicted because they changed")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("contact.cache.invalidations")
+                .description("Cached contacts evicted because they changed")
+                .tag("source", "peer")
+                .register(meterRegistry);
+        meterRegistry.gauge("contact.cache.size", byId, Map::size);
+    }
+
+    /** @return a copy of the cached contact, or {@code null} */
+    public Contact getById(long id) {
+        Entry entry = byId.get(id);
+        if (entry == null || entry.expired()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return ContactMapper.copy(entry.contact);
+    }
+
+    /** @return a copy of the cached contact with that email hash, or {@code null} */
+    public Contact getByEmailHash(long emailHash) {
+        Long id = idsByEmailHash.get(emailHash);
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry == null || entry.expired() || !Long.valueOf(emailHash).equals(entry.contact.getEmailHash())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return ContactMapper.copy(entry.contact);
+    }
+
+    /** Taken before loading {@code key} (an id or an email hash) from the database. */
+    public long stamp(long key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Caches a contact loaded by {@code key} unless that key was invalidated since {@code stamp}.
+     */
+    public void put(long key, long stamp, Contact contact) {
+        if (contact.getId() == null || contact.getEmailHash() == null || generations.get(stripe(key)) != stamp) {
+            return;
+        }
+        if (byId.size() >= maxSize) {
+            evictOne();
+        }
+        long id = contact.getId();
+        Entry entry = new Entry(ContactMapper.copy(contact), System.nanoTime() + ttlNanos);
+        byId.put(id, entry);
+        idsByEmailHash.put(contact.getEmailHash(), id);
+        // An invalidation that slipped in after the check above may have run before the put
+        if (generations.get(stripe(key)) != stamp) {
+            byId.remove(id, entry);
+        }
+    }
+
+    /** Drops both keys of a contact; also bumps their stripes so in-flight loads are discarded. */
+    public void invalidate(long id, long emailHash) {
+        generations.incrementAndGet(stripe(id));
+        generations.incrementAndGet(stripe(emailHash));
+        byId.remove(id);
+        idsByEmailHash.remove(emailHash, id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContactChanged(ContactChangedEvent event) {
+        long id = event.getContact().getId();
+        long emailHash = EmailNormalizer.hash(event.getContact().getEmail());
+        invalidate(id, emailHash);
+        localInvalidations.increment();
+        if (bus != null) {
+            bus.publish(new ContactInvalidation(id, emailHash, event.getOccurredAt().toEpochMilli()));
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    private void onRemoteInvalidation(ContactInvalidation invalidation) {
+        invalidate(invalidation.contactId(), invalidation.emailHash());
+        remoteInvalidations.increment();
+    }
+
+    private void evictOne() {
+        Iterator<Map.Entry<Long, Entry>> iterator = byId.entrySet().iterator();
+        if (iterator.hasNext()) {
+            Map.Entry<Long, Entry> victim = iterator.next();
+            iterator.remove();
+            idsByEmailHash.remove(victim.getValue().contact.getEmailHash(), victim.getKey());
+        }
+    }
+
+    private static int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 54);
+    }
+
+    private record Entry(Contact contact, long expiresAtNanos) {
+
+        boolean expired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.keviny.customercontact.cache;
+
+/**
+ * A committed change to one contact that caches on other instances must drop.
+ *
+ * @param contactId         id of the changed contact
+ * @param emailHash         {@link com.keviny.customercontact.mapper.EmailNormalizer#hash} of its email
+ * @param publishedAtMillis wall-clock time the change was published, for propagation delay
+ */
+public record ContactInvalidation(long contactId, long emailHash, long publishedAtMillis) {
+}
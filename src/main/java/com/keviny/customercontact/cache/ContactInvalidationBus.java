@@ -0,0 +1,16 @@
+package com.keviny.customercontact.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link ContactInvalidation}s between instances. Delivery is best effort: a lost
+ * message leaves a peer's entry in place until its TTL runs out, so the cache TTL bounds how
+ * stale a read can be. Subscribers are never called back for their own instance's messages.
+ */
+public interface ContactInvalidationBus {
+
+    /** Sends the invalidation to every peer; must not throw, since it runs after commit. */
+    void publish(ContactInvalidation invalidation);
+
+    void subscribe(Consumer<ContactInvalidation> listener);
+}
@@ -0,0 +1,185 @@
+package com.keviny.customercontact.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link ContactInvalidationBus} over UDP multicast, needing nothing but the network the
+ * instances already share. Each invalidation is one 41-byte datagram
+ * {@code [version][origin uuid][contact id][email hash][published at]} sent to the group; every
+ * member, the sender included, receives it and the sender drops its own by origin.
+ * <p>
+ * The time from publish to eviction on a peer is recorded in
+ * {@code contact.cache.invalidation.delay}. It is measured against the publisher's wall clock, so
+ * across hosts it includes their clock offset; negative values are recorded as zero.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.cache.invalidation", name = "transport", havingValue = "multicast")
+public class MulticastInvalidationBus implements ContactInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+
+    static final int MESSAGE_SIZE = 1 + 16 + 3 * Long.BYTES;
+    private static final byte VERSION = 1;
+
+    private final UUID origin = UUID.randomUUID();
+    private final InetSocketAddress group;
+    private final DatagramChannel channel;
+    private final List<Consumer<ContactInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Timer delay;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter errors;
+
+    public MulticastInvalidationBus(@Value("${contact.cache.invalidation.group:239.255.42.99}") String group,
+                                    @Value("${contact.cache.invalidation.port:45700}") int port,
+                                    @Value("${contact.cache.invalidation.interface:}") String interfaceName,
+                                    @Value("${contact.cache.invalidation.ttl:1}") int ttl,
+                                    MeterRegistry meterRegistry) throws IOException {
+        InetAddress groupAddress = InetAddress.getByName(group);
+        NetworkInterface networkInterface = resolveInterface(interfaceName);
+        this.group = new InetSocketAddress(groupAddress, port);
+        this.channel = DatagramChannel.open(StandardProtocolFamily.INET)
+                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                .bind(new InetSocketAddress(port))
+                .setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface)
+                .setOption(StandardSocketOptions.IP_MULTICAST_TTL, ttl)
+                .setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        channel.join(groupAddress, networkInterface);
+
+        this.delay = Timer.builder("contact.cache.invalidation.delay")
+                .description("Time from a commit publishing an invalidation to a peer evicting it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1).dividedBy(10))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        this.sent = Counter.builder("contact.cache.invalidation.messages")
+                .description("Invalidation datagrams sent and received from peers")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.received = Counter.builder("contact.cache.invalidation.messages")
+                .description("Invalidation datagrams sent and received from peers")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.errors = Counter.builder("contact.cache.invalidation.errors")
+                .description("Invalidation datagrams that could not be sent or decoded")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("contact-cache-invalidation-");
+        threadFactory.setDaemon(true);
+        threadFactory.newThread(this::receive).start();
+        logger.info("Cache invalidation bus joined {} on {} as {}", this.group, networkInterface.getName(), origin);
+    }
+
+    @Override
+    public void publish(ContactInvalidation invalidation) {
+        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_SIZE)
+                .put(VERSION)
+                .putLong(origin.getMostSignificantBits())
+                .putLong(origin.getLeastSignificantBits())
+                .putLong(invalidation.contactId())
+                .putLong(invalidation.emailHash())
+                .putLong(invalidation.publishedAtMillis())
+                .flip();
+        try {
+            channel.send(buffer, group);
+            sent.increment();
+        } catch (IOException e) {
+            errors.increment();
+            logger.warn("Failed to publish invalidation for contact {}: {}", invalidation.contactId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ContactInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_SIZE + 1);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                if (buffer.remaining() != MESSAGE_SIZE || buffer.get() != VERSION) {
+                    errors.increment();
+                    continue;
+                }
+                long mostSignificantBits = buffer.getLong();
+                long leastSignificantBits = buffer.getLong();
+                if (mostSignificantBits == origin.getMostSignificantBits()
+                        && leastSignificantBits == origin.getLeastSignificantBits()) {
+                    continue;
+                }
+                ContactInvalidation invalidation = new ContactInvalidation(buffer.getLong(), buffer.getLong(), buffer.getLong());
+                received.increment();
+                for (Consumer<ContactInvalidation> listener : listeners) {
+                    try {
+                        listener.accept(invalidation);
+                    } catch (RuntimeException e) {
+                        logger.warn("Invalidation listener failed for contact {}", invalidation.contactId(), e);
+                    }
+                }
+                delay.record(Math.max(0, System.currentTimeMillis() - invalidation.publishedAtMillis()), TimeUnit.MILLISECONDS);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                errors.increment();
+                logger.warn("Failed to receive cache invalidation: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The named interface, or else the first non-loopback interface that is up and supports
+     * multicast, falling back to loopback for single-host setups.
+     */
+    private static NetworkInterface resolveInterface(String name) throws SocketException {
+        if (StringUtils.hasText(name)) {
+            NetworkInterface networkInterface = NetworkInterface.getByName(name);
+            if (networkInterface == null) {
+                throw new IllegalStateException("contact.cache.invalidation.interface " + name + " does not exist");
+            }
+            return networkInterface;
+        }
+        for (NetworkInterface candidate : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (candidate.isUp() && !candidate.isLoopback() && candidate.supportsMulticast()) {
+                return candidate;
+            }
+        }
+        return NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+    }
+}
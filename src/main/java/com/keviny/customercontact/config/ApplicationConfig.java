@@ -1,10 +1,12 @@
 package com.keviny.customercontact.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
 @EnableTransactionManagement
+@EnableScheduling
 public class ApplicationConfig {
     // This class enables transaction management for the application
     // Additional configuration can be added here as needed
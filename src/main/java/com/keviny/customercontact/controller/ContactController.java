@@ -1,14 +1,24 @@
 package com.keviny.customercontact.controller;
 
 import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.dto.ContactPatch;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.dto.ContactView;
+import com.keviny.customercontact.idempotency.IdempotencyStore;
+import com.keviny.customercontact.idempotency.IdempotentResponse;
 import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.PhoneNormalizer;
 import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactListQuery;
 import com.keviny.customercontact.service.ContactService;
+import com.keviny.customercontact.service.ContactWriteBatcher;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -24,32 +34,63 @@ import java.util.stream.Collectors;
 public class ContactController {
 
     private static final Logger logger = LoggerFactory.getLogger(ContactController.class);
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
     @Autowired
     private ContactService contactService;
 
+    // Present only with contact.group-commit.enabled=true
+    @Autowired(required = false)
+    private ContactWriteBatcher writeBatcher;
+
+    // Present only with contact.idempotency.enabled=true
+    @Autowired(required = false)
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * All contacts, or with any of the parameters a filtered list in index order: {@code lastName}
+     * is a prefix (requires {@code sort=name}), {@code sort} is {@code id} or {@code name} and
+     * {@code limit} defaults to 100. {@code fields} selects the properties returned and the
+     * columns read; on its own it still returns every contact.
+     */
     @GetMapping
-    public ResponseEntity<List<ContactDto>> getAllContacts() {
+    public ResponseEntity<List<ContactView>> getAllContacts(@RequestParam(required = false) String lastName,
+                                                            @RequestParam(required = false) Boolean hasPrimaryPhone,
+                                                            @RequestParam(required = false) String sort,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String fields) {
         logger.info("Received request to get all contacts");
         
-        List<Contact> contacts = contactService.findAllContacts();
-        List<ContactDto> contactDtos = contacts.stream()
-                .map(ContactMapper::toDto)
+        ContactFieldSet fieldSet = ContactFieldSet.parse(fields);
+        List<Contact> contacts;
+        if (lastName != null || hasPrimaryPhone != null || sort != null || limit != null) {
+            contacts = contactService.findContacts(ContactListQuery.of(lastName, hasPrimaryPhone, sort, limit), fieldSet);
+        } else if (fields != null) {
+            // Fewer columns, never fewer rows
+            contacts = contactService.findAllContacts(fieldSet);
+        } else {
+            contacts = contactService.findAllContacts();
+        }
+        List<ContactView> views = contacts.stream()
+                .map(contact -> new ContactView(ContactMapper.toDto(contact), fieldSet))
                 .collect(Collectors.toList());
                 
-        logger.info("Returning {} contacts", contactDtos.size());
-        return ResponseEntity.ok(contactDtos);
+        logger.info("Returning {} contacts", views.size());
+        return ResponseEntity.ok(views);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ContactDto> getContactById(
-            @PathVariable @Min(value = 1, message = "Contact ID must be positive") Long id) {
+    public ResponseEntity<ContactView> getContactById(
+            @PathVariable @Min(value = 1, message = "Contact ID must be positive") Long id,
+            @RequestParam(required = false) String fields) {
         logger.info("Received request to get contact by ID: {}", id);
         
-        return contactService.findContactById(id)
+        ContactFieldSet fieldSet = ContactFieldSet.parse(fields);
+        return (fieldSet.isAll() ? contactService.findContactById(id) : contactService.findContactById(id, fieldSet))
                 .map(contact -> {
                     logger.info("Found contact with ID: {}", id);
-                    return ContactMapper.toDto(contact);
+                    return new ContactView(ContactMapper.toDto(contact), fieldSet);
                 })
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> {
@@ -58,11 +99,92 @@ public class ContactController {
                 });
     }
 
+    @GetMapping("/by-email")
+    public ResponseEntity<ContactView> getContactByEmail(@RequestParam String email,
+                                                         @RequestParam(required = false) String fields) {
+        logger.info("Received request to get contact by email: {}", email);
+        
+        ContactFieldSet fieldSet = ContactFieldSet.parse(fields);
+        return (fieldSet.isAll() ? contactService.findContactByEmail(email) : contactService.findContactByEmail(email, fieldSet))
+                .map(contact -> new ContactView(ContactMapper.toDto(contact), fieldSet))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.info("Contact not found with email: {}", email);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+    /**
+     * Contacts whose phone or primary phone is the given number, compared after normalization,
+     * so {@code +1 (555) 010-0123} finds {@code 555.010.0123}.
+     */
+    @GetMapping("/by-phone")
+    public ResponseEntity<List<ContactDto>> getContactsByPhone(@RequestParam String number) {
+        logger.debug("Received request to get contacts by phone: {}", number);
+        
+        if (PhoneNormalizer.normalize(number) == null) {
+            throw new IllegalArgumentException("Phone number must have at least 4 digits");
+        }
+        List<ContactDto> contacts = contactService.findContactsByPhone(number).stream()
+                .map(ContactMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(contacts);
+    }
+
+    /** Total contacts and how many have a primary phone or email, from running counters. */
+    @GetMapping("/stats")
+    public ResponseEntity<ContactStats> getContactStats() {
+        return ResponseEntity.ok(contactService.getContactStats());
+    }
+
+    @RequestMapping(method = RequestMethod.HEAD, params = "email")
+    public ResponseEntity<Void> contactExists(@RequestParam String email) {
+        logger.debug("Received existence check for email: {}", email);
+        
+        return contactService.contactExists(email)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Upserts by email. With {@code contact.idempotency.enabled=true}, a request carrying an
+     * {@code Idempotency-Key} header runs once; duplicates get the first response back with
+     * {@code Idempotent-Replayed: true}.
+     */
     @PostMapping
-    public ResponseEntity<ContactDto> createOrUpdateContact(@Valid @RequestBody ContactDto contactDto) {
+    public ResponseEntity<ContactDto> createOrUpdateContact(@Valid @RequestBody ContactDto contactDto,
+                                                            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         logger.info("Received request to create/update contact with email: {}", contactDto.getEmail());
         
-        Contact savedContact = contactService.createOrUpdateContact(contactDto);
+        if (idempotencyKey == null || idempotencyStore == null) {
+            return toResponseEntity(upsert(contactDto));
+        }
+        return toResponseEntity(idempotencyStore.execute(idempotencyKey, contactDto, () -> upsert(contactDto)));
+    }
+
+    /**
+     * Partial update: properties absent from the body are left alone and {@code null} clears
+     * one. Only changed columns are written; a patch that changes nothing writes nothing.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ContactDto> patchContact(
+            @PathVariable @Min(value = 1, message = "Contact ID must be positive") Long id,
+            @Valid @RequestBody ContactPatch patch) {
+        logger.info("Received request to patch contact with ID: {}", id);
+        
+        return contactService.patchContact(id, patch)
+                .map(ContactMapper::toDto)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.info("Contact not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+    private IdempotentResponse upsert(ContactDto contactDto) {
+        Contact savedContact = writeBatcher != null
+                ? writeBatcher.write(contactDto)
+                : contactService.createOrUpdateContact(contactDto);
         
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
@@ -72,6 +194,15 @@ public class ContactController {
         ContactDto responseDto = ContactMapper.toDto(savedContact);
         logger.info("Successfully created/updated contact with ID: {}", savedContact.getId());
         
-        return ResponseEntity.created(location).body(responseDto);
+        return new IdempotentResponse(HttpStatus.CREATED.value(), location.toString(), responseDto);
+    }
+
+    private static ResponseEntity<ContactDto> toResponseEntity(IdempotentResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status())
+                .location(URI.create(response.location()));
+        if (response.replayed()) {
+            builder.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return builder.body(response.body());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.keviny.customercontact.controller;
+
+import com.keviny.customercontact.dedupe.ContactDedupeService;
+import com.keviny.customercontact.dedupe.DedupeJob;
+import com.keviny.customercontact.dedupe.DuplicateCluster;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contacts/dedupe")
+@Validated
+public class ContactDedupeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDedupeController.class);
+
+    @Autowired
+    private ContactDedupeService contactDedupeService;
+
+    @PostMapping
+    public ResponseEntity<DedupeJob> startDedupe() {
+        logger.info("Received request to start a contact dedupe");
+
+        DedupeJob job = contactDedupeService.startDedupe();
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping
+    public List<DedupeJob> listDedupeJobs() {
+        return contactDedupeService.listJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DedupeJob> getDedupeJob(@PathVariable String id) {
+        return contactDedupeService.findJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Clusters of a completed job, highest score first. */
+    @GetMapping("/{id}/clusters")
+    public ResponseEntity<List<DuplicateCluster>> getClusters(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") @Min(value = 0, message = "offset must not be negative") int offset,
+            @RequestParam(defaultValue = "100") @Min(value = 1, message = "limit must be at least 1")
+            @Max(value = 1000, message = "limit must be at most 1000") int limit) {
+        return contactDedupeService.findJob(id)
+                .filter(job -> job.getStatus() == DedupeJob.Status.COMPLETED)
+                .map(job -> {
+                    List<DuplicateCluster> clusters = job.getClusters();
+                    int from = Math.min(offset, clusters.size());
+                    return ResponseEntity.ok(clusters.subList(from, Math.min(clusters.size(), from + limit)));
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.keviny.customercontact.controller;
+
+import com.keviny.customercontact.bulk.ContactSnapshotService;
+import com.keviny.customercontact.bulk.SnapshotJob;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/contacts/snapshots")
+public class ContactSnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSnapshotController.class);
+
+    // Tomcat's sendfile contract: when supported, setting these attributes makes the connector
+    // stream the file region straight from the page cache to the socket after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ContactSnapshotService contactSnapshotService;
+
+    @PostMapping
+    public ResponseEntity<SnapshotJob> startSnapshot(@RequestParam(required = false) SnapshotJob.Format format) {
+        logger.info("Received request to start a contact snapshot, format: {}", format);
+
+        SnapshotJob job = contactSnapshotService.startSnapshot(format);
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping
+    public List<SnapshotJob> listSnapshots() {
+        return contactSnapshotService.listJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SnapshotJob> getSnapshot(@PathVariable String id) {
+        return resolve(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/download")
+    public void downloadSnapshot(@PathVariable String id, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<SnapshotJob> snapshot = resolve(id).filter(job -> job.getStatus() == SnapshotJob.Status.COMPLETED);
+        if (snapshot.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        SnapshotJob job = snapshot.get();
+        Path file = job.getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long[] range = parseRange(request.getHeader(HttpHeaders.RANGE), length);
+            if (range == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            long start = range[0];
+            long end = range[1];
+            boolean partial = start != 0 || end != length - 1;
+
+            response.setStatus(partial ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
+            response.setContentType("application/gzip");
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, "\"" + job.getId() + "\"");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFileName() + "\"");
+            response.setContentLengthLong(end - start + 1);
+            if (partial) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            // No sendfile (e.g. TLS connector): transferTo still avoids copying through a heap buffer
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private Optional<SnapshotJob> resolve(String id) {
+        return "latest".equals(id) ? contactSnapshotService.findLatestCompleted() : contactSnapshotService.findJob(id);
+    }
+
+    /**
+     * Parses a single {@code bytes=} range. Multiple ranges are answered with the whole file,
+     * which RFC 9110 permits.
+     *
+     * @return inclusive {start, end}, or null if the range cannot be satisfied
+     */
+    static long[] parseRange(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[] {0, length - 1};
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[] {0, length - 1};
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[] {0, length - 1};
+        }
+    }
+}
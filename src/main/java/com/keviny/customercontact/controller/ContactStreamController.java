@@ -0,0 +1,45 @@
+package com.keviny.customercontact.controller;
+
+import com.keviny.customercontact.service.ContactChangeBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/contacts")
+public class ContactStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactStreamController.class);
+
+    @Autowired
+    private ContactChangeBroadcaster broadcaster;
+
+    @Value("${contact.stream.timeout:30m}")
+    private Duration streamTimeout;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamContactChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.info("Received request to stream contact changes, resuming after: {}", lastEventId);
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        if (!broadcaster.subscribe(emitter, lastEventId)) {
+            logger.warn("Rejecting stream subscription, subscriber limit reached");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -0,0 +1,57 @@
+package com.keviny.customercontact.controller;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.service.ContactWriteBehindService;
+import com.keviny.customercontact.service.WriteBehindStatus;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+public class ContactWriteBehindController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactWriteBehindController.class);
+
+    // Present only with contact.write-behind.enabled=true
+    @Autowired(required = false)
+    private ContactWriteBehindService writeBehindService;
+
+    @PostMapping(path = "/api/contacts", params = "async=true")
+    public ResponseEntity<WriteBehindStatus> acceptContact(@Valid @RequestBody ContactDto contactDto) {
+        logger.debug("Received write-behind upsert for email: {}", contactDto.getEmail());
+
+        long trackingId = requireService().submit(contactDto);
+
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/contacts/write-behind/{trackingId}")
+                .buildAndExpand(trackingId)
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(new WriteBehindStatus(trackingId, WriteBehindStatus.State.PENDING, null));
+    }
+
+    @GetMapping("/api/contacts/write-behind/{trackingId}")
+    public ResponseEntity<WriteBehindStatus> getStatus(@PathVariable long trackingId) {
+        return requireService().getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ContactWriteBehindService requireService() {
+        if (writeBehindService == null) {
+            throw new IllegalArgumentException("Write-behind mode is not enabled (contact.write-behind.enabled)");
+        }
+        return writeBehindService;
+    }
+}
@@ -1,6 +1,10 @@
 package com.keviny.customercontact.controller;
 
+import com.keviny.customercontact.deadline.RequestDeadline;
+import com.keviny.customercontact.deadline.RequestDeadlineExceededException;
 import com.keviny.customercontact.dto.ErrorResponse;
+import com.keviny.customercontact.idempotency.IdempotencyConflictException;
+import com.keviny.customercontact.service.GroupCommitTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
@@ -98,6 +103,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.METHOD_NOT_ALLOWED);
     }
     
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        logger.warn("Upload too large: {}", ex.getMessage());
+        
+        Map<String, String> errors = new HashMap<>();
+        errors.put("file", "Uploaded file exceeds the maximum allowed size");
+        
+        ErrorResponse errorResponse = new ErrorResponse("Payload too large", errors);
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+    
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
         logger.error("Data integrity violation: {}", ex.getMessage(), ex);
@@ -111,6 +127,10 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(DataAccessException.class)
     public ResponseEntity<ErrorResponse> handleDataAccessException(DataAccessException ex) {
+        if (RequestDeadline.isExceededBy(ex)) {
+            // From a call without a circuit breaker fallback to surface it
+            return handleRequestDeadlineExceededException(new RequestDeadlineExceededException(ex));
+        }
         logger.error("Database access error: {}", ex.getMessage(), ex);
         
         Map<String, String> errors = new HashMap<>();
@@ -120,6 +140,39 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
     
+    @ExceptionHandler(RequestDeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRequestDeadlineExceededException(RequestDeadlineExceededException ex) {
+        logger.warn("Request deadline exceeded: {}", ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+        
+        Map<String, String> errors = new HashMap<>();
+        errors.put("deadline", "The request deadline passed while waiting on the database");
+        
+        ErrorResponse errorResponse = new ErrorResponse("Deadline exceeded", errors);
+        return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+    }
+    
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        logger.warn("Idempotency conflict: {}", ex.getMessage());
+        
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Idempotency-Key", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse("Idempotency conflict", errors);
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
+    
+    @ExceptionHandler(GroupCommitTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleGroupCommitTimeoutException(GroupCommitTimeoutException ex) {
+        logger.warn("Group commit timed out: {}", ex.getMessage());
+        
+        Map<String, String> errors = new HashMap<>();
+        errors.put("write", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse("Write timed out", errors);
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
+    
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         logger.warn("Invalid argument: {}", ex.getMessage());
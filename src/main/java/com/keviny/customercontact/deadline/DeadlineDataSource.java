@@ -0,0 +1,102 @@
+package com.keviny.customercontact.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RequestDeadline} of the calling thread to JDBC. A Hikari pool is asked for
+ * a connection with the smaller of the time left and its own {@code connection-timeout}, and
+ * every statement created on the connection gets the time left as its query timeout, rounded
+ * up to whole seconds as JDBC requires. Without a deadline connections come straight from the
+ * pool, unwrapped.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!RequestDeadline.isSet()) {
+            return obtainTargetDataSource().getConnection();
+        }
+        long deadlineNanos = RequestDeadline.deadlineNanos();
+        // Rounded up, so a pool wait the deadline cut short ends after it has passed
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+        if (remainingMillis <= 0) {
+            throw new SQLTimeoutException("Request deadline passed before a connection was acquired");
+        }
+        return wrap(acquire(remainingMillis), deadlineNanos);
+    }
+
+    private Connection acquire(long remainingMillis) throws SQLException {
+        DataSource target = obtainTargetDataSource();
+        if (target instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+            return pool.getConnection(Math.min(remainingMillis, hikari.getConnectionTimeout()));
+        }
+        // Not Hikari, or a pool that has not started yet; the pool's own timeout applies
+        return target.getConnection();
+    }
+
+    private static Connection wrap(Connection connection, long deadlineNanos) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, deadlineNanos));
+    }
+
+    /** Whole seconds left before the deadline, at least 1 since 0 means no timeout to JDBC. */
+    static int queryTimeoutSeconds(long remainingNanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+        return (int) Math.max(1, Math.min(seconds, Integer.MAX_VALUE));
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final long deadlineNanos;
+
+        ConnectionHandler(Connection connection, long deadlineNanos) {
+            this.connection = connection;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement statement
+                    && (name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    statement.close();
+                    throw new SQLTimeoutException("Request deadline passed before the statement was executed");
+                }
+                statement.setQueryTimeout(queryTimeoutSeconds(remainingNanos));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.keviny.customercontact.deadline;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-bound deadline of the request being served, on the {@link System#nanoTime()} clock.
+ * Bound by {@link RequestDeadlineFilter} from the client's timeout headers; threads without one
+ * have an unlimited budget.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {}
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /** @return the deadline as a {@link System#nanoTime()} value; only meaningful if {@link #isSet()} */
+    public static long deadlineNanos() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline != null ? deadline : Long.MAX_VALUE;
+    }
+
+    /** @return milliseconds left, negative once passed, {@link Long#MAX_VALUE} without a deadline */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline != null ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Whether the failure is this request running out of time rather than a database fault: the
+     * deadline has passed and the cause is a JDBC timeout or pool wait, which
+     * {@link DeadlineDataSource} bounds by it.
+     */
+    public static boolean isExceededBy(Throwable failure) {
+        if (failure instanceof RequestDeadlineExceededException) {
+            return true;
+        }
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null || deadline - System.nanoTime() > 0) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Surfaces a failure the deadline caused as a {@link RequestDeadlineExceededException}. */
+    public static void rethrowIfExceeded(Throwable failure) {
+        if (failure instanceof RequestDeadlineExceededException exceeded) {
+            throw exceeded;
+        }
+        if (isExceededBy(failure)) {
+            throw new RequestDeadlineExceededException(failure);
+        }
+    }
+
+    static void bind(long deadlineNanos) {
+        DEADLINE_NANOS.set(deadlineNanos);
+    }
+
+    static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+}
@@ -0,0 +1,103 @@
+package com.keviny.customercontact.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.jdbc.InstrumentedDataSource;
+import com.keviny.customercontact.service.ContactService;
+import com.keviny.customercontact.sharding.ShardRoutingDataSource;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Deadline propagation ({@code contact.deadline.enabled}, on by default). A filter binds the
+ * client's deadline to the request; DataSources, or the shard pools behind the router, are
+ * wrapped in a {@link DeadlineDataSource} closest to the pool; the {@code contactService}
+ * retry stops retrying once less than {@code min-retry-budget-ms} is left; and its circuit
+ * breaker ignores calls that failed because their deadline ran out.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contact.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlineConfig {
+
+    @Bean
+    public RequestDeadlineFilter requestDeadlineFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                                       @Value("${contact.deadline.default-timeout-ms:0}") long defaultTimeoutMillis,
+                                                       @Value("${contact.deadline.max-timeout-ms:60000}") long maxTimeoutMillis) {
+        return new RequestDeadlineFilter(Duration.ofMillis(defaultTimeoutMillis), Duration.ofMillis(maxTimeoutMillis),
+                objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new DeadlineDataSourcePostProcessor();
+    }
+
+    /**
+     * Narrows the configured retry predicate: a failure that would be retried is still given up
+     * on when the request's remaining budget could not cover another attempt.
+     */
+    @Bean
+    public RetryConfigCustomizer deadlineAwareRetryCustomizer(
+            @Value("${contact.deadline.min-retry-budget-ms:1000}") long minRetryBudgetMillis) {
+        return RetryConfigCustomizer.of(ContactService.CONTACT_SERVICE, builder -> {
+            Predicate<Throwable> configured = builder.build().getExceptionPredicate();
+            Predicate<Throwable> withinBudget = e -> RequestDeadline.remainingMillis() >= minRetryBudgetMillis;
+            builder.retryExceptions()
+                    .ignoreExceptions()
+                    .retryOnException(configured.and(withinBudget));
+        });
+    }
+
+    /**
+     * Widens the configured ignore predicate, so a client with a short timeout cannot open the
+     * breaker for everyone: a call that ran out of its own deadline counts neither as a failure
+     * nor as a slow call.
+     */
+    @Bean
+    public CircuitBreakerConfigCustomizer deadlineExemptCircuitBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of(ContactService.CONTACT_SERVICE, builder -> {
+            Predicate<Throwable> configured = builder.build().getIgnoreExceptionPredicate();
+            builder.ignoreException(configured.or(RequestDeadline::isExceededBy));
+        });
+    }
+
+    /**
+     * Ordered so it runs before the statement instrumentation's post-processor and the deadline
+     * wrapper sits right on the pool, where it can hand Hikari a shorter acquire timeout.
+     */
+    static class DeadlineDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof ShardRoutingDataSource router) {
+                // Must happen before afterPropertiesSet resolves the routing targets
+                router.decorateShards(DeadlineDataSource::new);
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ShardRoutingDataSource)
+                    && !(bean instanceof DeadlineDataSource) && !(bean instanceof InstrumentedDataSource)) {
+                return new DeadlineDataSource(dataSource);
+            }
+            return bean;
+        }
+    }
+}
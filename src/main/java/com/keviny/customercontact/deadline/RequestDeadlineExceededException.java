@@ -0,0 +1,15 @@
+package com.keviny.customercontact.deadline;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * The request ran out of its deadline while it was waiting on the database. The client's budget
+ * is gone, not the database, so it is answered 504 and kept out of the circuit breaker's
+ * failure rate.
+ */
+public class RequestDeadlineExceededException extends QueryTimeoutException {
+
+    public RequestDeadlineExceededException(Throwable cause) {
+        super("Request deadline exceeded during a database call", cause);
+    }
+}
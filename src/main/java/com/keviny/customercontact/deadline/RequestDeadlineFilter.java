@@ -0,0 +1,119 @@
+package com.keviny.customercontact.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Binds the client's deadline to the request thread as a {@link RequestDeadline}.
+ * {@code X-Request-Timeout} is a budget relative to arrival ({@code 2500}, {@code 2500ms},
+ * {@code 2s}); {@code X-Request-Deadline} is an absolute instant (epoch milliseconds or ISO-8601)
+ * and assumes roughly synchronized clocks. The earlier of the two wins, capped at
+ * {@code max-timeout-ms}; without either, {@code default-timeout-ms} applies if set. A request
+ * whose deadline has already passed is answered 504 without doing any work.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineFilter.class);
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+    private final ObjectMapper objectMapper;
+    private final Counter expiredOnArrival;
+
+    public RequestDeadlineFilter(Duration defaultTimeout, Duration maxTimeout, ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+        this.objectMapper = objectMapper;
+        this.expiredOnArrival = Counter.builder("contact.deadline.expired-on-arrival")
+                .description("Requests whose deadline had passed before any work was done")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after load shedding, before anything that may touch the database
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+        Duration budget;
+        try {
+            budget = budget(request.getHeader(TIMEOUT_HEADER), request.getHeader(DEADLINE_HEADER));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            reject(response, HttpStatus.BAD_REQUEST, "Invalid argument",
+                    TIMEOUT_HEADER + " must be a duration and " + DEADLINE_HEADER + " an instant");
+            return;
+        }
+        if (budget == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (budget.isNegative() || budget.isZero()) {
+            expiredOnArrival.increment();
+            logger.debug("Deadline of {} {} passed {} ms before arrival", request.getMethod(), request.getRequestURI(),
+                    -budget.toMillis());
+            reject(response, HttpStatus.GATEWAY_TIMEOUT, "Deadline exceeded", "The request deadline has already passed");
+            return;
+        }
+        RequestDeadline.bind(now + budget.toNanos());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /** @return the time left for this request, or {@code null} for no deadline */
+    Duration budget(String timeout, String deadline) {
+        Duration budget = null;
+        if (timeout != null && !timeout.isBlank()) {
+            budget = DurationStyle.detectAndParse(timeout.trim());
+        }
+        if (deadline != null && !deadline.isBlank()) {
+            Duration untilDeadline = Duration.between(Instant.now(), parseInstant(deadline.trim()));
+            budget = budget == null || untilDeadline.compareTo(budget) < 0 ? untilDeadline : budget;
+        }
+        if (budget == null) {
+            budget = defaultTimeout.isZero() ? null : defaultTimeout;
+        }
+        return budget != null && !maxTimeout.isZero() && budget.compareTo(maxTimeout) > 0 ? maxTimeout : budget;
+    }
+
+    private static Instant parseInstant(String value) {
+        return value.chars().allMatch(Character::isDigit)
+                ? Instant.ofEpochMilli(Long.parseLong(value))
+                : Instant.parse(value);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message, Map.of("deadline", detail)));
+    }
+}
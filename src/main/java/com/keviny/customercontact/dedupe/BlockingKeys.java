@@ -0,0 +1,108 @@
+package com.keviny.customercontact.dedupe;
+
+import java.util.Locale;
+
+/**
+ * Cheap keys that put likely duplicates into the same block, so only contacts sharing a key are
+ * ever compared. A key is {@code null} when the field carries too little to block on.
+ */
+final class BlockingKeys {
+
+    // Soundex digit per letter a..z; '0' letters (vowels, h, w, y) are not coded
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private BlockingKeys() {}
+
+    /** American Soundex of the last name followed by the first initial, e.g. {@code S530j}. */
+    static String name(String firstName, String lastName) {
+        String soundex = soundex(lastName);
+        if (soundex == null) {
+            return null;
+        }
+        char initial = firstLetter(firstName);
+        return initial == 0 ? soundex : soundex + initial;
+    }
+
+    static String soundex(String value) {
+        if (value == null) {
+            return null;
+        }
+        char[] code = new char[4];
+        int length = 0;
+        char previous = 0;
+        for (int i = 0; i < value.length() && length < 4; i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (length == 0) {
+                code[length++] = Character.toUpperCase(c);
+            } else if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // h and w do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        if (length == 0) {
+            return null;
+        }
+        while (length < 4) {
+            code[length++] = '0';
+        }
+        return new String(code);
+    }
+
+    /**
+     * Digits only, without a leading North American country code; {@code null} below seven
+     * digits, which is too short to tell people apart.
+     */
+    static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 11 && digits.charAt(0) == '1') {
+            digits.deleteCharAt(0);
+        }
+        return digits.length() >= 7 ? digits.toString() : null;
+    }
+
+    /**
+     * Lower-cased local part with any {@code +tag} and dots removed, so the same mailbox name at
+     * different providers shares a block.
+     */
+    static String emailLocalPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        String local = (at >= 0 ? email.substring(0, at) : email).trim().toLowerCase(Locale.ROOT);
+        int plus = local.indexOf('+');
+        if (plus >= 0) {
+            local = local.substring(0, plus);
+        }
+        local = local.replace(".", "");
+        return local.isEmpty() ? null : local;
+    }
+
+    private static char firstLetter(String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = Character.toLowerCase(value.charAt(i));
+                if (c >= 'a' && c <= 'z') {
+                    return c;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.keviny.customercontact.dedupe;
+
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link ContactDeduplicator} over every contact in the background.
+ * <p>
+ * The contacts are read in one streaming pass per shard, detached as they are reduced to their
+ * blocking keys, so only the compact candidates stay in memory. The comparison phase then runs on
+ * a dedicated {@link ForkJoinPool} of {@code contact.dedupe.parallelism} workers, so it neither
+ * holds a database connection nor competes with the common pool. One job runs at a time; the
+ * last {@code contact.dedupe.retained} results are kept in memory.
+ */
+@Service
+public class ContactDedupeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDedupeService.class);
+
+    private static final DateTimeFormatter ID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Absent with the memory profile, which has no persistence context to detach from
+    @Autowired(required = false)
+    private EntityManager entityManager;
+
+    @Value("${contact.dedupe.threshold:0.85}")
+    private double threshold;
+
+    @Value("${contact.dedupe.max-block-size:1000}")
+    private int maxBlockSize;
+
+    @Value("${contact.dedupe.parallelism:0}")
+    private int parallelism;
+
+    @Value("${contact.dedupe.retained:5}")
+    private int retained;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(daemonThreads());
+    private final Map<String, DedupeJob> jobs = new LinkedHashMap<>();
+    private DedupeJob running;
+
+    /**
+     * Starts a dedupe run unless one is already running, in which case that one is returned.
+     */
+    public synchronized DedupeJob startDedupe() {
+        if (running != null) {
+            return running;
+        }
+        DedupeJob job = new DedupeJob(ID_FORMAT.format(Instant.now()));
+        jobs.put(job.getId(), job);
+        running = job;
+        executor.execute(() -> run(job));
+        logger.info("Started contact dedupe {}", job.getId());
+        return job;
+    }
+
+    public synchronized Optional<DedupeJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public synchronized List<DedupeJob> listJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    void run(DedupeJob job) {
+        long start = System.nanoTime();
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            ContactDeduplicator deduplicator = new ContactDeduplicator(threshold, maxBlockSize);
+            scan(job, deduplicator);
+            long scanned = System.nanoTime();
+            ContactDeduplicator.Result result = deduplicator.run(pool);
+            job.markCompleted(result);
+            logger.info("Dedupe {} completed: {} contacts, {} blocks ({} oversized), {} comparisons, {} clusters; "
+                            + "scan {} ms, compare {} ms on {} workers",
+                    job.getId(), result.contacts(), result.blocks(), result.oversizedBlocks(), result.comparisons(),
+                    result.clusters().size(), (scanned - start) / 1_000_000,
+                    (System.nanoTime() - scanned) / 1_000_000, workers);
+        } catch (Exception e) {
+            logger.error("Dedupe {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+        } finally {
+            pool.shutdown();
+            synchronized (this) {
+                running = null;
+                pruneOldJobs();
+            }
+        }
+    }
+
+    private void scan(DedupeJob job, ContactDeduplicator deduplicator) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.run(shard, () -> transaction.executeWithoutResult(status -> {
+                try (Stream<Contact> contacts = contactRepository.streamAll()) {
+                    for (Contact contact : (Iterable<Contact>) contacts::iterator) {
+                        deduplicator.add(contact);
+                        // Keep the persistence context from accumulating the whole table
+                        if (entityManager != null) {
+                            entityManager.detach(contact);
+                        }
+                        if (deduplicator.size() % 10_000 == 0) {
+                            job.contactsScanned(deduplicator.size());
+                        }
+                    }
+                }
+            }));
+        }
+        job.contactsScanned(deduplicator.size());
+    }
+
+    private void pruneOldJobs() {
+        int finished = 0;
+        for (DedupeJob job : jobs.values()) {
+            if (job.getStatus() != DedupeJob.Status.RUNNING) {
+                finished++;
+            }
+        }
+        Iterator<DedupeJob> oldestFirst = jobs.values().iterator();
+        while (finished > retained && oldestFirst.hasNext()) {
+            if (oldestFirst.next().getStatus() != DedupeJob.Status.RUNNING) {
+                oldestFirst.remove();
+                finished--;
+            }
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("contact-dedupe-");
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,411 @@
+package com.keviny.customercontact.dedupe;
+
+import com.keviny.customercontact.model.Contact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds clusters of probable duplicate contacts without comparing every pair.
+ * <p>
+ * {@link #add} reduces each contact to the fields that are scored and files it under its
+ * {@link BlockingKeys}: phonetic name, email local part and each normalized phone. Only contacts
+ * sharing a block are compared. A pair that shares several blocks is scored in the first of them
+ * only, so no set of seen pairs is needed. Blocks above {@code maxBlockSize}, such as a shared
+ * switchboard number, say little about identity and would dominate the run; they are skipped
+ * and counted.
+ * <p>
+ * {@link #run} scores the blocks on a {@link ForkJoinPool}, splitting the block list by pair count
+ * so the work stays balanced. Matches are merged into a lock-free union-find, so workers never
+ * wait on each other and the comparison phase scales with the cores available.
+ */
+final class ContactDeduplicator {
+
+    static final double NAME_WEIGHT = 0.4;
+    static final double EMAIL_WEIGHT = 0.3;
+    static final double PHONE_WEIGHT = 0.3;
+
+    // Below this many pairs a task scores its blocks itself instead of splitting
+    private static final long PAIRS_PER_TASK = 20_000;
+
+    private final double threshold;
+    private final int maxBlockSize;
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final Map<String, IntList> nameBlocks = new HashMap<>();
+    private final Map<String, IntList> emailBlocks = new HashMap<>();
+    private final Map<String, IntList> phoneBlocks = new HashMap<>();
+
+    ContactDeduplicator(double threshold, int maxBlockSize) {
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    void add(Contact contact) {
+        int index = candidates.size();
+        Candidate candidate = new Candidate(contact);
+        candidates.add(candidate);
+        if (candidate.nameKey != null) {
+            nameBlocks.computeIfAbsent(candidate.nameKey, key -> new IntList()).add(index);
+        }
+        if (candidate.emailKey != null) {
+            emailBlocks.computeIfAbsent(candidate.emailKey, key -> new IntList()).add(index);
+        }
+        for (String phone : candidate.phoneKeys) {
+            phoneBlocks.computeIfAbsent(phone, key -> new IntList()).add(index);
+        }
+    }
+
+    int size() {
+        return candidates.size();
+    }
+
+    Result run(ForkJoinPool pool) {
+        List<Block> blocks = new ArrayList<>();
+        long[] oversized = {0};
+        collect(nameBlocks, BlockType.NAME, blocks, oversized);
+        collect(emailBlocks, BlockType.EMAIL, blocks, oversized);
+        collect(phoneBlocks, BlockType.PHONE, blocks, oversized);
+
+        long[] pairsBefore = new long[blocks.size() + 1];
+        for (int i = 0; i < blocks.size(); i++) {
+            long n = blocks.get(i).members.length;
+            pairsBefore[i + 1] = pairsBefore[i] + n * (n - 1) / 2;
+        }
+        Matches matches = new Matches(candidates.size());
+        pool.invoke(new CompareTask(blocks, pairsBefore, 0, blocks.size(), matches));
+        return new Result(candidates.size(), blocks.size(), oversized[0], matches.comparisons.sum(),
+                matches.matches.sum(), clusters(matches));
+    }
+
+    private void collect(Map<String, IntList> byKey, BlockType type, List<Block> blocks, long[] oversized) {
+        for (Map.Entry<String, IntList> entry : byKey.entrySet()) {
+            IntList members = entry.getValue();
+            if (members.size < 2) {
+                continue;
+            }
+            if (members.size > maxBlockSize) {
+                oversized[0]++;
+                continue;
+            }
+            blocks.add(new Block(type, entry.getKey(), members.toArray()));
+        }
+    }
+
+    private List<DuplicateCluster> clusters(Matches matches) {
+        Map<Integer, List<Integer>> byRoot = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (matches.score(i) > 0) {
+                byRoot.computeIfAbsent(matches.find(i), root -> new ArrayList<>()).add(i);
+            }
+        }
+        List<DuplicateCluster> clusters = new ArrayList<>(byRoot.size());
+        for (List<Integer> members : byRoot.values()) {
+            List<Long> ids = new ArrayList<>(members.size());
+            double score = 0;
+            for (int member : members) {
+                ids.add(candidates.get(member).id);
+                score = Math.max(score, matches.score(member));
+            }
+            ids.sort(null);
+            clusters.add(new DuplicateCluster(ids, score));
+        }
+        clusters.sort(Comparator.comparingDouble(DuplicateCluster::getScore).reversed()
+                .thenComparing(cluster -> cluster.getContactIds().get(0)));
+        return clusters;
+    }
+
+    /**
+     * Weighted mean of the name, email local part and phone similarities, over the fields both
+     * contacts have. A missing phone is not evidence against a match; a different one is.
+     * <p>
+     * The cheap phone check runs first and the string similarities are skipped as soon as the
+     * score can no longer reach {@code threshold}; the result is exact only from there up.
+     */
+    static double score(Candidate a, Candidate b, double threshold) {
+        boolean emails = a.emailKey != null && b.emailKey != null;
+        boolean phones = a.phoneKeys.length > 0 && b.phoneKeys.length > 0;
+        double weights = NAME_WEIGHT + (emails ? EMAIL_WEIGHT : 0) + (phones ? PHONE_WEIGHT : 0);
+        double weighted = phones && sharePhone(a, b) ? PHONE_WEIGHT : 0;
+        double open = NAME_WEIGHT + (emails ? EMAIL_WEIGHT : 0);
+        if ((weighted + open) / weights < threshold) {
+            return weighted / weights;
+        }
+        weighted += NAME_WEIGHT * jaroWinkler(a.name, b.name);
+        open -= NAME_WEIGHT;
+        if (!emails || (weighted + open) / weights < threshold) {
+            return weighted / weights;
+        }
+        return (weighted + EMAIL_WEIGHT * jaroWinkler(a.emailKey, b.emailKey)) / weights;
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    private static boolean sharePhone(Candidate a, Candidate b) {
+        for (String phone : a.phoneKeys) {
+            for (String other : b.phoneKeys) {
+                if (phone.equals(other)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private enum BlockType { NAME, EMAIL, PHONE }
+
+    private record Block(BlockType type, String key, int[] members) {
+    }
+
+    /** Scored form of a contact; everything is normalized once, in {@link #add}. */
+    static final class Candidate {
+
+        final long id;
+        final String name;
+        final String nameKey;
+        final String emailKey;
+        final String[] phoneKeys;
+
+        Candidate(Contact contact) {
+            this.id = contact.getId();
+            this.name = (nullToEmpty(contact.getFirstName()) + " " + nullToEmpty(contact.getLastName()))
+                    .trim().toLowerCase(Locale.ROOT);
+            this.nameKey = BlockingKeys.name(contact.getFirstName(), contact.getLastName());
+            this.emailKey = BlockingKeys.emailLocalPart(contact.getEmail());
+            String phone = BlockingKeys.phone(contact.getPhone());
+            String primaryPhone = BlockingKeys.phone(contact.getPrimaryPhone());
+            if (phone == null) {
+                phoneKeys = primaryPhone == null ? new String[0] : new String[] {primaryPhone};
+            } else {
+                phoneKeys = primaryPhone == null || primaryPhone.equals(phone)
+                        ? new String[] {phone} : new String[] {phone, primaryPhone};
+            }
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+
+    private final class CompareTask extends RecursiveAction {
+
+        private final List<Block> blocks;
+        private final long[] pairsBefore;
+        private final int from;
+        private final int to;
+        private final Matches matches;
+
+        CompareTask(List<Block> blocks, long[] pairsBefore, int from, int to, Matches matches) {
+            this.blocks = blocks;
+            this.pairsBefore = pairsBefore;
+            this.from = from;
+            this.to = to;
+            this.matches = matches;
+        }
+
+        @Override
+        protected void compute() {
+            long pairs = pairsBefore[to] - pairsBefore[from];
+            if (to - from <= 1 || pairs <= PAIRS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    compareBlock(blocks.get(i));
+                }
+                return;
+            }
+            // Split where half of the pairs lie on either side
+            int split = Arrays.binarySearch(pairsBefore, from, to + 1, pairsBefore[from] + pairs / 2);
+            split = split >= 0 ? split : -split - 1;
+            split = Math.max(from + 1, Math.min(to - 1, split));
+            invokeAll(new CompareTask(blocks, pairsBefore, from, split, matches),
+                    new CompareTask(blocks, pairsBefore, split, to, matches));
+        }
+
+        private void compareBlock(Block block) {
+            int[] members = block.members;
+            long comparisons = 0;
+            for (int i = 0; i < members.length; i++) {
+                Candidate a = candidates.get(members[i]);
+                for (int j = i + 1; j < members.length; j++) {
+                    Candidate b = candidates.get(members[j]);
+                    if (scoredInEarlierBlock(a, b, block)) {
+                        continue;
+                    }
+                    comparisons++;
+                    double score = score(a, b, threshold);
+                    if (score >= threshold) {
+                        matches.link(members[i], members[j], score);
+                    }
+                }
+            }
+            matches.comparisons.add(comparisons);
+        }
+
+        /**
+         * A pair is scored in the first block it shares, in name, email, phone order and, among
+         * phones, in the block of the smallest shared number. Oversized blocks do not count.
+         */
+        private boolean scoredInEarlierBlock(Candidate a, Candidate b, Block block) {
+            if (block.type == BlockType.NAME) {
+                return false;
+            }
+            if (sharesComparedBlock(a.nameKey, b.nameKey, nameBlocks)) {
+                return true;
+            }
+            if (block.type == BlockType.EMAIL) {
+                return false;
+            }
+            if (sharesComparedBlock(a.emailKey, b.emailKey, emailBlocks)) {
+                return true;
+            }
+            for (String phone : a.phoneKeys) {
+                if (phone.compareTo(block.key) < 0) {
+                    for (String other : b.phoneKeys) {
+                        if (phone.equals(other) && phoneBlocks.get(phone).size <= maxBlockSize) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean sharesComparedBlock(String key, String other, Map<String, IntList> byKey) {
+            return key != null && key.equals(other) && byKey.get(key).size <= maxBlockSize;
+        }
+    }
+
+    /** Lock-free union-find over candidate indexes, with the best match score seen per candidate. */
+    private static final class Matches {
+
+        final AtomicIntegerArray parent;
+        final AtomicLongArray bestScore;
+        final LongAdder comparisons = new LongAdder();
+        final LongAdder matches = new LongAdder();
+
+        Matches(int size) {
+            parent = new AtomicIntegerArray(size);
+            bestScore = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                parent.set(i, i);
+            }
+        }
+
+        void link(int a, int b, double score) {
+            matches.increment();
+            raiseScore(a, score);
+            raiseScore(b, score);
+            while (true) {
+                int rootA = find(a);
+                int rootB = find(b);
+                if (rootA == rootB) {
+                    return;
+                }
+                // The larger root is linked under the smaller; the CAS fails if it stopped being a root
+                int child = Math.max(rootA, rootB);
+                if (parent.compareAndSet(child, child, Math.min(rootA, rootB))) {
+                    return;
+                }
+            }
+        }
+
+        int find(int node) {
+            while (true) {
+                int up = parent.get(node);
+                if (up == node) {
+                    return node;
+                }
+                int grandparent = parent.get(up);
+                // Path halving; losing the race only means the path stays longer
+                parent.compareAndSet(node, up, grandparent);
+                node = grandparent;
+            }
+        }
+
+        double score(int node) {
+            return Double.longBitsToDouble(bestScore.get(node));
+        }
+
+        private void raiseScore(int node, double score) {
+            // Non-negative doubles order the same as their bit patterns
+            long bits = Double.doubleToLongBits(score);
+            long current;
+            while ((current = bestScore.get(node)) < bits) {
+                if (bestScore.compareAndSet(node, current, bits)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    record Result(long contacts, long blocks, long oversizedBlocks, long comparisons, long matches,
+                  List<DuplicateCluster> clusters) {
+    }
+}
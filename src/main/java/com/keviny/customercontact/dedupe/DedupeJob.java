@@ -0,0 +1,79 @@
+package com.keviny.customercontact.dedupe;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One run of the duplicate detection over the whole contact table.
+ */
+public class DedupeJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Instant startedAt = Instant.now();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile long contactsScanned;
+    private volatile long blocks;
+    private volatile long oversizedBlocks;
+    private volatile long comparisons;
+    private volatile long matchedPairs;
+    private volatile List<DuplicateCluster> clusters = List.of();
+    private volatile String failureReason;
+
+    public DedupeJob(String id) {
+        this.id = id;
+    }
+
+    void markCompleted(ContactDeduplicator.Result result) {
+        this.contactsScanned = result.contacts();
+        this.blocks = result.blocks();
+        this.oversizedBlocks = result.oversizedBlocks();
+        this.comparisons = result.comparisons();
+        this.matchedPairs = result.matches();
+        this.clusters = result.clusters();
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String reason) {
+        this.failureReason = reason;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    void contactsScanned(long contacts) {
+        this.contactsScanned = contacts;
+    }
+
+    public String getId() { return id; }
+
+    public Status getStatus() { return status; }
+
+    public Instant getStartedAt() { return startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public long getContactsScanned() { return contactsScanned; }
+
+    /** Blocks of two or more contacts that were compared pairwise. */
+    public long getBlocks() { return blocks; }
+
+    /** Blocks above {@code contact.dedupe.max-block-size}, skipped as too unspecific. */
+    public long getOversizedBlocks() { return oversizedBlocks; }
+
+    public long getComparisons() { return comparisons; }
+
+    public long getMatchedPairs() { return matchedPairs; }
+
+    public int getClusterCount() { return clusters.size(); }
+
+    public String getFailureReason() { return failureReason; }
+
+    /** Largest score first; served page by page through the clusters endpoint. */
+    @JsonIgnore
+    public List<DuplicateCluster> getClusters() { return clusters; }
+}
@@ -0,0 +1,24 @@
+package com.keviny.customercontact.dedupe;
+
+import java.util.List;
+
+/**
+ * Contacts that the dedupe job linked as probably the same person, directly or through other
+ * members of the cluster.
+ */
+public class DuplicateCluster {
+
+    private final List<Long> contactIds;
+    private final double score;
+
+    public DuplicateCluster(List<Long> contactIds, double score) {
+        this.contactIds = contactIds;
+        this.score = score;
+    }
+
+    /** Member ids in ascending order. */
+    public List<Long> getContactIds() { return contactIds; }
+
+    /** Highest pair score inside the cluster, between the match threshold and 1. */
+    public double getScore() { return score; }
+}
@@ -0,0 +1,27 @@
+package com.keviny.customercontact.dto;
+
+/**
+ * The {@link ContactDto} properties a client may select with {@code fields=}. The name is both
+ * the JSON property and the {@code Contact} entity attribute.
+ */
+public enum ContactField {
+
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    PHONE("phone"),
+    PRIMARY_PHONE("primaryPhone"),
+    ADDRESS("address"),
+    PRIMARY_EMAIL("primaryEmail");
+
+    private final String property;
+
+    ContactField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
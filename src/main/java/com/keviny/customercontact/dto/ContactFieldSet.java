@@ -0,0 +1,114 @@
+package com.keviny.customercontact.dto;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * A validated selection of {@link ContactField}s. There are only 2^8 possible selections, so
+ * each one is built once and shared: repeated requests for the same {@code fields=} value get
+ * the same instance and the same precomputed field order, which the JSON writer and the SQL
+ * projection key their own caches on through {@link #mask()}.
+ */
+public final class ContactFieldSet {
+
+    private static final ContactField[] FIELDS = ContactField.values();
+    private static final Map<String, ContactField> BY_PROPERTY = new HashMap<>();
+    private static final AtomicReferenceArray<ContactFieldSet> INSTANCES = new AtomicReferenceArray<>(1 << FIELDS.length);
+
+    static {
+        for (ContactField field : FIELDS) {
+            BY_PROPERTY.put(field.getProperty(), field);
+        }
+    }
+
+    public static final ContactFieldSet ALL = of((1 << FIELDS.length) - 1);
+
+    private final int mask;
+    private final List<ContactField> fields;
+
+    private ContactFieldSet(int mask) {
+        this.mask = mask;
+        this.fields = Arrays.stream(FIELDS)
+                .filter(field -> (mask & bit(field)) != 0)
+                .toList();
+    }
+
+    /**
+     * Parses a comma-separated {@code fields=} value; {@code null} or blank selects every field.
+     *
+     * @throws IllegalArgumentException for a name outside {@link ContactField}
+     */
+    public static ContactFieldSet parse(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String name : fields.split(",", -1)) {
+            ContactField field = BY_PROPERTY.get(name.trim());
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + name.trim() + "'; allowed fields are "
+                        + Arrays.stream(FIELDS).map(ContactField::getProperty).collect(Collectors.joining(", ")));
+            }
+            mask |= bit(field);
+        }
+        return of(mask);
+    }
+
+    public static ContactFieldSet of(ContactField... fields) {
+        int mask = 0;
+        for (ContactField field : fields) {
+            mask |= bit(field);
+        }
+        return of(mask);
+    }
+
+    private static ContactFieldSet of(int mask) {
+        ContactFieldSet fieldSet = INSTANCES.get(mask);
+        if (fieldSet == null) {
+            INSTANCES.compareAndSet(mask, null, new ContactFieldSet(mask));
+            fieldSet = INSTANCES.get(mask);
+        }
+        return fieldSet;
+    }
+
+    /** This selection plus {@code extra}, e.g. the columns a query needs beyond what is returned. */
+    public ContactFieldSet with(ContactField... extra) {
+        int combined = mask;
+        for (ContactField field : extra) {
+            combined |= bit(field);
+        }
+        return of(combined);
+    }
+
+    public boolean contains(ContactField field) {
+        return (mask & bit(field)) != 0;
+    }
+
+    /** The selected fields in {@link ContactDto} declaration order. */
+    public List<ContactField> fields() {
+        return fields;
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    private static int bit(ContactField field) {
+        return 1 << field.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return fields.stream().map(ContactField::getProperty).collect(Collectors.joining(","));
+    }
+}
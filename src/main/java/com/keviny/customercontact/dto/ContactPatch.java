@@ -0,0 +1,91 @@
+package com.keviny.customercontact.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Body of {@code PATCH /api/contacts/{id}}, with JSON merge patch semantics: a property that is
+ * absent leaves the column alone, one that is {@code null} clears it. Jackson only calls the
+ * setters of properties present in the body, which is how presence is recorded.
+ */
+public class ContactPatch {
+
+    private final Set<ContactField> present = EnumSet.noneOf(ContactField.class);
+
+    @Pattern(regexp = ".*\\S.*", message = "First name must not be blank")
+    @Size(max = 100, message = "First name must not exceed 100 characters")
+    private String firstName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Last name must not be blank")
+    @Size(max = 100, message = "Last name must not exceed 100 characters")
+    private String lastName;
+
+    @Email(message = "Email should be valid")
+    private String email;
+
+    @Size(max = 20, message = "Phone must not exceed 20 characters")
+    private String phone;
+
+    @Size(max = 20, message = "Primary phone must not exceed 20 characters")
+    private String primaryPhone;
+
+    @Size(max = 200, message = "Address must not exceed 200 characters")
+    private String address;
+
+    @Email(message = "Primary email should be valid")
+    @Size(max = 100, message = "Primary email must not exceed 100 characters")
+    private String primaryEmail;
+
+    public boolean has(ContactField field) {
+        return present.contains(field);
+    }
+
+    @AssertTrue(message = "First name, last name and email cannot be removed")
+    public boolean isRequiredFieldsKept() {
+        return !(has(ContactField.FIRST_NAME) && firstName == null)
+                && !(has(ContactField.LAST_NAME) && lastName == null)
+                && !(has(ContactField.EMAIL) && email == null);
+    }
+
+    /**
+     * The contact with the patch applied. The email is kept: it is the contact's identity and,
+     * with sharding, decides where the contact lives.
+     */
+    public ContactDto applyTo(ContactDto contact) {
+        ContactDto patched = new ContactDto(contact.getId(),
+                has(ContactField.FIRST_NAME) ? firstName : contact.getFirstName(),
+                has(ContactField.LAST_NAME) ? lastName : contact.getLastName(),
+                contact.getEmail(),
+                has(ContactField.PHONE) ? phone : contact.getPhone(),
+                has(ContactField.ADDRESS) ? address : contact.getAddress());
+        patched.setPrimaryPhone(has(ContactField.PRIMARY_PHONE) ? primaryPhone : contact.getPrimaryPhone());
+        patched.setPrimaryEmail(has(ContactField.PRIMARY_EMAIL) ? primaryEmail : contact.getPrimaryEmail());
+        return patched;
+    }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; present.add(ContactField.FIRST_NAME); }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; present.add(ContactField.LAST_NAME); }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; present.add(ContactField.EMAIL); }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; present.add(ContactField.PHONE); }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; present.add(ContactField.ADDRESS); }
+
+    public String getPrimaryPhone() { return primaryPhone; }
+    public void setPrimaryPhone(String primaryPhone) { this.primaryPhone = primaryPhone; present.add(ContactField.PRIMARY_PHONE); }
+
+    public String getPrimaryEmail() { return primaryEmail; }
+    public void setPrimaryEmail(String primaryEmail) { this.primaryEmail = primaryEmail; present.add(ContactField.PRIMARY_EMAIL); }
+}
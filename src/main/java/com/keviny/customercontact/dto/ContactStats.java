@@ -0,0 +1,28 @@
+package com.keviny.customercontact.dto;
+
+/**
+ * Contact counts served by {@code GET /api/contacts/stats}.
+ */
+public class ContactStats {
+
+    private final long total;
+    private final long withPrimaryPhone;
+    private final long withPrimaryEmail;
+
+    public ContactStats(long total, long withPrimaryPhone, long withPrimaryEmail) {
+        this.total = total;
+        this.withPrimaryPhone = withPrimaryPhone;
+        this.withPrimaryEmail = withPrimaryEmail;
+    }
+
+    public ContactStats plus(ContactStats other) {
+        return new ContactStats(total + other.total, withPrimaryPhone + other.withPrimaryPhone,
+                withPrimaryEmail + other.withPrimaryEmail);
+    }
+
+    public long getTotal() { return total; }
+
+    public long getWithPrimaryPhone() { return withPrimaryPhone; }
+
+    public long getWithPrimaryEmail() { return withPrimaryEmail; }
+}
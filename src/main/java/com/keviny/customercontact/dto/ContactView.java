@@ -0,0 +1,20 @@
+package com.keviny.customercontact.dto;
+
+/**
+ * A {@link ContactDto} as returned by the read endpoints: only the selected fields are
+ * serialized, in declaration order, with nulls included as for the full DTO.
+ */
+public class ContactView {
+
+    private final ContactDto contact;
+    private final ContactFieldSet fields;
+
+    public ContactView(ContactDto contact, ContactFieldSet fields) {
+        this.contact = contact;
+        this.fields = fields;
+    }
+
+    public ContactDto getContact() { return contact; }
+
+    public ContactFieldSet getFields() { return fields; }
+}
@@ -0,0 +1,35 @@
+package com.keviny.customercontact.event;
+
+import com.keviny.customercontact.dto.ContactDto;
+
+import java.time.Instant;
+
+public class ContactChangedEvent {
+
+    public enum ChangeType { CREATED, UPDATED }
+
+    private final ChangeType type;
+    private final ContactDto contact;
+    private final ContactDto previous;
+    private final Instant occurredAt;
+
+    public ContactChangedEvent(ChangeType type, ContactDto contact) {
+        this(type, contact, null);
+    }
+
+    public ContactChangedEvent(ChangeType type, ContactDto contact, ContactDto previous) {
+        this.type = type;
+        this.contact = contact;
+        this.previous = previous;
+        this.occurredAt = Instant.now();
+    }
+
+    public ChangeType getType() { return type; }
+
+    public ContactDto getContact() { return contact; }
+
+    /** The contact as it was before an update; {@code null} for creates. */
+    public ContactDto getPrevious() { return previous; }
+
+    public Instant getOccurredAt() { return occurredAt; }
+}
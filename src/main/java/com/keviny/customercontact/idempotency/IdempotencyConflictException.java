@@ -0,0 +1,21 @@
+package com.keviny.customercontact.idempotency;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An {@code Idempotency-Key} that cannot be honoured: reused with a different request body
+ * (422), or still held by an execution that outlived the wait (409).
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,279 @@
+package com.keviny.customercontact.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.IdempotencyRecord;
+import com.keviny.customercontact.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * First responses to {@code POST /api/contacts} by {@code Idempotency-Key}, replayed to
+ * retries without touching the contact table.
+ * <p>
+ * The first request for a key executes; duplicates that arrive while it runs wait for its
+ * response instead of running in parallel, and later ones get the stored copy. Only responses
+ * are stored: if the execution throws, the key is released and the next duplicate executes
+ * again. A key reused with a different body is rejected; bodies are compared by the SHA-256 of
+ * their JSON with keys sorted, so formatting and property order do not matter. Entries live {@code ttl-seconds} and at
+ * most {@code max-size} are kept; with a single TTL insertion order is expiry order, so both
+ * bounds evict from the head of one map.
+ * <p>
+ * With {@code persist=true} responses are also written to the {@code idempotency_key} table so
+ * retries landing on another instance, or after a restart, are replayed as well. The record is
+ * written after the contact commits; a crash in between only means the retry upserts again,
+ * which is harmless for an upsert by email.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Guarded by itself
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long waitMillis;
+    private final IdempotencyRecordRepository records;
+    private final ObjectMapper objectMapper;
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyStore(@Value("${contact.idempotency.max-size:100000}") int maxSize,
+                            @Value("${contact.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${contact.idempotency.wait-ms:10000}") long waitMillis,
+                            @Value("${contact.idempotency.persist:false}") boolean persist,
+                            ObjectProvider<IdempotencyRecordRepository> records,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.waitMillis = waitMillis;
+        this.records = persist ? records.getIfAvailable() : null;
+        if (persist && this.records == null) {
+            throw new IllegalStateException("contact.idempotency.persist=true needs a database");
+        }
+        this.objectMapper = objectMapper;
+        this.executed = Counter.builder("contact.idempotency.requests")
+                .description("Keyed POSTs by whether they ran or were answered from the store")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("contact.idempotency.requests")
+                .description("Keyed POSTs by whether they ran or were answered from the store")
+                .tag("result", "replayed")
+                .register(meterRegistry);
+        meterRegistry.gauge("contact.idempotency.size", entries, Map::size);
+    }
+
+    /**
+     * Runs {@code action} for the first request with this key and returns its response; returns
+     * the same response, marked replayed, for every duplicate.
+     *
+     * @throws IllegalArgumentException if the key is blank or too long
+     * @throws IdempotencyConflictException if the key was used for a different request, or the
+     *         first request is still running after {@code wait-ms}
+     */
+    public IdempotentResponse execute(String key, ContactDto request, Supplier<IdempotentResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request);
+        while (true) {
+            Entry entry;
+            boolean first = false;
+            synchronized (entries) {
+                long now = System.nanoTime();
+                evictExpired(now);
+                entry = entries.get(key);
+                if (entry == null) {
+                    entry = new Entry(requestHash, now + ttlNanos);
+                    entries.put(key, entry);
+                    first = true;
+                    evictOverflow();
+                }
+            }
+            if (!entry.requestHash.equals(requestHash)) {
+                throw reused();
+            }
+            if (first) {
+                return executeFirst(key, entry, action);
+            }
+            IdempotentResponse response = await(entry);
+            if (response != null) {
+                replayed.increment();
+                return response.asReplay();
+            }
+            // The first execution failed and released the key
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${contact.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredRecords() {
+        if (records == null) {
+            return;
+        }
+        try {
+            int purged = records.deleteExpired(Instant.now());
+            if (purged > 0) {
+                logger.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            // Expired rows are ignored on read; the next pass tries again
+            logger.warn("Could not purge expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private IdempotentResponse executeFirst(String key, Entry entry, Supplier<IdempotentResponse> action) {
+        IdempotentResponse response = null;
+        try {
+            IdempotentResponse stored = load(key, entry.requestHash);
+            if (stored != null) {
+                replayed.increment();
+                response = stored;
+                return stored.asReplay();
+            }
+            response = action.get();
+            executed.increment();
+            save(key, entry, response);
+            return response;
+        } finally {
+            if (response == null) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+            }
+            entry.response.complete(response);
+        }
+    }
+
+    private IdempotentResponse await(Entry entry) {
+        try {
+            return entry.response.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private IdempotentResponse load(String key, String requestHash) {
+        if (records == null) {
+            return null;
+        }
+        IdempotencyRecord record = records.findById(key)
+                .filter(r -> r.getExpiresAt().isAfter(Instant.now()))
+                .orElse(null);
+        if (record == null) {
+            return null;
+        }
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw reused();
+        }
+        try {
+            ContactDto body = objectMapper.readValue(record.getBody(), ContactDto.class);
+            return new IdempotentResponse(record.getStatus(), record.getLocation(), body);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable stored response for idempotency key {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(String key, Entry entry, IdempotentResponse response) {
+        if (records == null) {
+            return;
+        }
+        try {
+            long remainingNanos = entry.expiresAtNanos - System.nanoTime();
+            records.save(new IdempotencyRecord(key, entry.requestHash, response.status(), response.location(),
+                    objectMapper.writeValueAsString(response.body()), Instant.now().plusNanos(remainingNanos)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The contact is saved; only retries on other instances lose the replay
+            logger.warn("Could not persist response for idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expired(now)) {
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /** Hex SHA-256 of the request as canonical JSON: its properties as a map, keys sorted. */
+    private String fingerprint(ContactDto request) {
+        try {
+            byte[] canonical = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(objectMapper.convertValue(request, Map.class));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint idempotent request", e);
+        }
+    }
+
+    private static IdempotencyConflictException reused() {
+        return new IdempotencyConflictException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request");
+    }
+
+    private static final class Entry {
+
+        final String requestHash;
+        final long expiresAtNanos;
+        final CompletableFuture<IdempotentResponse> response = new CompletableFuture<>();
+
+        Entry(String requestHash, long expiresAtNanos) {
+            this.requestHash = requestHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.keviny.customercontact.idempotency;
+
+import com.keviny.customercontact.dto.ContactDto;
+
+/**
+ * Response to a keyed POST as first sent; {@code replayed} marks copies handed to duplicates.
+ */
+public record IdempotentResponse(int status, String location, ContactDto body, boolean replayed) {
+
+    public IdempotentResponse(int status, String location, ContactDto body) {
+        this(status, location, body, false);
+    }
+
+    IdempotentResponse asReplay() {
+        return new IdempotentResponse(status, location, body, true);
+    }
+}
@@ -0,0 +1,161 @@
+package com.keviny.customercontact.jdbc;
+
+import com.keviny.customercontact.jfr.ContactOperationInterceptor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out connections whose statements report their execution time to
+ * {@link JdbcInstrumentation}. Only {@code execute*} calls are timed; every other JDBC call goes
+ * straight to the pooled connection. {@link #unwrap} still reaches the pool underneath.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final JdbcInstrumentation instrumentation;
+
+    public InstrumentedDataSource(DataSource targetDataSource, JdbcInstrumentation instrumentation) {
+        super(targetDataSource);
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ContactOperationInterceptor.isRecording()) {
+            return wrap(obtainTargetDataSource().getConnection());
+        }
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        // Pool wait, for the Flight Recorder event of the ContactService call in progress
+        ContactOperationInterceptor.connectionAcquired(System.nanoTime() - start);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public JdbcInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** equals/hashCode compare the proxies themselves, as callers that keep them in collections expect. */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals") && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && args == null) {
+            return System.identityHashCode(proxy);
+        }
+        return null;
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = InstrumentedDataSource.invoke(connection, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null);
+                default:
+                    return result;
+            }
+        }
+
+        private Object wrapStatement(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[] {type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private String batchSql;
+        private int batchSize;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql = null;
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+            if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1 && batchSql == null) {
+                    batchSql = (String) args[0];
+                }
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+
+            boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : preparedSql != null ? preparedSql : batchSql;
+            int executed = batch ? batchSize : 1;
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(statement, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (batch) {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+                instrumentation.record(instrumentation.shapeOf(sql), nanos, executed);
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.keviny.customercontact.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement-level JDBC metrics shared by every {@link InstrumentedDataSource}.
+ * <p>
+ * Each SQL string is reduced once to a shape: literals become {@code ?}, {@code IN} lists
+ * collapse and whitespace is normalized. Every shape gets a {@code contact.jdbc.statement}
+ * timer with a percentile histogram, tagged with the operation, the first table and a short
+ * shape id. The SQL behind an id is logged at DEBUG when the shape is first seen. Hibernate only
+ * issues a handful of distinct statements, so the lookups are cache hits and the per-statement
+ * cost is one map lookup, two {@link System#nanoTime()} calls and the timer update.
+ * <p>
+ * Statements executed while a request is in scope ({@link #beginRequest}) are also counted per
+ * request. A SELECT shape that runs {@code n-plus-one-threshold} times in one request is reported
+ * as a likely N+1. Statements slower than {@code slow-threshold-ms} go to the
+ * {@code contact.jdbc.slow-query} logger with the normalized SQL only; bind values are never
+ * captured.
+ */
+public class JdbcInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInstrumentation.class);
+    static final Logger slowQueryLog = LoggerFactory.getLogger("contact.jdbc.slow-query");
+
+    private static final int MAX_CACHED_SQL = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final int maxShapes;
+    private final Map<String, StatementShape> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, StatementShape> shapesByNormalizedSql = new ConcurrentHashMap<>();
+    private final StatementShape overflowShape;
+    private final Map<String, DistributionSummary> statementsPerRequest = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestStatistics> currentRequest = new ThreadLocal<>();
+
+    public JdbcInstrumentation(MeterRegistry meterRegistry, Duration slowThreshold, int nPlusOneThreshold, int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxShapes = maxShapes;
+        this.overflowShape = new StatementShape("other", "(shapes beyond contact.jdbc-instrumentation.max-shapes)",
+                "other", "other", 0);
+    }
+
+    public DataSource instrument(DataSource dataSource) {
+        return new InstrumentedDataSource(dataSource, this);
+    }
+
+    /** Starts counting statements on the current thread for one request. */
+    public void beginRequest(String description) {
+        currentRequest.set(new RequestStatistics(description));
+    }
+
+    /**
+     * Stops counting for the current thread and records the per-request totals.
+     *
+     * @param endpoint low-cardinality name of the request, e.g. the matched URI pattern
+     */
+    public void endRequest(String endpoint) {
+        RequestStatistics request = currentRequest.get();
+        if (request == null) {
+            return;
+        }
+        currentRequest.remove();
+        statementsPerRequest.computeIfAbsent(endpoint, uri -> DistributionSummary.builder("contact.jdbc.statements.per-request")
+                        .description("JDBC statements executed while serving one request")
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(request.statements);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} issued {} statements in {} ms", request.description, request.statements,
+                    TimeUnit.NANOSECONDS.toMillis(request.nanos));
+        }
+    }
+
+    StatementShape shapeOf(String sql) {
+        if (sql == null) {
+            return overflowShape;
+        }
+        StatementShape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapesByNormalizedSql.get(normalized);
+        if (shape == null) {
+            shape = shapesByNormalizedSql.size() < maxShapes
+                    ? shapesByNormalizedSql.computeIfAbsent(normalized, this::register)
+                    : overflowShape;
+        }
+        if (shapesBySql.size() < MAX_CACHED_SQL) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    void record(StatementShape shape, long nanos, int batchSize) {
+        shape.timer(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        RequestStatistics request = currentRequest.get();
+        if (request != null) {
+            request.statements++;
+            request.nanos += nanos;
+            int executions = request.executionsByShape.merge(shape, 1, Integer::sum);
+            if (executions == nPlusOneThreshold && "select".equals(shape.operation)) {
+                Counter.builder("contact.jdbc.n-plus-one")
+                        .description("Requests that ran the same SELECT shape n-plus-one-threshold times")
+                        .tag("shape", shape.id)
+                        .tag("table", shape.table)
+                        .register(meterRegistry)
+                        .increment();
+                logger.warn("Possible N+1 in {}: statement {} ran {} times: {}",
+                        request.description, shape.id, executions, shape.sql);
+            }
+        }
+        if (nanos >= slowThresholdNanos) {
+            slowQueryLog.warn("{} ms shape={} binds={} batch={} request={} sql={}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), shape.id, shape.parameterCount, batchSize,
+                    request != null ? request.description : "-", shape.sql);
+        }
+    }
+
+    private StatementShape register(String normalized) {
+        String operation = firstWord(normalized);
+        String id = String.format("%08x", normalized.hashCode());
+        StatementShape shape = new StatementShape(id, normalized, operation, tableOf(normalized, operation),
+                countParameters(normalized));
+        logger.debug("Statement shape {}: {}", id, normalized);
+        return shape;
+    }
+
+    /**
+     * Lower-cases keywords and identifiers outside literals, replaces string and numeric literals
+     * with {@code ?}, collapses {@code IN (?, ?, ...)} to {@code in (?)} and squeezes whitespace.
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // String literal; '' is an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return out.toString().trim().replaceAll("\\(\\?(?:\\s*,\\s*\\?)+\\)", "(?)");
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '.';
+    }
+
+    private static String firstWord(String normalized) {
+        int end = normalized.indexOf(' ');
+        String word = end < 0 ? normalized : normalized.substring(0, end);
+        switch (word) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+            case "merge":
+                return word;
+            case "with":
+                return "select";
+            default:
+                return "other";
+        }
+    }
+
+    private static String tableOf(String normalized, String operation) {
+        String keyword;
+        switch (operation) {
+            case "insert":
+            case "merge":
+                keyword = " into ";
+                break;
+            case "update":
+                keyword = "update ";
+                break;
+            default:
+                keyword = " from ";
+        }
+        int start = normalized.indexOf(keyword);
+        if (start < 0) {
+            return "none";
+        }
+        start += keyword.length();
+        int end = start;
+        while (end < normalized.length()
+                && (Character.isLetterOrDigit(normalized.charAt(end)) || normalized.charAt(end) == '_'
+                || normalized.charAt(end) == '.')) {
+            end++;
+        }
+        return end > start ? normalized.substring(start, end).toLowerCase(Locale.ROOT) : "none";
+    }
+
+    private static int countParameters(String normalized) {
+        int count = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (normalized.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static final class StatementShape {
+
+        final String id;
+        final String sql;
+        final String operation;
+        final String table;
+        final int parameterCount;
+        private volatile Timer timer;
+
+        StatementShape(String id, String sql, String operation, String table, int parameterCount) {
+            this.id = id;
+            this.sql = sql;
+            this.operation = operation;
+            this.table = table;
+            this.parameterCount = parameterCount;
+        }
+
+        Timer timer(MeterRegistry meterRegistry) {
+            Timer result = timer;
+            if (result == null) {
+                result = Timer.builder("contact.jdbc.statement")
+                        .description("JDBC statement execution time by statement shape")
+                        .tag("shape", id)
+                        .tag("operation", operation)
+                        .tag("table", table)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1).dividedBy(10))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry);
+                timer = result;
+            }
+            return result;
+        }
+    }
+
+    private static final class RequestStatistics {
+
+        private final String description;
+        private final Map<StatementShape, Integer> executionsByShape = new HashMap<>();
+        private int statements;
+        private long nanos;
+
+        RequestStatistics(String description) {
+            this.description = description;
+        }
+    }
+}
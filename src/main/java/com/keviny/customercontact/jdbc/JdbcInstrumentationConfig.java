@@ -0,0 +1,79 @@
+package com.keviny.customercontact.jdbc;
+
+import com.keviny.customercontact.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Statement instrumentation ({@code contact.jdbc-instrumentation.enabled}, on by default).
+ * Every DataSource bean is wrapped in an {@link InstrumentedDataSource}; with sharding the shard
+ * pools behind the router are wrapped instead, so the router bean keeps its type. A servlet
+ * filter scopes the per-request statement counts.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contact.jdbc-instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcInstrumentationConfig {
+
+    @Bean
+    public JdbcInstrumentation jdbcInstrumentation(MeterRegistry meterRegistry,
+                                                   @Value("${contact.jdbc-instrumentation.slow-threshold-ms:200}") long slowThresholdMillis,
+                                                   @Value("${contact.jdbc-instrumentation.n-plus-one-threshold:10}") int nPlusOneThreshold,
+                                                   @Value("${contact.jdbc-instrumentation.max-shapes:500}") int maxShapes) {
+        return new JdbcInstrumentation(meterRegistry, Duration.ofMillis(slowThresholdMillis), nPlusOneThreshold, maxShapes);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<JdbcInstrumentation> instrumentation) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof ShardRoutingDataSource) {
+                    // Must happen before afterPropertiesSet resolves the routing targets
+                    ((ShardRoutingDataSource) bean).decorateShards(instrumentation.getObject()::instrument);
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ShardRoutingDataSource)
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return instrumentation.getObject().instrument((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public OncePerRequestFilter jdbcRequestStatisticsFilter(JdbcInstrumentation instrumentation) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                instrumentation.beginRequest(request.getMethod() + " " + request.getRequestURI());
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    instrumentation.endRequest(pattern != null ? request.getMethod() + " " + pattern : "UNKNOWN");
+                }
+            }
+        };
+    }
+}
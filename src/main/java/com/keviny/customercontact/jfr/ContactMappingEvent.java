@@ -0,0 +1,39 @@
+package com.keviny.customercontact.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One contact converted between entity, DTO and JSON. Fired per contact, so it is off unless a
+ * recording enables it, as {@link FlightRecordingEndpoint} does.
+ */
+@Name("com.keviny.customercontact.ContactMapping")
+@Label("Contact Mapping")
+@Category({"Customer Contact", "Mapping"})
+@Description("A contact mapped to a DTO or entity, or written as JSON")
+@Enabled(false)
+@StackTrace(false)
+public class ContactMappingEvent extends jdk.jfr.Event {
+
+    public static final String TO_DTO = "toDto";
+    public static final String TO_ENTITY = "toEntity";
+    public static final String TO_JSON = "toJson";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Contact Id")
+    long contactId;
+
+    public ContactMappingEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void setContactId(Long contactId) {
+        this.contactId = contactId != null ? contactId : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.keviny.customercontact.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code ContactService} call, retries included. Emails are never recorded; calls keyed by
+ * email carry the email hash the lookup index uses.
+ */
+@Name("com.keviny.customercontact.ContactOperation")
+@Label("Contact Operation")
+@Category({"Customer Contact", "Service"})
+@Description("A ContactService call with its outcome, retries and connection wait")
+@StackTrace(false)
+public class ContactOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    @Description("id=<id>, emailHash=<hash>, batch=<size> or empty")
+    String key;
+
+    @Label("Outcome")
+    @Description("success, not-found, fallback or error")
+    String outcome;
+
+    @Label("Error")
+    @Description("Exception that failed the call, or that the circuit breaker fell back from")
+    String error;
+
+    @Label("Retries")
+    int retries;
+
+    @Label("Connection Wait")
+    @Description("Time spent waiting for pooled connections")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionWait;
+}
@@ -0,0 +1,112 @@
+package com.keviny.customercontact.jfr;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Records a {@link ContactOperationEvent} around each {@code ContactService} call. It sits
+ * outside the retry and circuit breaker, which report retries and the failures they fall back
+ * from through {@link #retried()} and {@link #failed(Throwable)}; connection acquisition reports
+ * its wait through {@link #connectionAcquired(long)}. None of this happens unless a recording
+ * has the event enabled.
+ */
+public class ContactOperationInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ContactOperationEvent event = new ContactOperationEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        Operation previous = CURRENT.get();
+        Operation operation = new Operation();
+        CURRENT.set(operation);
+        event.begin();
+        try {
+            Object result = invocation.proceed();
+            event.outcome = operation.failure != null ? "fallback"
+                    : isEmpty(result) ? "not-found" : "success";
+            event.error = operation.failure != null ? operation.failure.getClass().getName() : null;
+            return result;
+        } catch (Throwable e) {
+            event.outcome = "error";
+            event.error = e.getClass().getName();
+            throw e;
+        } finally {
+            event.end();
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            if (event.shouldCommit()) {
+                event.operation = invocation.getMethod().getName();
+                event.key = key(event.operation, invocation.getArguments());
+                event.retries = operation.retries;
+                event.connectionWait = operation.connectionWaitNanos;
+                event.commit();
+            }
+        }
+    }
+
+    /** Whether a connection wait reported now would be recorded; lets callers skip the timing. */
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    public static void connectionAcquired(long waitNanos) {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.connectionWaitNanos += waitNanos;
+        }
+    }
+
+    public static void retried() {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.retries++;
+        }
+    }
+
+    public static void failed(Throwable failure) {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.failure = failure;
+        }
+    }
+
+    static String key(String operation, Object[] args) {
+        Object key = args.length > 0 ? args[0] : null;
+        if (key instanceof Long id) {
+            return "id=" + id;
+        }
+        // Phone numbers are left out like emails, which are only recorded hashed
+        if (key instanceof String email && (operation.contains("Email") || operation.equals("contactExists"))) {
+            return "emailHash=" + EmailNormalizer.hash(email);
+        }
+        if (key instanceof ContactDto contact && contact.getEmail() != null) {
+            return "emailHash=" + EmailNormalizer.hash(contact.getEmail());
+        }
+        if (key instanceof Collection<?> batch) {
+            return "batch=" + batch.size();
+        }
+        return "";
+    }
+
+    private static boolean isEmpty(Object result) {
+        return result instanceof Optional<?> optional && optional.isEmpty();
+    }
+
+    private static final class Operation {
+        int retries;
+        long connectionWaitNanos;
+        Throwable failure;
+    }
+}
@@ -0,0 +1,118 @@
+package com.keviny.customercontact.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code GET /actuator/jfr?seconds=30&settings=profile}: records a Flight Recording for the
+ * given time and returns the {@code .jfr} file. {@code settings} is one of the JDK presets,
+ * {@code default} (about 1% overhead) or {@code profile} (adds allocation and lock profiling, a
+ * few percent); the contact events, {@link ContactMappingEvent} included, are always on. The
+ * request is held for the whole recording, and one recording runs at a time.
+ */
+@WebEndpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final Lock lock = new ReentrantLock();
+
+    public FlightRecordingEndpoint(Duration defaultDuration, Duration maxDuration) {
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Integer seconds, @Nullable String settings)
+            throws IOException, ParseException {
+        Duration duration = seconds != null ? Duration.ofSeconds(seconds) : defaultDuration;
+        String preset = settings != null ? settings : "profile";
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0 || !SETTINGS.contains(preset)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!lock.tryLock()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            return new WebEndpointResponse<>(new TemporaryFileResource(record(duration, preset)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Path record(Duration duration, String preset) throws IOException, ParseException, InterruptedException {
+        try (Recording recording = new Recording(Configuration.getConfiguration(preset))) {
+            recording.setName("contact-on-demand-" + preset);
+            recording.enable(ContactOperationEvent.class);
+            recording.enable(ContactMappingEvent.class);
+            recording.start();
+            Thread.sleep(duration.toMillis());
+            recording.stop();
+            Path file = Files.createTempFile("contact-", ".jfr");
+            try {
+                recording.dump(file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return file;
+        }
+    }
+
+    /** Deleted once the response has been read from it. */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return Channels.newChannel(getInputStream());
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keeps the response from being written with sendfile, which would skip the delete
+            return false;
+        }
+    }
+}
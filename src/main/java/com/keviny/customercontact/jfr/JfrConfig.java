@@ -0,0 +1,70 @@
+package com.keviny.customercontact.jfr;
+
+import com.keviny.customercontact.service.ContactService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+
+/**
+ * Flight Recorder support ({@code contact.jfr.enabled}, on by default): {@link ContactOperationEvent}
+ * around {@code ContactService} calls and the {@link FlightRecordingEndpoint}, which is only
+ * reachable once {@code jfr} is added to {@code management.endpoints.web.exposure.include}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contact.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig {
+
+    /**
+     * Right inside the shard routing advisor, so a call fanned out to every shard records one
+     * event per shard, and outside the retry and circuit breaker aspects it observes.
+     */
+    @Bean
+    public static Advisor contactOperationAdvisor() {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return ContactService.class.isAssignableFrom(targetClass)
+                        && method.getDeclaringClass() == ContactService.class
+                        && Modifier.isPublic(method.getModifiers())
+                        && !method.getName().endsWith("Fallback");
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ContactOperationInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    @Bean
+    public SmartInitializingSingleton contactOperationResilienceEvents(RetryRegistry retryRegistry,
+                                                                       CircuitBreakerRegistry circuitBreakerRegistry) {
+        return () -> {
+            retryRegistry.retry(ContactService.CONTACT_SERVICE).getEventPublisher()
+                    .onRetry(event -> ContactOperationInterceptor.retried());
+            circuitBreakerRegistry.circuitBreaker(ContactService.CONTACT_SERVICE).getEventPublisher()
+                    .onError(event -> ContactOperationInterceptor.failed(event.getThrowable()))
+                    .onCallNotPermitted(event -> ContactOperationInterceptor.failed(
+                            new IllegalStateException("Circuit breaker " + event.getCircuitBreakerName() + " is open")));
+        };
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public FlightRecordingEndpoint flightRecordingEndpoint(
+            @Value("${contact.jfr.default-duration-seconds:30}") long defaultSeconds,
+            @Value("${contact.jfr.max-duration-seconds:300}") long maxSeconds) {
+        return new FlightRecordingEndpoint(Duration.ofSeconds(defaultSeconds), Duration.ofSeconds(maxSeconds));
+    }
+}
@@ -0,0 +1,181 @@
+package com.keviny.customercontact.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactField;
+import com.keviny.customercontact.dto.ContactView;
+import com.keviny.customercontact.jfr.ContactMappingEvent;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written JSON codec for {@link ContactDto}, the payload of every read and write. Produces
+ * exactly the shape of Jackson's bean serializer (all eight properties in declaration order,
+ * nulls included) without reflection: field names are pre-encoded once and values are written
+ * straight into the generator's buffer. Reading honours {@code fail-on-unknown-properties} and
+ * falls back to Jackson's standard scalar coercion for anything other than plain strings and
+ * numbers.
+ */
+@JsonComponent
+public class ContactDtoJsonComponent {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    static final SerializedString LAST_NAME = new SerializedString("lastName");
+    static final SerializedString EMAIL = new SerializedString("email");
+    static final SerializedString PHONE = new SerializedString("phone");
+    static final SerializedString PRIMARY_PHONE = new SerializedString("primaryPhone");
+    static final SerializedString ADDRESS = new SerializedString("address");
+    static final SerializedString PRIMARY_EMAIL = new SerializedString("primaryEmail");
+
+    // Indexed by ContactField ordinal
+    private static final SerializedString[] NAMES = {ID, FIRST_NAME, LAST_NAME, EMAIL, PHONE, PRIMARY_PHONE, ADDRESS, PRIMARY_EMAIL};
+
+    public static class Serializer extends StdSerializer<ContactDto> {
+
+        public Serializer() {
+            super(ContactDto.class);
+        }
+
+        @Override
+        public void serialize(ContactDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            ContactMappingEvent event = new ContactMappingEvent(ContactMappingEvent.TO_JSON);
+            event.begin();
+            gen.writeStartObject(dto);
+            gen.writeFieldName(ID);
+            if (dto.getId() != null) {
+                gen.writeNumber(dto.getId());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(FIRST_NAME);
+            gen.writeString(dto.getFirstName());
+            gen.writeFieldName(LAST_NAME);
+            gen.writeString(dto.getLastName());
+            gen.writeFieldName(EMAIL);
+            gen.writeString(dto.getEmail());
+            gen.writeFieldName(PHONE);
+            gen.writeString(dto.getPhone());
+            gen.writeFieldName(PRIMARY_PHONE);
+            gen.writeString(dto.getPrimaryPhone());
+            gen.writeFieldName(ADDRESS);
+            gen.writeString(dto.getAddress());
+            gen.writeFieldName(PRIMARY_EMAIL);
+            gen.writeString(dto.getPrimaryEmail());
+            gen.writeEndObject();
+            event.setContactId(dto.getId());
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes the fields a {@link ContactView} selects, walking the field set's precomputed order;
+     * a full selection goes through {@link Serializer} unchanged.
+     */
+    public static class ViewSerializer extends StdSerializer<ContactView> {
+
+        private final Serializer full = new Serializer();
+
+        public ViewSerializer() {
+            super(ContactView.class);
+        }
+
+        @Override
+        public void serialize(ContactView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            ContactDto dto = view.getContact();
+            if (view.getFields().isAll()) {
+                full.serialize(dto, gen, provider);
+                return;
+            }
+            ContactMappingEvent event = new ContactMappingEvent(ContactMappingEvent.TO_JSON);
+            event.begin();
+            gen.writeStartObject(dto);
+            List<ContactField> fields = view.getFields().fields();
+            for (int i = 0; i < fields.size(); i++) {
+                ContactField field = fields.get(i);
+                gen.writeFieldName(NAMES[field.ordinal()]);
+                switch (field) {
+                    case ID -> {
+                        if (dto.getId() != null) {
+                            gen.writeNumber(dto.getId());
+                        } else {
+                            gen.writeNull();
+                        }
+                    }
+                    case FIRST_NAME -> gen.writeString(dto.getFirstName());
+                    case LAST_NAME -> gen.writeString(dto.getLastName());
+                    case EMAIL -> gen.writeString(dto.getEmail());
+                    case PHONE -> gen.writeString(dto.getPhone());
+                    case PRIMARY_PHONE -> gen.writeString(dto.getPrimaryPhone());
+                    case ADDRESS -> gen.writeString(dto.getAddress());
+                    case PRIMARY_EMAIL -> gen.writeString(dto.getPrimaryEmail());
+                }
+            }
+            gen.writeEndObject();
+            event.setContactId(dto.getId());
+            event.commit();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<ContactDto> {
+
+        public Deserializer() {
+            super(ContactDto.class);
+        }
+
+        @Override
+        public ContactDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (ContactDto) ctxt.handleUnexpectedToken(ContactDto.class, p);
+            }
+            ContactDto dto = new ContactDto();
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                // Parser field names are canonicalized, so this switch allocates nothing
+                String name = p.currentName();
+                p.nextToken();
+                switch (name) {
+                    case "id" -> dto.setId(readLong(p, ctxt));
+                    case "firstName" -> dto.setFirstName(readString(p, ctxt));
+                    case "lastName" -> dto.setLastName(readString(p, ctxt));
+                    case "email" -> dto.setEmail(readString(p, ctxt));
+                    case "phone" -> dto.setPhone(readString(p, ctxt));
+                    case "primaryPhone" -> dto.setPrimaryPhone(readString(p, ctxt));
+                    case "address" -> dto.setAddress(readString(p, ctxt));
+                    case "primaryEmail" -> dto.setPrimaryEmail(readString(p, ctxt));
+                    default -> ctxt.handleUnknownProperty(p, this, ContactDto.class, name);
+                }
+            }
+            return dto;
+        }
+    }
+
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_STRING -> p.getText();
+            case VALUE_NULL -> null;
+            default -> ctxt.readValue(p, String.class);
+        };
+    }
+
+    static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            return p.getLongValue();
+        }
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Long.class);
+    }
+}
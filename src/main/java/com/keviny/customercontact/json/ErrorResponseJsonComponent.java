@@ -0,0 +1,142 @@
+package com.keviny.customercontact.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.keviny.customercontact.dto.ErrorResponse;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hand-written JSON codec for {@link ErrorResponse}, matching the bean serializer's output
+ * including the {@code yyyy-MM-dd HH:mm:ss} timestamp. The timestamp is formatted digit by digit
+ * into a reusable per-thread buffer instead of through {@link DateTimeFormatter}.
+ */
+@JsonComponent
+public class ErrorResponseJsonComponent {
+
+    static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DETAILS = new SerializedString("details");
+    private static final ThreadLocal<char[]> TIMESTAMP_BUFFER = ThreadLocal.withInitial(() -> new char[19]);
+
+    public static class Serializer extends StdSerializer<ErrorResponse> {
+
+        public Serializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(ErrorResponse error, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(error);
+            gen.writeFieldName(TIMESTAMP);
+            LocalDateTime timestamp = error.getTimestamp();
+            if (timestamp != null && timestamp.getYear() >= 0 && timestamp.getYear() <= 9999) {
+                char[] buffer = TIMESTAMP_BUFFER.get();
+                formatTimestamp(timestamp, buffer);
+                gen.writeString(buffer, 0, buffer.length);
+            } else if (timestamp != null) {
+                gen.writeString(TIMESTAMP_FORMAT.format(timestamp));
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(MESSAGE);
+            gen.writeString(error.getMessage());
+            gen.writeFieldName(DETAILS);
+            Map<String, String> details = error.getDetails();
+            if (details != null) {
+                gen.writeStartObject(details, details.size());
+                for (Map.Entry<String, String> entry : details.entrySet()) {
+                    gen.writeFieldName(entry.getKey());
+                    gen.writeString(entry.getValue());
+                }
+                gen.writeEndObject();
+            } else {
+                gen.writeNull();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<ErrorResponse> {
+
+        public Deserializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public ErrorResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (ErrorResponse) ctxt.handleUnexpectedToken(ErrorResponse.class, p);
+            }
+            ErrorResponse error = new ErrorResponse();
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                p.nextToken();
+                switch (name) {
+                    case "timestamp" -> {
+                        String text = ContactDtoJsonComponent.readString(p, ctxt);
+                        error.setTimestamp(text != null ? LocalDateTime.parse(text, TIMESTAMP_FORMAT) : null);
+                    }
+                    case "message" -> error.setMessage(ContactDtoJsonComponent.readString(p, ctxt));
+                    case "details" -> error.setDetails(readDetails(p, ctxt));
+                    default -> ctxt.handleUnknownProperty(p, this, ErrorResponse.class, name);
+                }
+            }
+            return error;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, String> readDetails(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return (Map<String, String>) ctxt.handleUnexpectedToken(Map.class, p);
+            }
+            Map<String, String> details = new LinkedHashMap<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String key = p.currentName();
+                p.nextToken();
+                details.put(key, ContactDtoJsonComponent.readString(p, ctxt));
+            }
+            return details;
+        }
+    }
+
+    static void formatTimestamp(LocalDateTime timestamp, char[] buffer) {
+        digits(buffer, 0, timestamp.getYear(), 4);
+        buffer[4] = '-';
+        digits(buffer, 5, timestamp.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, timestamp.getDayOfMonth(), 2);
+        buffer[10] = ' ';
+        digits(buffer, 11, timestamp.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, timestamp.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, timestamp.getSecond(), 2);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.keviny.customercontact.mapper;
 
 import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.jfr.ContactMappingEvent;
 import com.keviny.customercontact.model.Contact;
 
+import java.util.Objects;
+import java.util.Set;
+
 public class ContactMapper {
 
     public static ContactDto toDto(Contact contact) {
         if (contact == null) {
             return null;
         }
+        ContactMappingEvent event = new ContactMappingEvent(ContactMappingEvent.TO_DTO);
+        event.begin();
         ContactDto dto = new ContactDto(
             contact.getId(),
             contact.getFirstName(),
@@ -19,19 +25,54 @@ public class ContactMapper {
         );
         dto.setPrimaryPhone(contact.getPrimaryPhone());
         dto.setPrimaryEmail(contact.getPrimaryEmail());
+        event.setContactId(contact.getId());
+        event.commit();
         return dto;
     }
 
+    /**
+     * Detached copy of every column, for holders that hand contacts out across transactions and
+     * must not share instances with callers.
+     */
+    public static Contact copy(Contact contact) {
+        if (contact == null) {
+            return null;
+        }
+        Contact copy = new Contact();
+        copy.setId(contact.getId());
+        copy.setFirstName(contact.getFirstName());
+        copy.setLastName(contact.getLastName());
+        copy.setEmail(contact.getEmail());
+        copy.setNormalizedEmail(contact.getNormalizedEmail());
+        copy.setEmailHash(contact.getEmailHash());
+        copy.setPhone(contact.getPhone());
+        copy.setPrimaryPhone(contact.getPrimaryPhone());
+        copy.setAddress(contact.getAddress());
+        copy.setPrimaryEmail(contact.getPrimaryEmail());
+        copy.setWrittenAt(contact.getWrittenAt());
+        return copy;
+    }
+
     public static Contact toEntity(ContactDto contactDto, Contact existingContact) {
         if (contactDto == null) {
             return null;
         }
+        ContactMappingEvent event = new ContactMappingEvent(ContactMappingEvent.TO_ENTITY);
+        event.begin();
         
         // Don't map ID to entity - let JPA handle it
         // Only set email on new entities (when existingContact.getId() == null)
         if (existingContact.getId() == null) {
             existingContact.setEmail(contactDto.getEmail());
         }
+        if (existingContact.getEmailHash() == null) {
+            updateEmailKey(existingContact);
+        }
+        
+        // Reading the lazy phone number collection costs a query; only touch it when the numbers change
+        boolean phoneNumbersChanged = existingContact.getId() == null
+                || !PhoneNormalizer.numbers(existingContact.getPhone(), existingContact.getPrimaryPhone())
+                        .equals(PhoneNormalizer.numbers(contactDto.getPhone(), contactDto.getPrimaryPhone()));
         
         existingContact.setFirstName(contactDto.getFirstName());
         existingContact.setLastName(contactDto.getLastName());
@@ -39,7 +80,44 @@ public class ContactMapper {
         existingContact.setAddress(contactDto.getAddress());
         existingContact.setPrimaryPhone(contactDto.getPrimaryPhone());
         existingContact.setPrimaryEmail(contactDto.getPrimaryEmail());
+        if (phoneNumbersChanged) {
+            updatePhoneKeys(existingContact);
+        }
+        event.setContactId(existingContact.getId());
+        event.commit();
         
         return existingContact;
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether {@link #toEntity} would leave the contact as it is: every mutable column already
+     * holds the DTO's value. The email is not compared since updates never change it.
+     */
+    public static boolean matches(ContactDto contactDto, Contact contact) {
+        return Objects.equals(contactDto.getFirstName(), contact.getFirstName())
+                && Objects.equals(contactDto.getLastName(), contact.getLastName())
+                && Objects.equals(contactDto.getPhone(), contact.getPhone())
+                && Objects.equals(contactDto.getAddress(), contact.getAddress())
+                && Objects.equals(contactDto.getPrimaryPhone(), contact.getPrimaryPhone())
+                && Objects.equals(contactDto.getPrimaryEmail(), contact.getPrimaryEmail());
+    }
+
+    /**
+     * Derives the normalized email and its hash, the columns email lookups and the uniqueness
+     * constraint use, from the contact's email.
+     */
+    public static void updateEmailKey(Contact contact) {
+        contact.setNormalizedEmail(EmailNormalizer.normalize(contact.getEmail()));
+        contact.setEmailHash(contact.getEmail() != null ? EmailNormalizer.hash(contact.getEmail()) : null);
+    }
+
+    /**
+     * Brings the {@code contact_phone} lookup rows in line with the contact's phone and primary
+     * phone. Updates the collection in place so only the numbers that changed are written.
+     */
+    public static void updatePhoneKeys(Contact contact) {
+        Set<String> numbers = PhoneNormalizer.numbers(contact.getPhone(), contact.getPrimaryPhone());
+        contact.getPhoneNumbers().retainAll(numbers);
+        contact.getPhoneNumbers().addAll(numbers);
+    }
+}
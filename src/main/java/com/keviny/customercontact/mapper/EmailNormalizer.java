@@ -0,0 +1,42 @@
+package com.keviny.customercontact.mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public final class EmailNormalizer {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EmailNormalizer() {}
+
+    /**
+     * Canonical form used for matching: surrounding whitespace removed and lower-cased.
+     */
+    public static String normalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Stable 64-bit hash (FNV-1a with a final avalanche mix) of the normalized email. Stable
+     * across JVMs and releases, so it is safe to persist and to use for shard placement.
+     */
+    public static long hash(String email) {
+        String normalized = normalize(email);
+        if (normalized == null) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : normalized.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
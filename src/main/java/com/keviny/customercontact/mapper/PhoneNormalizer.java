@@ -0,0 +1,73 @@
+package com.keviny.customercontact.mapper;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class PhoneNormalizer {
+
+    private static final int MIN_DIGITS = 4;
+    private static final int MAX_E164_DIGITS = 15;
+
+    private PhoneNormalizer() {}
+
+    /**
+     * Lookup form of a free-form phone number. Numbers written with a {@code +} or {@code 00}
+     * international prefix, and North American numbers of ten digits (or eleven starting with 1),
+     * become E.164 ({@code +15550100123}). Anything else is a local number and keeps its digits
+     * only. Punctuation is dropped and an extension ({@code x12}, {@code ext. 12}) is cut off.
+     *
+     * @return {@code null} when fewer than four digits remain or more than the 15 E.164 allows,
+     *         which no dialable number has and the {@code contact_phone} key could not hold
+     */
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        boolean international = false;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '+' && digits.length() == 0) {
+                international = true;
+            } else if (Character.isLetter(c) && digits.length() > 0) {
+                // Start of an extension
+                break;
+            }
+        }
+        if (!international && digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            digits.delete(0, 2);
+            international = true;
+        }
+        if (!international) {
+            if (digits.length() == 10) {
+                digits.insert(0, '1');
+                international = true;
+            } else if (digits.length() == 11 && digits.charAt(0) == '1') {
+                international = true;
+            }
+        }
+        if (digits.length() < MIN_DIGITS || digits.length() > MAX_E164_DIGITS) {
+            return null;
+        }
+        return international ? "+" + digits : digits.toString();
+    }
+
+    /**
+     * The distinct normalized forms of a contact's numbers, the keys of the {@code contact_phone}
+     * lookup table.
+     */
+    public static Set<String> numbers(String phone, String primaryPhone) {
+        Set<String> numbers = new LinkedHashSet<>(2);
+        String normalizedPhone = normalize(phone);
+        if (normalizedPhone != null) {
+            numbers.add(normalizedPhone);
+        }
+        String normalizedPrimaryPhone = normalize(primaryPhone);
+        if (normalizedPrimaryPhone != null) {
+            numbers.add(normalizedPrimaryPhone);
+        }
+        return numbers;
+    }
+}
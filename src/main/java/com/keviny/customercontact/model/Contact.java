@@ -1,9 +1,18 @@
 package com.keviny.customercontact.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "contact")
+// UPDATEs name only the columns that changed, so touching one field does not rewrite the row
+@DynamicUpdate
+@Table(name = "contact",
+        uniqueConstraints = @UniqueConstraint(name = "uk_contact_email_hash", columnNames = "email_hash"),
+        // Same index as sql/01_create_database.sql; serves the list endpoint's name order and prefix filter
+        indexes = @Index(name = "idx_name", columnList = "lastName, firstName"))
 public class Contact {
     
     @Id
@@ -16,21 +25,42 @@ public class Contact {
     @Column(nullable = false, length = 100)
     private String lastName;
     
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
     
+    // Lookup key maintained by ContactMapper: uniqueness and email lookups go through the
+    // 8-byte hash index instead of a 100-char string index
+    @Column(name = "normalized_email", length = 100)
+    private String normalizedEmail;
+    
+    @Column(name = "email_hash")
+    private Long emailHash;
+    
     @Column(length = 20)
     private String phone;
     
     @Column(length = 20)
     private String primaryPhone;
     
+    // Lookup keys maintained by ContactMapper: phone and primaryPhone normalized by PhoneNormalizer,
+    // one row per distinct number, so a caller ID resolves through one index on either column
+    @ElementCollection
+    @CollectionTable(name = "contact_phone", joinColumns = @JoinColumn(name = "contact_id"),
+            indexes = @Index(name = "idx_contact_phone_number", columnList = "phone_number, contact_id"))
+    @Column(name = "phone_number", length = 16, nullable = false)
+    private Set<String> phoneNumbers = new HashSet<>();
+    
     @Column(length = 200)
     private String address;
     
     @Column(length = 100)
     private String primaryEmail;
 
+    // When the data now in the row was accepted, in epoch milliseconds; write-behind replay skips
+    // records older than this
+    @Column(name = "written_at")
+    private Long writtenAt;
+
     public Contact() {}
 
     public Contact(String firstName, String lastName, String email, String phone, String address) {
@@ -55,9 +85,18 @@ public class Contact {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
+    public String getNormalizedEmail() { return normalizedEmail; }
+    public void setNormalizedEmail(String normalizedEmail) { this.normalizedEmail = normalizedEmail; }
+
+    public Long getEmailHash() { return emailHash; }
+    public void setEmailHash(Long emailHash) { this.emailHash = emailHash; }
+
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
 
+    public Set<String> getPhoneNumbers() { return phoneNumbers; }
+    public void setPhoneNumbers(Set<String> phoneNumbers) { this.phoneNumbers = phoneNumbers; }
+
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
     
@@ -66,4 +105,7 @@ public class Contact {
     
     public String getPrimaryEmail() { return primaryEmail; }
     public void setPrimaryEmail(String primaryEmail) { this.primaryEmail = primaryEmail; }
+
+    public Long getWrittenAt() { return writtenAt; }
+    public void setWrittenAt(Long writtenAt) { this.writtenAt = writtenAt; }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.keviny.customercontact.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * First response to a POST carrying an {@code Idempotency-Key}, kept so retries that reach
+ * another instance, or this one after a restart, are replayed too. Written only with
+ * {@code contact.idempotency.persist=true}.
+ */
+@Entity
+@Table(name = "idempotency_key",
+        indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    // Hex SHA-256 of the request body, see IdempotencyStore
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(length = 500)
+    private String location;
+
+    // Response body as JSON
+    @Column(length = 2000)
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String key, String requestHash, int status, String location, String body, Instant expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = status;
+        this.location = location;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKey() { return key; }
+
+    public String getRequestHash() { return requestHash; }
+
+    public int getStatus() { return status; }
+
+    public String getLocation() { return location; }
+
+    public String getBody() { return body; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+}
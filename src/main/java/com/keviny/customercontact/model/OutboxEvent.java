@@ -0,0 +1,83 @@
+package com.keviny.customercontact.model;
+
+import com.keviny.customercontact.event.ContactChangedEvent;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * A committed contact change waiting to be relayed downstream. Inserted in the transaction that
+ * changed the contact, so a row exists exactly when the change committed, and deleted once the
+ * relay has delivered it. A row the relay keeps failing on is dead-lettered: it stays in the
+ * table with {@code dead_lettered_at} set and is no longer relayed until that is cleared.
+ * Written only with {@code contact.outbox.enabled=true}.
+ */
+@Entity
+@Table(name = "contact_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "contact_id", nullable = false)
+    private Long contactId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private ContactChangedEvent.ChangeType changeType;
+
+    // Contact after the change as JSON
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Failed deliveries of this row on its own
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "dead_lettered_at")
+    private Instant deadLetteredAt;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long contactId, ContactChangedEvent.ChangeType changeType, String payload, Instant createdAt) {
+        this.contactId = contactId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getContactId() { return contactId; }
+
+    public ContactChangedEvent.ChangeType getChangeType() { return changeType; }
+
+    public String getPayload() { return payload; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public int getAttempts() { return attempts; }
+
+    public String getLastError() { return lastError; }
+
+    public Instant getDeadLetteredAt() { return deadLetteredAt; }
+
+    /** Counts a failed delivery; the error is truncated to fit the column. */
+    public void recordFailedAttempt(String error) {
+        attempts++;
+        lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    public void deadLetter(Instant now) {
+        deadLetteredAt = now;
+    }
+}
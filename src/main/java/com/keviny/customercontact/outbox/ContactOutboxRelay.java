@@ -0,0 +1,279 @@
+package com.keviny.customercontact.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.OutboxEvent;
+import com.keviny.customercontact.repository.OutboxEventRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drains the outbox of every shard into the {@link OutboxSink}. Each batch is read oldest first,
+ * delivered and removed with one bulk delete in a single transaction; the rows stay locked
+ * meanwhile, so relays on several instances take turns rather than deliver twice. A batch whose
+ * delivery fails stays in the outbox, so delivery is at least once: a crash between delivery and
+ * commit delivers the batch again.
+ * <p>
+ * After a failed batch the relay delivers the same rows one at a time, each in its own
+ * transaction, and stops at the first row that fails so later changes are not delivered ahead
+ * of it. That row's attempts are counted; once it has failed {@code max-attempts} times, or at
+ * once if its payload cannot be read, it is dead-lettered and the relay moves past it, so one bad
+ * row cannot block its shard for good.
+ * <p>
+ * {@code contact.outbox.lag} is the time from the change's commit to its delivery,
+ * {@code contact.outbox.delivered} counts delivered changes and
+ * {@code contact.outbox.pending.age} is the age of the oldest change not yet delivered, as of
+ * the last pass, which keeps growing while the relay is stuck.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.outbox", name = "enabled", havingValue = "true")
+public class ContactOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactOutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final Timer lag;
+    private final Timer batches;
+    // Per shard, epoch millis of the oldest undelivered change's commit; 0 when none
+    private final AtomicLongArray oldestPending;
+
+    public ContactOutboxRelay(OutboxEventRepository outboxEventRepository,
+                              OutboxSink sink,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${contact.outbox.batch-size:500}") int batchSize,
+                              @Value("${contact.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.oldestPending = new AtomicLongArray(shardRouter.getShardCount());
+        this.delivered = Counter.builder("contact.outbox.delivered")
+                .description("Contact changes delivered to the outbox sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("contact.outbox.failures")
+                .description("Outbox batches the sink failed to take; they are retried")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("contact.outbox.dead-lettered")
+                .description("Outbox rows given up on after max-attempts failures or an unreadable payload")
+                .register(meterRegistry);
+        Gauge.builder("contact.outbox.pending.age", this, relay -> relay.getPendingAgeSeconds())
+                .baseUnit("seconds")
+                .description("Age of the oldest contact change not yet delivered")
+                .register(meterRegistry);
+        this.lag = Timer.builder("contact.outbox.lag")
+                .description("Time from a contact change's commit to its delivery")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batches = Timer.builder("contact.outbox.batch")
+                .description("Time to read, deliver and delete one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${contact.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            try {
+                drainShard(shard);
+            } catch (RuntimeException e) {
+                // Undelivered rows stay put; the next pass picks them up
+                failures.increment();
+                logger.warn("Outbox relay failed on shard {}: {}", shard, e.getMessage(), e);
+            } finally {
+                refreshOldestPending(shard);
+            }
+        }
+    }
+
+    public double getPendingAgeSeconds() {
+        long oldest = 0;
+        for (int shard = 0; shard < oldestPending.length(); shard++) {
+            long committedAt = oldestPending.get(shard);
+            if (committedAt != 0 && (oldest == 0 || committedAt < oldest)) {
+                oldest = committedAt;
+            }
+        }
+        return oldest == 0 ? 0.0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /** @return the number of changes delivered */
+    int drainShard(int shard) {
+        int total = 0;
+        List<OutboxMessage> batch;
+        do {
+            Timer.Sample sample = Timer.start();
+            List<List<OutboxMessage>> relayed = new ArrayList<>(1);
+            try {
+                ShardContext.run(shard, () -> relayed.add(transaction.execute(status -> relayBatch(shard))));
+            } catch (RuntimeException e) {
+                failures.increment();
+                logger.warn("Outbox batch on shard {} failed, relaying one by one: {}", shard, e.getMessage());
+                return total + relayOneByOne(shard);
+            }
+            batch = relayed.get(0);
+            if (!batch.isEmpty()) {
+                // Committed: the batch is out of the outbox
+                sample.stop(batches);
+                recordDelivered(batch);
+            }
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    private List<OutboxMessage> relayBatch(int shard) {
+        List<OutboxEvent> events = outboxEventRepository.findOldest(PageRequest.of(0, batchSize));
+        List<OutboxMessage> messages = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            messages.add(message(shard, event));
+            ids.add(event.getId());
+        }
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        deliver(messages);
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        return messages;
+    }
+
+    /**
+     * Delivers the oldest batch row by row, stopping at the first row that fails and has not
+     * been dead-lettered for it.
+     *
+     * @return the number of changes delivered
+     */
+    private int relayOneByOne(int shard) {
+        List<Long> ids = new ArrayList<>(batchSize);
+        ShardContext.run(shard, () -> transaction.executeWithoutResult(status ->
+                outboxEventRepository.findOldest(PageRequest.of(0, batchSize)).forEach(event -> ids.add(event.getId()))));
+        int total = 0;
+        for (Long id : ids) {
+            try {
+                List<OutboxMessage> relayed = new ArrayList<>(1);
+                ShardContext.run(shard, () -> transaction.executeWithoutResult(status -> relayed.addAll(relayOne(shard, id))));
+                recordDelivered(relayed);
+                total += relayed.size();
+            } catch (RuntimeException e) {
+                if (!recordFailure(shard, id, e)) {
+                    // Retried on the next pass, ahead of everything after it
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private List<OutboxMessage> relayOne(int shard, long id) {
+        // Gone if another relay delivered it in the meantime
+        return outboxEventRepository.findPending(id).map(event -> {
+            List<OutboxMessage> message = List.of(message(shard, event));
+            deliver(message);
+            outboxEventRepository.delete(event);
+            return message;
+        }).orElse(List.of());
+    }
+
+    /** @return whether the row is out of the way: dead-lettered now or already gone */
+    private boolean recordFailure(int shard, long id, RuntimeException failure) {
+        boolean[] settled = {true};
+        ShardContext.run(shard, () -> transaction.executeWithoutResult(status ->
+                outboxEventRepository.findPending(id).ifPresent(event -> {
+                    event.recordFailedAttempt(failure.getMessage());
+                    if (failure instanceof UnreadablePayloadException || event.getAttempts() >= maxAttempts) {
+                        event.deadLetter(Instant.now());
+                        deadLettered.increment();
+                        logger.error("Dead-lettered outbox event {} on shard {} after {} attempts: {}",
+                                id, shard, event.getAttempts(), failure.getMessage());
+                    } else {
+                        settled[0] = false;
+                        logger.warn("Outbox event {} on shard {} failed, attempt {} of {}: {}",
+                                id, shard, event.getAttempts(), maxAttempts, failure.getMessage());
+                    }
+                })));
+        return settled[0];
+    }
+
+    private void recordDelivered(List<OutboxMessage> messages) {
+        Instant now = Instant.now();
+        for (OutboxMessage message : messages) {
+            lag.record(Duration.between(message.committedAt(), now));
+        }
+        delivered.increment(messages.size());
+    }
+
+    private void refreshOldestPending(int shard) {
+        try {
+            ShardContext.run(shard, () -> oldestPending.set(shard, outboxEventRepository.findFirstByDeadLetteredAtIsNullOrderByIdAsc()
+                    .map(event -> event.getCreatedAt().toEpochMilli())
+                    .orElse(0L)));
+        } catch (RuntimeException e) {
+            // Keep the last known oldest; its age keeps growing
+            logger.debug("Could not read the oldest outbox event on shard {}: {}", shard, e.getMessage());
+        }
+    }
+
+    private void deliver(List<OutboxMessage> messages) {
+        try {
+            sink.deliver(messages);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox sink failed: " + e.getMessage(), e);
+        }
+    }
+
+    private OutboxMessage message(int shard, OutboxEvent event) {
+        return new OutboxMessage(shard, event.getId(), event.getChangeType(), contact(event), event.getCreatedAt());
+    }
+
+    private ContactDto contact(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), ContactDto.class);
+        } catch (JsonProcessingException e) {
+            throw new UnreadablePayloadException("Unreadable outbox event " + event.getId(), e);
+        }
+    }
+
+    /** Retrying cannot help, so the row is dead-lettered on the first failure. */
+    private static final class UnreadablePayloadException extends IllegalStateException {
+
+        private UnreadablePayloadException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
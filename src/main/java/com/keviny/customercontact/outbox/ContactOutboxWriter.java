@@ -0,0 +1,37 @@
+package com.keviny.customercontact.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.model.OutboxEvent;
+import com.keviny.customercontact.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+
+/**
+ * Adds every contact change to the outbox as part of the transaction that made it: the row
+ * commits or rolls back with the contact. Changes published outside a transaction are not
+ * recorded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.outbox", name = "enabled", havingValue = "true")
+public class ContactOutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public ContactOutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onContactChanged(ContactChangedEvent event) throws JsonProcessingException {
+        outboxEventRepository.save(new OutboxEvent(event.getContact().getId(), event.getType(),
+                objectMapper.writeValueAsString(event.getContact()), Instant.now()));
+    }
+}
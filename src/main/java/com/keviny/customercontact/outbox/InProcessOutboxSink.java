@@ -0,0 +1,24 @@
+package com.keviny.customercontact.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Default sink: publishes each change as an {@link OutboxMessage} application event, for
+ * consumers in this JVM ({@code @EventListener}). A listener that throws fails the batch, which
+ * is delivered again, listeners that already saw it included.
+ */
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,33 @@
+package com.keviny.customercontact.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * The {@link OutboxSink} picked by {@code contact.outbox.sink}: {@code in-process} (default) or
+ * {@code file}. With {@code custom} no sink is created and the application provides its own
+ * {@link OutboxSink} bean, e.g. a message broker producer.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contact.outbox", name = "enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "contact.outbox", name = "sink", havingValue = "in-process", matchIfMissing = true)
+    public OutboxSink inProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        return new InProcessOutboxSink(eventPublisher);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "contact.outbox", name = "sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${contact.outbox.file:./data/outbox/contact-changes.ndjson}") String file,
+                                     ObjectMapper objectMapper) {
+        return new FileOutboxSink(Path.of(file), objectMapper);
+    }
+}
@@ -0,0 +1,16 @@
+package com.keviny.customercontact.outbox;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.event.ContactChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * A contact change as handed to an {@link OutboxSink}. {@code shard} and {@code id} together
+ * identify the change; a consumer that must not apply one twice after a relay crash keys on them.
+ *
+ * @param committedAt when the change was written, just before its transaction committed
+ */
+public record OutboxMessage(int shard, long id, ContactChangedEvent.ChangeType type, ContactDto contact,
+                            Instant committedAt) {
+}
@@ -0,0 +1,13 @@
+package com.keviny.customercontact.outbox;
+
+import java.util.List;
+
+/**
+ * Where {@link ContactOutboxRelay} delivers contact changes, oldest first per shard. A batch
+ * that throws is not removed from the outbox and is delivered again on the next pass, so sinks
+ * see every change at least once.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
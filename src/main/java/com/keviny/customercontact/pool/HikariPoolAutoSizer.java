@@ -0,0 +1,232 @@
+package com.keviny.customercontact.pool;
+
+import com.keviny.customercontact.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pools at runtime ({@code contact.pool-autosize.enabled=true}) so the pool
+ * follows load instead of a hand-picked {@code maximum-pool-size}.
+ * <p>
+ * Active connections and threads waiting for one are sampled every {@code sample-interval-ms};
+ * every {@code evaluation-interval-ms} the peaks of the window, together with the mean
+ * {@code hikaricp.connections.acquire} time, decide whether the window was saturated (waiters,
+ * slow acquires or utilization above {@code grow-utilization}) or idle (utilization below
+ * {@code shrink-utilization}). The pool grows after {@code grow-after} saturated windows in a
+ * row and shrinks after {@code shrink-after} idle ones; the gap between the thresholds and the
+ * streaks keep it from flapping. Sizes stay within {@code min-size}..{@code max-size} and are
+ * applied through {@link HikariConfigMXBean}. Hikari opens extra connections on demand, while a
+ * shrink takes effect as surplus idle connections reach {@code idle-timeout}.
+ * <p>
+ * With sharding enabled every shard pool is sized independently.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.pool-autosize", name = "enabled", havingValue = "true")
+public class HikariPoolAutoSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolAutoSizer.class);
+
+    private final List<PoolState> pools = new ArrayList<>();
+    private final int minSize;
+    private final int maxSize;
+    private final double growUtilization;
+    private final double shrinkUtilization;
+    private final long acquireThresholdNanos;
+    private final int growStep;
+    private final int shrinkStep;
+    private final int growAfter;
+    private final int shrinkAfter;
+
+    public HikariPoolAutoSizer(DataSource dataSource,
+                               MeterRegistry meterRegistry,
+                               @Value("${contact.pool-autosize.min-size:10}") int minSize,
+                               @Value("${contact.pool-autosize.max-size:100}") int maxSize,
+                               @Value("${contact.pool-autosize.grow-utilization:0.9}") double growUtilization,
+                               @Value("${contact.pool-autosize.shrink-utilization:0.5}") double shrinkUtilization,
+                               @Value("${contact.pool-autosize.acquire-threshold-ms:5}") long acquireThresholdMillis,
+                               @Value("${contact.pool-autosize.grow-step:5}") int growStep,
+                               @Value("${contact.pool-autosize.shrink-step:2}") int shrinkStep,
+                               @Value("${contact.pool-autosize.grow-after:2}") int growAfter,
+                               @Value("${contact.pool-autosize.shrink-after:12}") int shrinkAfter) throws SQLException {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("contact.pool-autosize needs 1 <= min-size <= max-size");
+        }
+        if (shrinkUtilization >= growUtilization) {
+            throw new IllegalArgumentException("contact.pool-autosize.shrink-utilization must be below grow-utilization");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.growUtilization = growUtilization;
+        this.shrinkUtilization = shrinkUtilization;
+        this.acquireThresholdNanos = TimeUnit.MILLISECONDS.toNanos(acquireThresholdMillis);
+        this.growStep = Math.max(1, growStep);
+        this.shrinkStep = Math.max(1, shrinkStep);
+        this.growAfter = Math.max(1, growAfter);
+        this.shrinkAfter = Math.max(1, shrinkAfter);
+
+        for (HikariDataSource pool : findPools(dataSource)) {
+            PoolState state = new PoolState(pool, meterRegistry);
+            int configured = pool.getMaximumPoolSize();
+            int clamped = Math.max(minSize, Math.min(maxSize, configured));
+            if (clamped != configured) {
+                resize(state, clamped, "configured size " + configured + " is outside " + minSize + ".." + maxSize);
+            }
+            pools.add(state);
+        }
+        if (pools.isEmpty()) {
+            logger.warn("contact.pool-autosize is enabled but the DataSource is not backed by Hikari; nothing to size");
+        }
+    }
+
+    @Scheduled(fixedRateString = "${contact.pool-autosize.sample-interval-ms:500}")
+    public synchronized void sample() {
+        for (PoolState state : pools) {
+            sample(state);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${contact.pool-autosize.evaluation-interval-ms:5000}")
+    public synchronized void evaluate() {
+        for (PoolState state : pools) {
+            evaluate(state);
+        }
+    }
+
+    private static void sample(PoolState state) {
+        HikariPoolMXBean pool = state.dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            // Not started yet; Hikari creates the pool on first use
+            return;
+        }
+        state.peakActive = Math.max(state.peakActive, pool.getActiveConnections());
+        state.peakWaiting = Math.max(state.peakWaiting, pool.getThreadsAwaitingConnection());
+    }
+
+    private void evaluate(PoolState state) {
+        sample(state);
+        int size = state.config.getMaximumPoolSize();
+        int peakActive = state.peakActive;
+        int peakWaiting = state.peakWaiting;
+        long meanAcquireNanos = state.meanAcquireNanosSinceLastWindow();
+        state.peakActive = 0;
+        state.peakWaiting = 0;
+
+        boolean saturated = peakWaiting > 0 || meanAcquireNanos > acquireThresholdNanos
+                || peakActive >= growUtilization * size;
+        boolean idle = !saturated && peakActive < shrinkUtilization * size;
+        state.saturatedWindows = saturated ? state.saturatedWindows + 1 : 0;
+        state.idleWindows = idle ? state.idleWindows + 1 : 0;
+
+        if (state.saturatedWindows >= growAfter && size < maxSize) {
+            int target = Math.min(maxSize, size + Math.max(growStep, peakWaiting));
+            resize(state, target, String.format("%d windows saturated (peak active %d, peak waiting %d, mean acquire %.1f ms)",
+                    state.saturatedWindows, peakActive, peakWaiting, meanAcquireNanos / 1e6));
+        } else if (state.idleWindows >= shrinkAfter && size > minSize) {
+            int target = Math.max(minSize, size - shrinkStep);
+            resize(state, target, String.format("%d windows idle (peak active %d)", state.idleWindows, peakActive));
+        }
+    }
+
+    private void resize(PoolState state, int target, String reason) {
+        int previous = state.config.getMaximumPoolSize();
+        if (target < state.config.getMinimumIdle()) {
+            state.config.setMinimumIdle(target);
+        } else if (target > previous && state.config.getMinimumIdle() < state.configuredMinimumIdle) {
+            state.config.setMinimumIdle(Math.min(target, state.configuredMinimumIdle));
+        }
+        state.config.setMaximumPoolSize(target);
+        state.saturatedWindows = 0;
+        state.idleWindows = 0;
+        (target > previous ? state.grown : state.shrunk).increment();
+        logger.info("Resized connection pool {} from {} to {}: {}", state.name, previous, target, reason);
+    }
+
+    int getMaximumPoolSize(String poolName) {
+        return pools.stream()
+                .filter(state -> state.name.equals(poolName))
+                .findFirst()
+                .map(state -> state.config.getMaximumPoolSize())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown pool " + poolName));
+    }
+
+    private static List<HikariDataSource> findPools(DataSource dataSource) throws SQLException {
+        List<HikariDataSource> pools = new ArrayList<>();
+        if (dataSource.isWrapperFor(ShardRoutingDataSource.class)) {
+            for (DataSource shard : dataSource.unwrap(ShardRoutingDataSource.class).getShards()) {
+                pools.addAll(findPools(shard));
+            }
+        } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            pools.add(dataSource.unwrap(HikariDataSource.class));
+        }
+        return pools;
+    }
+
+    private static final class PoolState {
+
+        private final HikariDataSource dataSource;
+        private final HikariConfigMXBean config;
+        private final String name;
+        private final int configuredMinimumIdle;
+        private final MeterRegistry meterRegistry;
+        private final Counter grown;
+        private final Counter shrunk;
+        private int peakActive;
+        private int peakWaiting;
+        private int saturatedWindows;
+        private int idleWindows;
+        private long lastAcquireCount;
+        private double lastAcquireNanos;
+
+        PoolState(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+            this.dataSource = dataSource;
+            this.config = dataSource.getHikariConfigMXBean();
+            this.name = dataSource.getPoolName();
+            this.configuredMinimumIdle = dataSource.getMinimumIdle();
+            this.meterRegistry = meterRegistry;
+            this.grown = Counter.builder("contact.pool.autosize.adjustments")
+                    .description("Runtime changes of the maximum pool size")
+                    .tag("pool", name).tag("direction", "grow")
+                    .register(meterRegistry);
+            this.shrunk = Counter.builder("contact.pool.autosize.adjustments")
+                    .description("Runtime changes of the maximum pool size")
+                    .tag("pool", name).tag("direction", "shrink")
+                    .register(meterRegistry);
+            Gauge.builder("contact.pool.autosize.maximum-pool-size", config, HikariConfigMXBean::getMaximumPoolSize)
+                    .description("Maximum pool size currently applied")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+
+        /** Mean connection acquire time since the previous call, from Hikari's own Micrometer timer. */
+        long meanAcquireNanosSinceLastWindow() {
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", name).timer();
+            if (acquire == null) {
+                return 0;
+            }
+            long count = acquire.count();
+            double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+            long calls = count - lastAcquireCount;
+            double nanos = totalNanos - lastAcquireNanos;
+            lastAcquireCount = count;
+            lastAcquireNanos = totalNanos;
+            return calls > 0 ? (long) (nanos / calls) : 0;
+        }
+    }
+}
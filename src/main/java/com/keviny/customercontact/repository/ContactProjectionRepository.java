@@ -0,0 +1,26 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.model.Contact;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads that select only some columns. Results are detached {@link Contact}s with the selected
+ * properties and the id set and every other property {@code null}; they must not be saved.
+ */
+public interface ContactProjectionRepository {
+
+    Optional<Contact> findProjectedById(long id, ContactFieldSet fields);
+
+    Optional<Contact> findProjectedByEmailHash(long emailHash, ContactFieldSet fields);
+
+    /**
+     * First page of contacts matching the optional last-name prefix and primary-phone filter, in
+     * the page's sort order.
+     */
+    List<Contact> findProjected(String lastNamePrefix, boolean primaryPhoneRequired, Pageable pageable,
+                                ContactFieldSet fields);
+}
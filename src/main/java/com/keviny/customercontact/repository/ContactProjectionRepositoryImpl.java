@@ -0,0 +1,120 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.dto.ContactField;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.model.Contact;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * JPQL tuple queries over the selected columns. The select clause for each field combination is
+ * built once; Hibernate caches the parsed plan per query string, so a combination is only
+ * translated the first time it is requested.
+ */
+public class ContactProjectionRepositoryImpl implements ContactProjectionRepository {
+
+    private final AtomicReferenceArray<String> selectClauses = new AtomicReferenceArray<>(1 << ContactField.values().length);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Contact> findProjectedById(long id, ContactFieldSet fields) {
+        ContactFieldSet selected = fields.with(ContactField.ID);
+        return query(selected, " where c.id = :key", "key", id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Contact> findProjectedByEmailHash(long emailHash, ContactFieldSet fields) {
+        ContactFieldSet selected = fields.with(ContactField.ID);
+        return query(selected, " where c.emailHash = :key", "key", emailHash).stream().findFirst();
+    }
+
+    @Override
+    public List<Contact> findProjected(String lastNamePrefix, boolean primaryPhoneRequired, Pageable pageable,
+                                       ContactFieldSet fields) {
+        ContactFieldSet selected = fields.with(ContactField.ID);
+        StringBuilder jpql = new StringBuilder(selectClause(selected));
+        List<String> conditions = new ArrayList<>(2);
+        if (lastNamePrefix != null) {
+            // Same escaping as Spring Data's StartingWith, which H2 and MySQL turn into an index range
+            conditions.add("c.lastName like :lastNamePrefix escape '\\'");
+        }
+        if (primaryPhoneRequired) {
+            conditions.add("c.primaryPhone is not null");
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        if (pageable.getSort().isSorted()) {
+            jpql.append(" order by ").append(pageable.getSort().stream()
+                    .map(order -> "c." + order.getProperty() + (order.getDirection() == Sort.Direction.DESC ? " desc" : ""))
+                    .collect(Collectors.joining(", ")));
+        }
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (lastNamePrefix != null) {
+            query.setParameter("lastNamePrefix", escapeLike(lastNamePrefix) + "%");
+        }
+        if (pageable.isPaged()) {
+            if (pageable.getOffset() > 0) {
+                query.setFirstResult((int) pageable.getOffset());
+            }
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return toContacts(query.getResultList(), selected);
+    }
+
+    private List<Contact> query(ContactFieldSet selected, String where, String parameter, Object value) {
+        return toContacts(entityManager.createQuery(selectClause(selected) + where, Tuple.class)
+                .setParameter(parameter, value)
+                .getResultList(), selected);
+    }
+
+    private String selectClause(ContactFieldSet fields) {
+        String clause = selectClauses.get(fields.mask());
+        if (clause == null) {
+            clause = fields.fields().stream()
+                    .map(field -> "c." + field.getProperty())
+                    .collect(Collectors.joining(", ", "select ", " from Contact c"));
+            selectClauses.set(fields.mask(), clause);
+        }
+        return clause;
+    }
+
+    private static List<Contact> toContacts(List<Tuple> tuples, ContactFieldSet fields) {
+        List<ContactField> selected = fields.fields();
+        List<Contact> contacts = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Contact contact = new Contact();
+            for (int i = 0; i < selected.size(); i++) {
+                Object value = tuple.get(i);
+                switch (selected.get(i)) {
+                    case ID -> contact.setId((Long) value);
+                    case FIRST_NAME -> contact.setFirstName((String) value);
+                    case LAST_NAME -> contact.setLastName((String) value);
+                    case EMAIL -> contact.setEmail((String) value);
+                    case PHONE -> contact.setPhone((String) value);
+                    case PRIMARY_PHONE -> contact.setPrimaryPhone((String) value);
+                    case ADDRESS -> contact.setAddress((String) value);
+                    case PRIMARY_EMAIL -> contact.setPrimaryEmail((String) value);
+                }
+            }
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
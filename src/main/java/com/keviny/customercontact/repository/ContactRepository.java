@@ -1,15 +1,50 @@
 package com.keviny.customercontact.repository;
 
+import com.keviny.customercontact.dto.ContactStats;
 import com.keviny.customercontact.model.Contact;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+public interface ContactRepository extends JpaRepository<Contact, Long>, ContactProjectionRepository {
     
-    Optional<Contact> findByEmail(String email);
+    Optional<Contact> findByEmailHash(long emailHash);
     
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+    // Rows written before the email_hash column existed
+    List<Contact> findTop1000ByEmailHashIsNull();
+    
+    // Index seek on contact_phone (phone_number, contact_id), then the primary key
+    @Query("select c from Contact c join c.phoneNumbers number where number = :number order by c.id")
+    List<Contact> findByPhoneNumber(@Param("number") String number);
+    
+    // Rows written before the contact_phone table existed, in id order after the given id
+    @Query("select c from Contact c where c.id > :after and (c.phone is not null or c.primaryPhone is not null) "
+            + "and c.phoneNumbers is empty order by c.id")
+    List<Contact> findWithoutPhoneKeys(@Param("after") long after, Pageable pageable);
+    
+    // Must be consumed inside a transaction and closed; entities are read-only and fetched in pages
+    @Query("select c from Contact c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Contact> streamAll();
+    
+    @Query("select c.emailHash from Contact c where c.emailHash is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamAllEmailHashes();
+    
+    // One pass over the table for all three counts
+    @Query("select new com.keviny.customercontact.dto.ContactStats(count(c), count(c.primaryPhone), count(c.primaryEmail)) from Contact c")
+    ContactStats countStats();
+}
@@ -0,0 +1,30 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest undelivered events, locked until the caller's transaction ends so relays on other
+     * instances wait instead of delivering the same rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.deadLetteredAt is null order by e.id")
+    List<OutboxEvent> findOldest(Pageable pageable);
+
+    /** One undelivered event, locked like {@link #findOldest}; empty once delivered or dead-lettered. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.id = :id and e.deadLetteredAt is null")
+    Optional<OutboxEvent> findPending(@Param("id") Long id);
+
+    Optional<OutboxEvent> findFirstByDeadLetteredAtIsNullOrderByIdAsc();
+}
@@ -0,0 +1,250 @@
+package com.keviny.customercontact.repository.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from primitive {@code long} keys to non-null values, without boxing the key.
+ * <p>
+ * Keys are spread over a fixed number of segments, each an open-addressing table with linear
+ * probing and backward-shift deletion. Writers lock their segment; readers probe without locking
+ * under a {@link StampedLock} optimistic stamp and only retry under the read lock if a write
+ * to the same segment overlapped. A slot is empty when its value is {@code null}, so every key,
+ * including 0, is usable.
+ */
+final class ConcurrentLongMap<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int INITIAL_CAPACITY = 16;
+
+    @SuppressWarnings("unchecked")
+    private final Segment<V>[] segments = new Segment[SEGMENTS];
+
+    ConcurrentLongMap() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    V get(long key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * @return the previous value, or {@code null}
+     */
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value);
+    }
+
+    /**
+     * @return the removed value, or {@code null}
+     */
+    V remove(long key) {
+        int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Weakly consistent copy of the values: each segment is copied atomically, but writes to
+     * other segments may land in between.
+     */
+    List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        for (Segment<V> segment : segments) {
+            segment.copyValuesTo(values);
+        }
+        return values;
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private int size;
+
+        V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            V value = find(key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = find(key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V find(long key, int hash) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int index = hash & mask;
+            // Bounded so a probe racing a writer cannot spin; the stamp check discards its result
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = t.values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (t.keys[index] == key) {
+                    return (V) value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long key, int hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int mask = t.keys.length - 1;
+                int index = hash & mask;
+                while (t.values[index] != null) {
+                    if (t.keys[index] == key) {
+                        V previous = (V) t.values[index];
+                        t.values[index] = value;
+                        return previous;
+                    }
+                    index = (index + 1) & mask;
+                }
+                t.keys[index] = key;
+                t.values[index] = value;
+                if (++size > (t.keys.length >> 1) + (t.keys.length >> 2)) {
+                    resize(t);
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int mask = t.keys.length - 1;
+                int index = hash & mask;
+                while (t.values[index] != null && t.keys[index] != key) {
+                    index = (index + 1) & mask;
+                }
+                V removed = (V) t.values[index];
+                if (removed == null) {
+                    return null;
+                }
+                // Backward-shift deletion keeps every probe chain free of holes
+                int hole = index;
+                int next = (hole + 1) & mask;
+                while (t.values[next] != null) {
+                    int home = hash(t.keys[next]) & mask;
+                    boolean reachable = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                    if (!reachable) {
+                        t.keys[hole] = t.keys[next];
+                        t.values[hole] = t.values[next];
+                        hole = next;
+                    }
+                    next = (next + 1) & mask;
+                }
+                t.values[hole] = null;
+                size--;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void copyValuesTo(List<V> target) {
+            long stamp = lock.readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        target.add((V) value);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void resize(Table old) {
+            Table resized = new Table(old.keys.length << 1);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.values[i] != null) {
+                    int index = hash(old.keys[i]) & mask;
+                    while (resized.values[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    resized.keys[index] = old.keys[i];
+                    resized.values[index] = old.values[i];
+                }
+            }
+            table = resized;
+        }
+    }
+}
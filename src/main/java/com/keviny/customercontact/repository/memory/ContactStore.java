@@ -0,0 +1,610 @@
+package com.keviny.customercontact.repository.memory;
+
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.PhoneNormalizer;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.wal.AppendOnlyLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contact storage engine behind the {@code memory} profile. The whole contact set lives in two
+ * {@link ConcurrentLongMap}s, by id and by email hash (the same unique key the
+ * {@code uk_contact_email_hash} constraint enforces in the database), holding immutable copies so
+ * readers never see a half-applied update. A third index maps each normalized phone number to
+ * the ids of the contacts that have it, like the {@code contact_phone} table.
+ * <p>
+ * Writes are serialized by one lock that a transaction takes at its first write and holds
+ * until it completes. Until then its changes live only in the {@link Transaction}, which reads
+ * on the owning thread see through, so other threads only ever see committed contacts (read
+ * committed). At commit the changes are appended to an {@link AppendOnlyLog} as one record,
+ * published to the maps and fsynced; on rollback they are dropped. {@link #snapshot()}
+ * periodically writes the full set
+ * to a compacted snapshot file and drops the log segments it covers. On startup the latest
+ * snapshot is loaded and the log after it is replayed.
+ */
+public class ContactStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactStore.class);
+
+    private static final String SNAPSHOT_FILE = "contacts.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x434E5453;
+    private static final int SNAPSHOT_VERSION = 2;
+    // Version 1 snapshots and log records predate the written-at stamp
+    private static final byte SAVE_UNSTAMPED = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+    private static final byte SAVE = 4;
+
+    private final Path directory;
+    private final AppendOnlyLog log;
+    private final ConcurrentLongMap<Contact> byId = new ConcurrentLongMap<>();
+    private final ConcurrentLongMap<Contact> byEmailHash = new ConcurrentLongMap<>();
+    private final Map<String, Set<Long>> idsByPhoneNumber = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile long snapshotSequence;
+
+    public ContactStore(Path directory, long segmentBytes, MeterRegistry meterRegistry) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        this.snapshotSequence = loadSnapshot();
+        this.log = new AppendOnlyLog(directory.resolve("log"), segmentBytes);
+        long replayed = replay();
+        logger.info("Loaded {} contacts from {} ({} log records replayed) in {} ms", byId.size(),
+                directory.toAbsolutePath(), replayed, (System.nanoTime() - start) / 1_000_000);
+
+        meterRegistry.gauge("contact.memory-store.contacts", byId, ConcurrentLongMap::size);
+        meterRegistry.gauge("contact.memory-store.log.records", this,
+                store -> store.log.getLastSequence() - store.snapshotSequence);
+    }
+
+    public Contact findById(long id) {
+        return ContactMapper.copy(visibleById(currentTransaction(), id));
+    }
+
+    public Contact findByEmailHash(long emailHash) {
+        return ContactMapper.copy(visibleByEmailHash(currentTransaction(), emailHash));
+    }
+
+    /**
+     * @return copies of the contacts with this normalized phone number, ordered by id
+     */
+    public List<Contact> findByPhoneNumber(String number) {
+        Transaction transaction = currentTransaction();
+        Set<Long> ids = idsByPhoneNumber.get(number);
+        List<Contact> contacts = new ArrayList<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                Contact contact = isChanged(transaction, id) ? null : byId.get(id);
+                if (contact != null) {
+                    contacts.add(ContactMapper.copy(contact));
+                }
+            }
+        }
+        if (transaction != null) {
+            for (Contact contact : transaction.changed.values()) {
+                if (contact != null && PhoneNormalizer.numbers(contact.getPhone(), contact.getPrimaryPhone()).contains(number)) {
+                    contacts.add(ContactMapper.copy(contact));
+                }
+            }
+        }
+        contacts.sort(Comparator.comparing(Contact::getId));
+        return contacts;
+    }
+
+    public boolean existsById(long id) {
+        return visibleById(currentTransaction(), id) != null;
+    }
+
+    /**
+     * @return copies of every contact, ordered by id
+     */
+    public List<Contact> findAll() {
+        List<Contact> contacts = visibleContacts(currentTransaction());
+        contacts.sort(Comparator.comparing(Contact::getId));
+        contacts.replaceAll(ContactMapper::copy);
+        return contacts;
+    }
+
+    public long count() {
+        Transaction transaction = currentTransaction();
+        return transaction == null || transaction.isEmpty() ? byId.size() : visibleContacts(transaction).size();
+    }
+
+    /**
+     * Inserts or replaces the contact. Like a JPA persist, a contact without an id gets one
+     * assigned on the instance passed in.
+     *
+     * @throws DataIntegrityViolationException if another contact has the same email hash
+     */
+    public <S extends Contact> S save(S contact) {
+        Transaction transaction = beginWrite();
+        boolean completed = false;
+        try {
+            if (contact.getId() == null) {
+                contact.setId(nextId.getAndIncrement());
+            } else {
+                nextId.accumulateAndGet(contact.getId() + 1, Math::max);
+            }
+            Contact stored = ContactMapper.copy(contact);
+            if (stored.getEmailHash() != null) {
+                Contact owner = visibleByEmailHash(transaction, stored.getEmailHash());
+                if (owner != null && !owner.getId().equals(stored.getId())) {
+                    throw new DataIntegrityViolationException("Unique index or primary key violation: "
+                            + "uk_contact_email_hash on contact " + owner.getId());
+                }
+            }
+            transaction.change(stored.getId(), visibleById(transaction, stored.getId()), stored);
+            transaction.redo.add(new Mutation(SAVE, stored.getId(), stored));
+            completed = true;
+            return contact;
+        } finally {
+            endWrite(transaction, completed);
+        }
+    }
+
+    public void deleteById(long id) {
+        Transaction transaction = beginWrite();
+        boolean completed = false;
+        try {
+            Contact previous = visibleById(transaction, id);
+            if (previous != null) {
+                transaction.change(id, previous, null);
+                transaction.redo.add(new Mutation(DELETE, id, null));
+            }
+            completed = true;
+        } finally {
+            endWrite(transaction, completed);
+        }
+    }
+
+    public void deleteAll() {
+        Transaction transaction = beginWrite();
+        boolean completed = false;
+        try {
+            transaction.clear();
+            transaction.redo.add(new Mutation(CLEAR, 0, null));
+            completed = true;
+        } finally {
+            endWrite(transaction, completed);
+        }
+    }
+
+    /**
+     * Writes all contacts to a new snapshot file and deletes the log segments it makes redundant.
+     * Skipped when nothing was written since the last snapshot.
+     */
+    @Scheduled(fixedDelayString = "${contact.memory-store.snapshot-interval-ms:60000}",
+            initialDelayString = "${contact.memory-store.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        long sequence;
+        List<Contact> contacts;
+        long next;
+        writeLock.lock();
+        try {
+            // Under the lock no transaction has published changes that are not yet in the log
+            sequence = log.getLastSequence();
+            if (sequence == snapshotSequence) {
+                return;
+            }
+            contacts = byId.values();
+            next = nextId.get();
+        } finally {
+            writeLock.unlock();
+        }
+        long start = System.nanoTime();
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve("." + SNAPSHOT_FILE + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(sequence);
+                out.writeLong(next);
+                out.writeInt(contacts.size());
+                for (Contact contact : contacts) {
+                    writeContact(out, contact);
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            snapshotSequence = sequence;
+            log.deleteUpTo(sequence);
+            logger.info("Wrote snapshot of {} contacts up to log record {} in {} ms", contacts.size(), sequence,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Contact snapshot failed; the log is kept: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshot();
+        log.close();
+    }
+
+    // Transactions ---------------------------------------------------------------------------
+
+    Transaction currentTransaction() {
+        return (Transaction) TransactionSynchronizationManager.getResource(this);
+    }
+
+    void commit(Transaction transaction) {
+        if (!transaction.holdsLock) {
+            return;
+        }
+        long sequence = -1;
+        try {
+            if (!transaction.redo.isEmpty()) {
+                sequence = log.write(encode(transaction.redo));
+                // Published while still holding the lock, so the maps see commits in log order
+                for (Mutation mutation : transaction.redo) {
+                    replay(mutation);
+                }
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not append to the contact log", e);
+        } finally {
+            release(transaction);
+        }
+        awaitDurable(sequence);
+    }
+
+    void rollback(Transaction transaction) {
+        if (!transaction.holdsLock) {
+            return;
+        }
+        // Nothing was published; dropping the pending changes is the whole rollback
+        release(transaction);
+    }
+
+    private void release(Transaction transaction) {
+        transaction.reset();
+        transaction.holdsLock = false;
+        writeLock.unlock();
+    }
+
+    /** Takes the write lock for the bound transaction, or for a single-write one outside of any. */
+    private Transaction beginWrite() {
+        Transaction transaction = currentTransaction();
+        if (transaction == null) {
+            transaction = new Transaction(true);
+        }
+        if (!transaction.holdsLock) {
+            writeLock.lock();
+            transaction.holdsLock = true;
+        }
+        return transaction;
+    }
+
+    private void endWrite(Transaction transaction, boolean completed) {
+        // A failed write in a bound transaction is undone by the rollback that follows
+        if (transaction.implicit) {
+            if (completed) {
+                commit(transaction);
+            } else {
+                rollback(transaction);
+            }
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (sequence < 0) {
+            return;
+        }
+        try {
+            log.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not sync the contact log", e);
+        }
+    }
+
+    // Visibility ------------------------------------------------------------------------------
+
+    private Contact visibleById(Transaction transaction, long id) {
+        if (transaction != null && (transaction.cleared || transaction.changed.containsKey(id))) {
+            return transaction.changed.get(id);
+        }
+        return byId.get(id);
+    }
+
+    private Contact visibleByEmailHash(Transaction transaction, long emailHash) {
+        if (transaction != null) {
+            if (transaction.byEmailHash.containsKey(emailHash)) {
+                return transaction.byEmailHash.get(emailHash);
+            }
+            if (transaction.cleared) {
+                return null;
+            }
+        }
+        Contact contact = byEmailHash.get(emailHash);
+        // A committed owner the transaction changed no longer has this email, or it would be indexed above
+        return contact != null && isChanged(transaction, contact.getId()) ? null : contact;
+    }
+
+    private static boolean isChanged(Transaction transaction, long id) {
+        return transaction != null && (transaction.cleared || transaction.changed.containsKey(id));
+    }
+
+    private List<Contact> visibleContacts(Transaction transaction) {
+        if (transaction == null || transaction.isEmpty()) {
+            return byId.values();
+        }
+        List<Contact> contacts = new ArrayList<>();
+        if (!transaction.cleared) {
+            for (Contact contact : byId.values()) {
+                if (!transaction.changed.containsKey(contact.getId())) {
+                    contacts.add(contact);
+                }
+            }
+        }
+        for (Contact contact : transaction.changed.values()) {
+            if (contact != null) {
+                contacts.add(contact);
+            }
+        }
+        return contacts;
+    }
+
+    // State changes --------------------------------------------------------------------------
+
+    private void apply(Contact stored) {
+        Contact previous = byId.put(stored.getId(), stored);
+        if (previous != null && previous.getEmailHash() != null
+                && !previous.getEmailHash().equals(stored.getEmailHash())) {
+            byEmailHash.remove(previous.getEmailHash());
+        }
+        if (stored.getEmailHash() != null) {
+            byEmailHash.put(stored.getEmailHash(), stored);
+        }
+        Set<String> numbers = PhoneNormalizer.numbers(stored.getPhone(), stored.getPrimaryPhone());
+        if (previous != null) {
+            for (String number : PhoneNormalizer.numbers(previous.getPhone(), previous.getPrimaryPhone())) {
+                if (!numbers.contains(number)) {
+                    unindexPhoneNumber(number, previous.getId());
+                }
+            }
+        }
+        for (String number : numbers) {
+            idsByPhoneNumber.computeIfAbsent(number, key -> ConcurrentHashMap.newKeySet()).add(stored.getId());
+        }
+    }
+
+    private void remove(Contact contact) {
+        byId.remove(contact.getId());
+        if (contact.getEmailHash() != null) {
+            byEmailHash.remove(contact.getEmailHash());
+        }
+        for (String number : PhoneNormalizer.numbers(contact.getPhone(), contact.getPrimaryPhone())) {
+            unindexPhoneNumber(number, contact.getId());
+        }
+    }
+
+    private void unindexPhoneNumber(String number, long id) {
+        idsByPhoneNumber.computeIfPresent(number, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void replay(Mutation mutation) {
+        switch (mutation.type) {
+            case SAVE:
+                apply(mutation.contact);
+                nextId.accumulateAndGet(mutation.id + 1, Math::max);
+                break;
+            case DELETE:
+                Contact previous = byId.get(mutation.id);
+                if (previous != null) {
+                    remove(previous);
+                }
+                break;
+            case CLEAR:
+                byId.clear();
+                byEmailHash.clear();
+                idsByPhoneNumber.clear();
+                break;
+            default:
+                throw new IllegalStateException("Unknown contact log mutation " + mutation.type);
+        }
+    }
+
+    // Persistence ----------------------------------------------------------------------------
+
+    private long loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognized contact snapshot " + file);
+            }
+            long sequence = in.readLong();
+            nextId.set(in.readLong());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                apply(readContact(in, version >= 2));
+            }
+            return sequence;
+        }
+    }
+
+    private long replay() throws IOException {
+        long records = 0;
+        try (AppendOnlyLog.Cursor cursor = log.openCursor(snapshotSequence)) {
+            List<AppendOnlyLog.Record> batch;
+            while (!(batch = cursor.next(1000)).isEmpty()) {
+                for (AppendOnlyLog.Record record : batch) {
+                    for (Mutation mutation : decode(record.payload())) {
+                        replay(mutation);
+                    }
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+
+    private static byte[] encode(List<Mutation> mutations) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * mutations.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(mutations.size());
+        for (Mutation mutation : mutations) {
+            out.writeByte(mutation.type);
+            if (mutation.type == SAVE) {
+                writeContact(out, mutation.contact);
+            } else if (mutation.type == DELETE) {
+                out.writeLong(mutation.id);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Mutation> decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        List<Mutation> mutations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            if (type == SAVE || type == SAVE_UNSTAMPED) {
+                Contact contact = readContact(in, type == SAVE);
+                mutations.add(new Mutation(SAVE, contact.getId(), contact));
+            } else if (type == DELETE) {
+                mutations.add(new Mutation(DELETE, in.readLong(), null));
+            } else {
+                mutations.add(new Mutation(type, 0, null));
+            }
+        }
+        return mutations;
+    }
+
+    private static void writeContact(DataOutput out, Contact contact) throws IOException {
+        out.writeLong(contact.getId());
+        out.writeBoolean(contact.getEmailHash() != null);
+        if (contact.getEmailHash() != null) {
+            out.writeLong(contact.getEmailHash());
+        }
+        for (String value : new String[] {contact.getFirstName(), contact.getLastName(), contact.getEmail(),
+                contact.getNormalizedEmail(), contact.getPhone(), contact.getPrimaryPhone(), contact.getAddress(),
+                contact.getPrimaryEmail()}) {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+        out.writeBoolean(contact.getWrittenAt() != null);
+        if (contact.getWrittenAt() != null) {
+            out.writeLong(contact.getWrittenAt());
+        }
+    }
+
+    private static Contact readContact(DataInput in, boolean stamped) throws IOException {
+        Contact contact = new Contact();
+        contact.setId(in.readLong());
+        contact.setEmailHash(in.readBoolean() ? in.readLong() : null);
+        contact.setFirstName(readString(in));
+        contact.setLastName(readString(in));
+        contact.setEmail(readString(in));
+        contact.setNormalizedEmail(readString(in));
+        contact.setPhone(readString(in));
+        contact.setPrimaryPhone(readString(in));
+        contact.setAddress(readString(in));
+        contact.setPrimaryEmail(readString(in));
+        if (stamped && in.readBoolean()) {
+            contact.setWrittenAt(in.readLong());
+        }
+        return contact;
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private record Mutation(byte type, long id, Contact contact) {
+    }
+
+    /**
+     * Changes made by one transaction and not yet committed: the redo entries that go to the log,
+     * and the contacts as the transaction sees them, by id and by email hash. A {@code null}
+     * value marks a contact deleted, or an email hash freed, by the transaction.
+     */
+    static final class Transaction {
+
+        private final boolean implicit;
+        private final List<Mutation> redo = new ArrayList<>();
+        private final Map<Long, Contact> changed = new HashMap<>();
+        private final Map<Long, Contact> byEmailHash = new HashMap<>();
+        private boolean cleared;
+        private boolean holdsLock;
+        boolean rollbackOnly;
+
+        Transaction(boolean implicit) {
+            this.implicit = implicit;
+        }
+
+        boolean isEmpty() {
+            return redo.isEmpty();
+        }
+
+        void change(long id, Contact previous, Contact current) {
+            if (previous != null && previous.getEmailHash() != null
+                    && (current == null || !previous.getEmailHash().equals(current.getEmailHash()))) {
+                byEmailHash.put(previous.getEmailHash(), null);
+            }
+            if (current != null && current.getEmailHash() != null) {
+                byEmailHash.put(current.getEmailHash(), current);
+            }
+            changed.put(id, current);
+        }
+
+        void clear() {
+            changed.clear();
+            byEmailHash.clear();
+            cleared = true;
+        }
+
+        void reset() {
+            redo.clear();
+            changed.clear();
+            byEmailHash.clear();
+            cleared = false;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.keviny.customercontact.repository.memory;
+
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.repository.ContactRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ContactRepository} over a {@link ContactStore}, used with the {@code memory} profile.
+ * Entities handed out are detached copies, as if read in a transaction that has ended, so
+ * changes only take effect through {@link #save}. Query by example is not supported.
+ */
+public class InMemoryContactRepository implements ContactRepository {
+
+    private static final String NO_QUERY_BY_EXAMPLE = "Query by example is not supported by the in-memory contact store";
+
+    private final ContactStore store;
+
+    public InMemoryContactRepository(ContactStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Optional<Contact> findByEmailHash(long emailHash) {
+        return Optional.ofNullable(store.findByEmailHash(emailHash));
+    }
+
+    // Projections return whole contacts; the response writer drops the unselected fields
+
+    @Override
+    public Optional<Contact> findProjectedById(long id, ContactFieldSet fields) {
+        return findById(id);
+    }
+
+    @Override
+    public Optional<Contact> findProjectedByEmailHash(long emailHash, ContactFieldSet fields) {
+        return findByEmailHash(emailHash);
+    }
+
+    @Override
+    public List<Contact> findProjected(String lastNamePrefix, boolean primaryPhoneRequired, Pageable pageable,
+                                       ContactFieldSet fields) {
+        return page(filter(contact -> (lastNamePrefix == null || contact.getLastName().startsWith(lastNamePrefix))
+                && (!primaryPhoneRequired || contact.getPrimaryPhone() != null)), pageable);
+    }
+
+    @Override
+    public List<Contact> findByPhoneNumber(String number) {
+        return store.findByPhoneNumber(number);
+    }
+
+    @Override
+    public List<Contact> findWithoutPhoneKeys(long after, Pageable pageable) {
+        // The store indexes phone numbers itself, from the phone columns
+        return List.of();
+    }
+
+    @Override
+    public List<Contact> findTop1000ByEmailHashIsNull() {
+        return store.findAll().stream()
+                .filter(contact -> contact.getEmailHash() == null)
+                .limit(1000)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Contact> streamAll() {
+        return store.findAll().stream();
+    }
+
+    @Override
+    public Stream<Long> streamAllEmailHashes() {
+        return store.findAll().stream()
+                .map(Contact::getEmailHash)
+                .filter(hash -> hash != null);
+    }
+
+    @Override
+    public ContactStats countStats() {
+        List<Contact> contacts = store.findAll();
+        return new ContactStats(contacts.size(),
+                contacts.stream().filter(contact -> contact.getPrimaryPhone() != null).count(),
+                contacts.stream().filter(contact -> contact.getPrimaryEmail() != null).count());
+    }
+
+    @Override
+    public <S extends Contact> S save(S entity) {
+        return store.save(entity);
+    }
+
+    @Override
+    public <S extends Contact> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(store.save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends Contact> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Contact> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Writes are applied immediately
+    }
+
+    @Override
+    public Optional<Contact> findById(Long id) {
+        return Optional.ofNullable(store.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.existsById(id);
+    }
+
+    @Override
+    public List<Contact> findAll() {
+        return store.findAll();
+    }
+
+    @Override
+    public List<Contact> findAllById(Iterable<Long> ids) {
+        List<Contact> contacts = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(contacts::add);
+        }
+        return contacts;
+    }
+
+    @Override
+    public List<Contact> findAll(Sort sort) {
+        List<Contact> contacts = store.findAll();
+        Comparator<Contact> comparator = comparator(sort);
+        if (comparator != null) {
+            contacts.sort(comparator);
+        }
+        return contacts;
+    }
+
+    @Override
+    public Page<Contact> findAll(Pageable pageable) {
+        List<Contact> contacts = store.findAll();
+        return new PageImpl<>(page(contacts, pageable), pageable, contacts.size());
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        store.deleteById(id);
+    }
+
+    @Override
+    public void delete(Contact entity) {
+        if (entity.getId() != null) {
+            store.deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(store::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Contact> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public void deleteInBatch(Iterable<Contact> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Contact> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        store.deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Contact getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Contact getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Contact getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Unable to find Contact with id " + id));
+    }
+
+    @Override
+    public <S extends Contact> Optional<S> findOne(Example<S> example) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact> List<S> findAll(Example<S> example) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact> List<S> findAll(Example<S> example, Sort sort) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact> long count(Example<S> example) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact> boolean exists(Example<S> example) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    @Override
+    public <S extends Contact, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw new UnsupportedOperationException(NO_QUERY_BY_EXAMPLE);
+    }
+
+    private List<Contact> filter(Predicate<Contact> predicate) {
+        return store.findAll().stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /** Sorts the contacts and cuts out the requested page. */
+    private static List<Contact> page(List<Contact> contacts, Pageable pageable) {
+        Comparator<Contact> comparator = comparator(pageable.getSort());
+        if (comparator != null) {
+            contacts.sort(comparator);
+        }
+        if (pageable.isUnpaged()) {
+            return contacts;
+        }
+        int from = (int) Math.min(pageable.getOffset(), contacts.size());
+        int to = Math.min(from + pageable.getPageSize(), contacts.size());
+        return new ArrayList<>(contacts.subList(from, to));
+    }
+
+    /**
+     * Orders by entity properties the way the JPA repository would, with nulls first on ascending
+     * order unless the sort says otherwise.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Contact> comparator(Sort sort) {
+        Comparator<Contact> result = null;
+        for (Sort.Order order : sort) {
+            Function<Contact, Comparable> property = contact ->
+                    (Comparable) new BeanWrapperImpl(contact).getPropertyValue(order.getProperty());
+            Comparator<Comparable> values = order.isIgnoreCase()
+                    ? (a, b) -> String.valueOf(a).compareToIgnoreCase(String.valueOf(b))
+                    : Comparator.naturalOrder();
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            values = order.getNullHandling() == Sort.NullHandling.NULLS_LAST
+                    ? Comparator.nullsLast(values) : Comparator.nullsFirst(values);
+            Comparator<Contact> next = Comparator.comparing(property, values);
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
+    }
+}
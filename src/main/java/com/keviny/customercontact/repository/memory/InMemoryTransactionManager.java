@@ -0,0 +1,89 @@
+package com.keviny.customercontact.repository.memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the {@code memory} profile, so {@code @Transactional} services and
+ * {@code TransactionTemplate}s run unchanged. Binds a {@link ContactStore.Transaction} to the
+ * thread; the store collects the transaction's changes in it and logs or undoes them at
+ * completion. Transaction synchronizations (after-commit listeners) work as with JPA.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final ContactStore store;
+
+    public InMemoryTransactionManager(ContactStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new TransactionObject(store.currentTransaction());
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((TransactionObject) transaction).transaction != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionObject object = (TransactionObject) transaction;
+        object.transaction = new ContactStore.Transaction(false);
+        TransactionSynchronizationManager.bindResource(store, object.transaction);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((TransactionObject) transaction).transaction = null;
+        return TransactionSynchronizationManager.unbindResource(store);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(store, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        store.commit(((TransactionObject) status.getTransaction()).transaction);
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        store.rollback(((TransactionObject) status.getTransaction()).transaction);
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((TransactionObject) status.getTransaction()).transaction.rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+    }
+
+    private static final class TransactionObject implements SmartTransactionObject {
+
+        private ContactStore.Transaction transaction;
+
+        TransactionObject(ContactStore.Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return transaction != null && transaction.rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+            // Changes are applied as they are made
+        }
+    }
+}
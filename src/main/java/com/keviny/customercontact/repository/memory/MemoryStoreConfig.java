@@ -0,0 +1,38 @@
+package com.keviny.customercontact.repository.memory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * In-memory storage for the {@code memory} profile. {@code application-memory.yml} turns off
+ * the DataSource, and with it JPA and the Spring Data repositories; these beans stand in for the
+ * repository and the transaction manager.
+ */
+@Configuration
+@Profile("memory")
+public class MemoryStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public ContactStore contactStore(MeterRegistry meterRegistry,
+                                     @Value("${contact.memory-store.directory:./data/memory-store}") Path directory,
+                                     @Value("${contact.memory-store.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        return new ContactStore(directory, segmentSize.toBytes(), meterRegistry);
+    }
+
+    @Bean
+    public InMemoryContactRepository contactRepository(ContactStore contactStore) {
+        return new InMemoryContactRepository(contactStore);
+    }
+
+    @Bean
+    public InMemoryTransactionManager transactionManager(ContactStore contactStore) {
+        return new InMemoryTransactionManager(contactStore);
+    }
+}
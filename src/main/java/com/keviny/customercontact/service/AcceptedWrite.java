@@ -0,0 +1,27 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+
+/**
+ * An upsert accepted earlier than it is applied, such as a write-behind log record. The contact
+ * is stamped with {@link #getAcceptedAt()} instead of the time of the write, and the write is
+ * skipped if the stored contact holds data accepted later, so a replayed record never reverts a
+ * newer write.
+ */
+public class AcceptedWrite extends ContactDto {
+
+    private final long acceptedAt;
+
+    public AcceptedWrite(ContactDto contactDto, long acceptedAt) {
+        super(contactDto.getId(), contactDto.getFirstName(), contactDto.getLastName(), contactDto.getEmail(),
+                contactDto.getPhone(), contactDto.getAddress());
+        setPrimaryPhone(contactDto.getPrimaryPhone());
+        setPrimaryEmail(contactDto.getPrimaryEmail());
+        this.acceptedAt = acceptedAt;
+    }
+
+    /** @return when the write was accepted, in epoch milliseconds */
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+}
@@ -0,0 +1,336 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.event.ContactChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed contact changes out to Server-Sent Event subscribers.
+ * <p>
+ * Publishing never blocks on a subscriber: each one owns a bounded queue that is drained on a
+ * small shared pool, and a subscriber whose queue is full is evicted so it can reconnect with
+ * {@code Last-Event-ID} instead of holding back everyone else. Recent events are kept in a
+ * replay buffer to serve those reconnects.
+ * <p>
+ * Servlet writes block while the client's socket buffer is full, so the pool never writes
+ * itself: each write runs on a writer thread and is waited for at most {@code send-timeout-ms}.
+ * A client that has not taken the write by then is evicted and its pool thread released; the
+ * abandoned writer stays blocked until the container gives up on the connection, then completes
+ * the emitter. A subscriber has at most one drain queued or running, keep-alives included.
+ */
+@Component
+public class ContactChangeBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactChangeBroadcaster.class);
+
+    static final String RESYNC_EVENT = "resync";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+    private long sequence;
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long sendTimeoutMillis;
+    private final ExecutorService dispatcher;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeat;
+    private final Counter evictions;
+
+    public ContactChangeBroadcaster(@Value("${contact.stream.buffer-size:256}") int bufferSize,
+                                    @Value("${contact.stream.replay-size:1024}") int replaySize,
+                                    @Value("${contact.stream.max-subscribers:1000}") int maxSubscribers,
+                                    @Value("${contact.stream.dispatcher-threads:4}") int dispatcherThreads,
+                                    @Value("${contact.stream.heartbeat-seconds:15}") long heartbeatSeconds,
+                                    @Value("${contact.stream.send-timeout-ms:5000}") long sendTimeoutMillis,
+                                    MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, daemon("contact-stream-"));
+        // At most one write in flight per subscriber; the thread of a stalled one ends with its connection
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(maxSubscribers, maxSubscribers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemon("contact-stream-writer-"));
+        writers.allowCoreThreadTimeOut(true);
+        this.writers = writers;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("contact-stream-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        this.evictions = Counter.builder("contact.stream.evictions")
+                .description("Subscribers dropped because their buffer overflowed or a write stalled")
+                .register(meterRegistry);
+        meterRegistry.gauge("contact.stream.subscribers", subscribers, Set::size);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContactChanged(ContactChangedEvent event) {
+        publish(event);
+    }
+
+    void publish(ContactChangedEvent event) {
+        synchronized (lock) {
+            StreamedEvent streamed = new StreamedEvent(++sequence, event);
+            replayBuffer.addLast(streamed);
+            if (replayBuffer.size() > replaySize) {
+                replayBuffer.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(streamed);
+            }
+        }
+    }
+
+    /**
+     * Registers a subscriber, first queueing everything published after {@code lastEventId}.
+     * When that id is unknown (another instance, a restart, or too old for the replay buffer) a
+     * {@value #RESYNC_EVENT} event tells the client to reload its state before trusting the stream.
+     *
+     * @return false when the subscriber limit has been reached
+     */
+    public boolean subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                return false;
+            }
+            if (lastEventId != null) {
+                long resumeFrom = parseSequence(lastEventId);
+                StreamedEvent oldest = replayBuffer.peekFirst();
+                if (resumeFrom < 0 || resumeFrom > sequence || sequence - resumeFrom > bufferSize
+                        || (oldest != null && resumeFrom < oldest.sequence - 1)) {
+                    subscriber.resync = true;
+                } else {
+                    for (StreamedEvent streamed : replayBuffer) {
+                        if (streamed.sequence > resumeFrom) {
+                            subscriber.offer(streamed);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.scheduleDrain();
+        logger.debug("Stream subscriber registered, {} active", subscribers.size());
+        return true;
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                // Folded into the subscriber's drain, so a busy or stalled one does not pile them up
+                subscriber.keepAlive = true;
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber)) {
+            evictions.increment();
+            logger.warn("Evicting slow stream subscriber: {}", reason);
+            subscriber.close();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class StreamedEvent {
+        private final long sequence;
+        private final ContactChangedEvent event;
+
+        private StreamedEvent(long sequence, ContactChangedEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamedEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean writing;
+        private volatile boolean resync;
+        private volatile boolean keepAlive;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(StreamedEvent streamed) {
+            if (!queue.offer(streamed)) {
+                evict(this, bufferSize + " events buffered");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            scheduleDrain();
+        }
+
+        private void drain() {
+            if (closed) {
+                // Completing here rather than on the publishing thread keeps a stalled write from blocking publishers;
+                // a write still in flight holds the emitter and completes it when it ends
+                if (!writing) {
+                    complete();
+                }
+                return;
+            }
+            try {
+                if (resync) {
+                    resync = false;
+                    send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                }
+                StreamedEvent streamed;
+                while (!closed && (streamed = queue.poll()) != null) {
+                    send(SseEmitter.event()
+                            .id(epoch + ":" + streamed.sequence)
+                            .name(streamed.event.getType().name().toLowerCase())
+                            .data(streamed.event.getContact(), MediaType.APPLICATION_JSON));
+                }
+                if (keepAlive) {
+                    keepAlive = false;
+                    if (!closed && queue.isEmpty()) {
+                        send(SseEmitter.event().comment("keep-alive"));
+                    }
+                }
+            } catch (TimeoutException e) {
+                evict(this, "a write was not taken within " + sendTimeoutMillis + " ms");
+            } catch (IOException | IllegalStateException | RejectedExecutionException e) {
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            // An event, a keep-alive or an eviction may have arrived between the last poll and releasing the flag
+            if (closed || ((keepAlive || !queue.isEmpty()) && subscribers.contains(this))) {
+                scheduleDrain();
+            }
+        }
+
+        /** Hands the write to a writer thread and waits for it at most {@code send-timeout-ms}. */
+        private void send(SseEmitter.SseEventBuilder event) throws IOException, TimeoutException {
+            writing = true;
+            Future<?> write;
+            try {
+                write = writers.submit(() -> {
+                    try {
+                        emitter.send(event);
+                    } finally {
+                        writing = false;
+                        if (closed) {
+                            complete();
+                        }
+                    }
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                writing = false;
+                throw e;
+            }
+            try {
+                write.get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException failure) {
+                    throw failure;
+                }
+                throw new IllegalStateException("Stream write failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while writing to the stream", e);
+            }
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    logger.debug("Could not complete evicted stream subscriber: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every stored email, used to skip the {@code findByEmail} SELECT for emails
+ * that were never stored (most upserts are for new contacts).
+ * <p>
+ * The filter exists from construction so that emails written while it is being loaded are not
+ * lost; until the background load has read every shard it answers "might contain" for everything
+ * and the database is always consulted. Emails are added before the row is saved, so a contact is
+ * in the filter by the time its transaction commits; a rolled back insert only leaves a harmless
+ * false positive.
+ * <p>
+ * The filter only sees writes made through this instance, so it is off unless
+ * {@code contact.email-filter.enabled} is set: with several instances or other writers sharing the
+ * database, a contact created elsewhere would be ruled out here, its upsert would insert a
+ * duplicate and lookups by its email would miss it. Enable it only for a single writer.
+ */
+@Component
+public class ContactEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEmailFilter.class);
+
+    private final ContactRepository contactRepository;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final EmailBloomFilter filter;
+    private final AtomicLong insertions = new AtomicLong();
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+
+    public ContactEmailFilter(ContactRepository contactRepository,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${contact.email-filter.enabled:false}") boolean enabled,
+                              @Value("${contact.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                              @Value("${contact.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.contactRepository = contactRepository;
+        this.shardRouter = shardRouter;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.filter = new EmailBloomFilter(expectedInsertions, falsePositiveRate);
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.truePositives = lookupCounter(meterRegistry, "true_positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        Gauge.builder("contact.email.filter.false.positive.rate", this, ContactEmailFilter::observedFalsePositiveRate)
+                .description("Share of absent emails the filter failed to rule out")
+                .register(meterRegistry);
+        Gauge.builder("contact.email.filter.expected.false.positive.rate", filter, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate implied by the current fill ratio")
+                .register(meterRegistry);
+        Gauge.builder("contact.email.filter.memory", filter, EmailBloomFilter::getSizeBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("contact.email.filter.insertions", insertions, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            logger.info("Email filter disabled; every email lookup queries the database");
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("contact-email-filter-");
+        threadFactory.setDaemon(true);
+        threadFactory.newThread(this::loadFromDatabase).start();
+    }
+
+    void loadFromDatabase() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.run(shard, () -> transaction.executeWithoutResult(status -> {
+                    try (Stream<Long> hashes = contactRepository.streamAllEmailHashes()) {
+                        hashes.forEach(this::add);
+                    }
+                }));
+            }
+            ready = true;
+            logger.info("Email filter loaded {} emails into {} KiB ({} hash functions) in {} ms",
+                    insertions.get(), filter.getSizeBytes() / 1024, filter.getHashFunctions(),
+                    (System.nanoTime() - start) / 1_000_000);
+            if (insertions.get() > filter.getCapacity()) {
+                logger.warn("Email filter holds {} emails but is sized for {}; raise contact.email-filter.expected-insertions",
+                        insertions.get(), filter.getCapacity());
+            }
+        } catch (RuntimeException e) {
+            // Stay not-ready: lookups keep going to the database
+            logger.error("Could not load email filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return {@code false} only if no contact with this email (compared case-insensitively) exists
+     */
+    public boolean mightContain(String email) {
+        if (!ready) {
+            return true;
+        }
+        if (filter.mightContain(EmailNormalizer.hash(email))) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Records whether the database found an email the filter could not rule out, feeding the
+     * observed false-positive rate.
+     */
+    public void recordLookup(boolean found) {
+        if (ready) {
+            (found ? truePositives : falsePositives).increment();
+        }
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            add(EmailNormalizer.hash(email));
+        }
+    }
+
+    private void add(long emailHash) {
+        filter.add(emailHash);
+        insertions.incrementAndGet();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private double observedFalsePositiveRate() {
+        double fp = falsePositives.count();
+        double absent = fp + negatives.count();
+        return absent == 0 ? 0.0 : fp / absent;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("contact.email.filter.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code normalized_email} and {@code email_hash}, and the {@code contact_phone} lookup
+ * rows, for contacts written before those existed. Runs once at startup, before the web server
+ * accepts requests, because lookups only find contacts through these keys.
+ */
+@Component
+public class ContactEmailKeyBackfill implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEmailKeyBackfill.class);
+
+    private final ContactRepository contactRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private volatile boolean running;
+
+    public ContactEmailKeyBackfill(ContactRepository contactRepository, ShardRouter shardRouter,
+                                   PlatformTransactionManager transactionManager) {
+        this.contactRepository = contactRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.run(shard, this::backfillCurrentShard);
+        }
+        running = true;
+    }
+
+    private void backfillCurrentShard() {
+        long updated = 0;
+        while (true) {
+            Integer batch;
+            try {
+                batch = transaction.execute(status -> {
+                    List<Contact> contacts = contactRepository.findTop1000ByEmailHashIsNull();
+                    contacts.forEach(ContactMapper::updateEmailKey);
+                    return contacts.size();
+                });
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("Existing contacts differ only in email case; merge them before "
+                        + "upgrading: " + e.getMostSpecificCause().getMessage(), e);
+            }
+            if (batch == null || batch == 0) {
+                break;
+            }
+            updated += batch;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled email hash for {} contacts on shard {}", updated, ShardContext.current());
+        }
+        backfillPhoneNumbers();
+    }
+
+    private void backfillPhoneNumbers() {
+        long updated = 0;
+        // Keyset paging: contacts whose phones do not normalize stay without rows and must not be read again
+        long[] after = {0};
+        while (true) {
+            Integer batch = transaction.execute(status -> {
+                List<Contact> contacts = contactRepository.findWithoutPhoneKeys(after[0], PageRequest.of(0, 1000));
+                contacts.forEach(ContactMapper::updatePhoneKeys);
+                if (!contacts.isEmpty()) {
+                    after[0] = contacts.get(contacts.size() - 1).getId();
+                }
+                return contacts.size();
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            updated += batch;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled phone numbers for {} contacts on shard {}", updated, ShardContext.current());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Ahead of the embedded web server
+        return 0;
+    }
+}
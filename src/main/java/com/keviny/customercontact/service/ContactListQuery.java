@@ -0,0 +1,105 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactField;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.model.Contact;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Filters and order for {@code GET /api/contacts}, limited to what an index can serve in order:
+ * {@link SortField#ID} walks the primary key and {@link SortField#NAME} walks {@code idx_name}
+ * (last name, first name). A last-name prefix is a range on {@code idx_name}, so it is only
+ * accepted with the name order; {@code hasPrimaryPhone} is checked on the rows the index yields.
+ * Orders are ascending only, since H2 cannot scan an index backwards.
+ */
+public class ContactListQuery {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public enum SortField {
+        ID(Sort.by("id"), Comparator.comparing(Contact::getId), ContactField.ID),
+        NAME(Sort.by("lastName", "firstName"),
+                Comparator.comparing(Contact::getLastName).thenComparing(Contact::getFirstName).thenComparing(Contact::getId),
+                ContactField.LAST_NAME, ContactField.FIRST_NAME, ContactField.ID);
+
+        private final Sort sort;
+        private final Comparator<Contact> comparator;
+        private final ContactField[] keys;
+
+        SortField(Sort sort, Comparator<Contact> comparator, ContactField... keys) {
+            this.sort = sort;
+            this.comparator = comparator;
+            this.keys = keys;
+        }
+    }
+
+    private final String lastNamePrefix;
+    private final boolean primaryPhoneRequired;
+    private final SortField sort;
+    private final int limit;
+
+    public ContactListQuery(String lastNamePrefix, boolean primaryPhoneRequired, SortField sort, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + " but was " + limit);
+        }
+        if (StringUtils.hasText(lastNamePrefix) && sort != SortField.NAME) {
+            throw new IllegalArgumentException("lastName can only be combined with sort=name");
+        }
+        this.lastNamePrefix = StringUtils.hasText(lastNamePrefix) ? lastNamePrefix : null;
+        this.primaryPhoneRequired = primaryPhoneRequired;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    /**
+     * Builds a query from request parameters; the order defaults to name when filtering by last
+     * name and to id otherwise.
+     */
+    public static ContactListQuery of(String lastNamePrefix, Boolean hasPrimaryPhone, String sort, Integer limit) {
+        if (Boolean.FALSE.equals(hasPrimaryPhone)) {
+            throw new IllegalArgumentException("hasPrimaryPhone only supports true");
+        }
+        SortField sortField;
+        if (sort == null) {
+            sortField = StringUtils.hasText(lastNamePrefix) ? SortField.NAME : SortField.ID;
+        } else {
+            try {
+                sortField = SortField.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be one of id, name but was " + sort);
+            }
+        }
+        return new ContactListQuery(lastNamePrefix, Boolean.TRUE.equals(hasPrimaryPhone), sortField,
+                limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    /** First page of {@link #getLimit()} rows in this query's index order. */
+    public Pageable toPageable() {
+        return PageRequest.of(0, limit, sort.sort);
+    }
+
+    /** Same order as {@link #toPageable()}, with the id as tie-breaker, for merging shard results. */
+    public Comparator<Contact> comparator() {
+        return sort.comparator;
+    }
+
+    /** {@code fields} plus the columns {@link #comparator()} reads, so shard results can be merged. */
+    public ContactFieldSet withSortKeys(ContactFieldSet fields) {
+        return fields.with(sort.keys);
+    }
+
+    public String getLastNamePrefix() { return lastNamePrefix; }
+
+    public boolean isPrimaryPhoneRequired() { return primaryPhoneRequired; }
+
+    public SortField getSort() { return sort; }
+
+    public int getLimit() { return limit; }
+}
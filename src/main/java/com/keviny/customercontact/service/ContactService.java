@@ -1,19 +1,33 @@
 package com.keviny.customercontact.service;
 
+import com.keviny.customercontact.cache.ContactCache;
+import com.keviny.customercontact.deadline.RequestDeadline;
 import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactField;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.dto.ContactPatch;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.event.ContactChangedEvent;
 import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import com.keviny.customercontact.mapper.PhoneNormalizer;
 import com.keviny.customercontact.model.Contact;
 import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardRouting;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +35,29 @@ import java.util.Optional;
 public class ContactService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContactService.class);
-    private static final String CONTACT_SERVICE = "contactService";
+    public static final String CONTACT_SERVICE = "contactService";
 
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContactEmailFilter emailFilter;
+
+    @Autowired
+    private ContactStatsCounter statsCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Present only with contact.cache.enabled=true
+    @Autowired(required = false)
+    private ContactCache contactCache;
+
     @Transactional
+    @ShardRouting(ShardRouting.Strategy.EMAIL)
     @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "createContactFallback")
     @Retry(name = CONTACT_SERVICE)
     public Contact createOrUpdateContact(ContactDto contactDto) {
@@ -37,15 +68,7 @@ public class ContactService {
         }
         
         try {
-            Contact contact = contactRepository.findByEmail(contactDto.getEmail())
-                    .orElseGet(() -> {
-                        logger.info("Creating new contact for email: {}", contactDto.getEmail());
-                        return new Contact();
-                    });
-            
-            ContactMapper.toEntity(contactDto, contact);
-            Contact savedContact = contactRepository.save(contact);
-            
+            Contact savedContact = upsert(contactDto);
             logger.info("Successfully saved contact with ID: {}", savedContact.getId());
             return savedContact;
             
@@ -58,7 +81,127 @@ public class ContactService {
         }
     }
     
+    /**
+     * Upserts a batch of contacts in a single transaction, in order. Used by bulk loaders that
+     * want to amortise the commit over many rows; a failure rolls back the whole batch.
+     */
+    @Transactional
+    @ShardRouting(ShardRouting.Strategy.BATCH)
+    public List<Contact> createOrUpdateContacts(List<ContactDto> contactDtos) {
+        logger.debug("Creating or updating batch of {} contacts", contactDtos.size());
+        
+        for (ContactDto contactDto : contactDtos) {
+            if (!StringUtils.hasText(contactDto.getEmail())) {
+                throw new IllegalArgumentException("Email is required for contact creation/update");
+            }
+        }
+        
+        try {
+            List<Contact> savedContacts = new ArrayList<>(contactDtos.size());
+            for (ContactDto contactDto : contactDtos) {
+                savedContacts.add(upsert(contactDto));
+            }
+            return savedContacts;
+        } catch (DataAccessException e) {
+            logger.error("Database error while saving batch of {} contacts: {}", contactDtos.size(), e.getMessage());
+            throw e;
+        }
+    }
+    
+    private Contact upsert(ContactDto contactDto) {
+        Contact contact = findExisting(contactDto.getEmail())
+                .orElseGet(() -> {
+                    logger.debug("Creating new contact for email: {}", contactDto.getEmail());
+                    return new Contact();
+                });
+        
+        return write(contact, contactDto);
+    }
+    
+    /**
+     * Applies the DTO to a new or loaded contact and saves it. A write to an existing contact
+     * that changes no column is suppressed: nothing is flushed and no change event is published,
+     * so caches, counters and subscribers are left alone. An {@link AcceptedWrite} older than
+     * the data in the row is superseded and skipped the same way.
+     */
+    private Contact write(Contact contact, ContactDto contactDto) {
+        boolean created = contact.getId() == null;
+        long writtenAt = contactDto instanceof AcceptedWrite accepted ? accepted.getAcceptedAt() : System.currentTimeMillis();
+        if (!created && contactDto instanceof AcceptedWrite
+                && contact.getWrittenAt() != null && writtenAt < contact.getWrittenAt()) {
+            logger.debug("Contact {} holds newer data than a write accepted at {}; write skipped", contact.getId(), writtenAt);
+            meterRegistry.counter("contact.writes.superseded").increment();
+            return contact;
+        }
+        if (!created && ContactMapper.matches(contactDto, contact)) {
+            logger.debug("Contact {} unchanged; write suppressed", contact.getId());
+            meterRegistry.counter("contact.writes.suppressed").increment();
+            return contact;
+        }
+        ContactDto previous = created ? null : ContactMapper.toDto(contact);
+        ContactMapper.toEntity(contactDto, contact);
+        contact.setWrittenAt(writtenAt);
+        if (created) {
+            // Before the insert, so the email is in the filter by the time the row is visible
+            emailFilter.add(contact.getEmail());
+        }
+        Contact savedContact = contactRepository.save(contact);
+        
+        // Listeners that fan the change out to other consumers run after commit
+        eventPublisher.publishEvent(new ContactChangedEvent(
+                created ? ContactChangedEvent.ChangeType.CREATED : ContactChangedEvent.ChangeType.UPDATED,
+                ContactMapper.toDto(savedContact), previous));
+        return savedContact;
+    }
+    
+    /**
+     * Partial update of the contact with the given id; see {@link ContactPatch}. Only the columns
+     * the patch changes are written, and a patch that changes nothing writes nothing.
+     *
+     * @return the contact after the patch, or empty if there is no contact with this id
+     */
+    @Transactional
+    @ShardRouting(ShardRouting.Strategy.ID)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "patchContactFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public Optional<Contact> patchContact(Long id, ContactPatch patch) {
+        logger.debug("Patching contact with ID: {}", id);
+        
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Contact ID must be a positive number");
+        }
+        
+        try {
+            return contactRepository.findById(id).map(contact -> {
+                if (patch.has(ContactField.EMAIL)
+                        && !EmailNormalizer.normalize(patch.getEmail()).equals(EmailNormalizer.normalize(contact.getEmail()))) {
+                    throw new IllegalArgumentException("Email cannot be changed; it identifies the contact");
+                }
+                return write(contact, patch.applyTo(ContactMapper.toDto(contact)));
+            });
+        } catch (DataAccessException e) {
+            logger.error("Database error while patching contact {}: {}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Case-insensitive lookup through the email hash index. The normalized email is compared as
+     * well so a hash collision can never return someone else's contact.
+     */
+    private Optional<Contact> findExisting(String email) {
+        if (!emailFilter.mightContain(email)) {
+            return Optional.empty();
+        }
+        String normalized = EmailNormalizer.normalize(email);
+        Optional<Contact> contact = contactRepository.findByEmailHash(EmailNormalizer.hash(email))
+                .filter(candidate -> normalized.equals(EmailNormalizer.normalize(candidate.getEmail())));
+        emailFilter.recordLookup(contact.isPresent());
+        return contact;
+    }
+    
     @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ID)
     @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactByIdFallback")
     @Retry(name = CONTACT_SERVICE)
     public Optional<Contact> findContactById(Long id) {
@@ -69,7 +212,17 @@ public class ContactService {
         }
         
         try {
-            return contactRepository.findById(id);
+            if (contactCache == null) {
+                return contactRepository.findById(id);
+            }
+            Contact cached = contactCache.getById(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            long stamp = contactCache.stamp(id);
+            Optional<Contact> contact = contactRepository.findById(id);
+            contact.ifPresent(found -> contactCache.put(id, stamp, found));
+            return contact;
         } catch (DataAccessException e) {
             logger.error("Database error while finding contact by ID {}: {}", id, e.getMessage(), e);
             throw e;
@@ -77,6 +230,7 @@ public class ContactService {
     }
     
     @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ALL_SHARDS)
     @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findAllContactsFallback")
     @Retry(name = CONTACT_SERVICE)
     public List<Contact> findAllContacts() {
@@ -92,7 +246,117 @@ public class ContactService {
         }
     }
     
+    /**
+     * Every contact, like {@link #findAllContacts()}, reading only the selected columns.
+     */
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ALL_SHARDS)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findAllContactsFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public List<Contact> findAllContacts(ContactFieldSet fields) {
+        logger.debug("Finding all contacts: fields={}", fields);
+        
+        try {
+            List<Contact> contacts = contactRepository.findProjected(null, false, Pageable.unpaged(), fields);
+            logger.info("Found {} contacts", contacts.size());
+            return contacts;
+        } catch (DataAccessException e) {
+            logger.error("Database error while finding all contacts: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Contact counts from in-memory counters that every committed upsert keeps current; only the
+     * first call before the counters are loaded reads the database.
+     */
+    public ContactStats getContactStats() {
+        return statsCounter.snapshot();
+    }
+    
+    /**
+     * Filtered list in one of the index orders of {@link ContactListQuery}, reading only the
+     * selected columns plus the sort keys. Each variant reads the index in order and stops after
+     * the limit instead of sorting the table.
+     */
     @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ALL_SHARDS)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactsFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public List<Contact> findContacts(ContactListQuery query, ContactFieldSet fields) {
+        logger.debug("Finding contacts: lastName={}, hasPrimaryPhone={}, sort={}, limit={}, fields={}",
+                query.getLastNamePrefix(), query.isPrimaryPhoneRequired(), query.getSort(), query.getLimit(), fields);
+        
+        try {
+            return contactRepository.findProjected(query.getLastNamePrefix(), query.isPrimaryPhoneRequired(),
+                    query.toPageable(), query.withSortKeys(fields));
+        } catch (DataAccessException e) {
+            logger.error("Database error while finding contacts: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * {@link #findContactById(Long)} reading only the selected columns. A contact already in the
+     * cache is returned whole.
+     */
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ID)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactByIdFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public Optional<Contact> findContactById(Long id, ContactFieldSet fields) {
+        logger.debug("Finding contact by ID: {} with fields {}", id, fields);
+        
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Contact ID must be a positive number");
+        }
+        
+        try {
+            Contact cached = contactCache != null ? contactCache.getById(id) : null;
+            return cached != null ? Optional.of(cached) : contactRepository.findProjectedById(id, fields);
+        } catch (DataAccessException e) {
+            logger.error("Database error while finding contact by ID {}: {}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * {@link #findContactByEmail(String)} reading only the selected columns plus the email, which
+     * is needed to rule out a hash collision. A contact already in the cache is returned whole.
+     */
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.EMAIL)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactByEmailFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public Optional<Contact> findContactByEmail(String email, ContactFieldSet fields) {
+        logger.debug("Finding contact by email: {} with fields {}", email, fields);
+        
+        if (!StringUtils.hasText(email)) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        
+        try {
+            if (!emailFilter.mightContain(email)) {
+                return Optional.empty();
+            }
+            String normalized = EmailNormalizer.normalize(email);
+            long emailHash = EmailNormalizer.hash(email);
+            Contact cached = contactCache != null ? contactCache.getByEmailHash(emailHash) : null;
+            if (cached != null && normalized.equals(EmailNormalizer.normalize(cached.getEmail()))) {
+                return Optional.of(cached);
+            }
+            Optional<Contact> contact = contactRepository.findProjectedByEmailHash(emailHash, fields.with(ContactField.EMAIL))
+                    .filter(candidate -> normalized.equals(EmailNormalizer.normalize(candidate.getEmail())));
+            emailFilter.recordLookup(contact.isPresent());
+            return contact;
+        } catch (DataAccessException e) {
+            logger.error("Database error while finding contact by email {}: {}", email, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.EMAIL)
     @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactByEmailFallback")
     @Retry(name = CONTACT_SERVICE)
     public Optional<Contact> findContactByEmail(String email) {
@@ -103,31 +367,125 @@ public class ContactService {
         }
         
         try {
-            return contactRepository.findByEmail(email);
+            if (contactCache == null) {
+                return findExisting(email);
+            }
+            long emailHash = EmailNormalizer.hash(email);
+            Contact cached = contactCache.getByEmailHash(emailHash);
+            if (cached != null && EmailNormalizer.normalize(email).equals(EmailNormalizer.normalize(cached.getEmail()))) {
+                return Optional.of(cached);
+            }
+            long stamp = contactCache.stamp(emailHash);
+            Optional<Contact> contact = findExisting(email);
+            contact.ifPresent(found -> contactCache.put(emailHash, stamp, found));
+            return contact;
         } catch (DataAccessException e) {
             logger.error("Database error while finding contact by email {}: {}", email, e.getMessage(), e);
             throw e;
         }
     }
     
-    // Fallback methods for circuit breaker
+    /**
+     * Reverse lookup of a caller ID: the contacts whose phone or primary phone normalizes to the
+     * same number, through the {@code contact_phone} index. Contacts are placed by email, so every
+     * shard is asked. A number too short to normalize matches nothing.
+     */
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.ALL_SHARDS)
+    @CircuitBreaker(name = CONTACT_SERVICE, fallbackMethod = "findContactsByPhoneFallback")
+    @Retry(name = CONTACT_SERVICE)
+    public List<Contact> findContactsByPhone(String number) {
+        logger.debug("Finding contacts by phone: {}", number);
+        
+        String normalized = PhoneNormalizer.normalize(number);
+        if (normalized == null) {
+            return List.of();
+        }
+        
+        try {
+            return contactRepository.findByPhoneNumber(normalized);
+        } catch (DataAccessException e) {
+            logger.error("Database error while finding contacts by phone {}: {}", number, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Cheap existence check; emails the filter rules out are answered without a query.
+     */
+    @Transactional(readOnly = true)
+    @ShardRouting(ShardRouting.Strategy.EMAIL)
+    public boolean contactExists(String email) {
+        if (!StringUtils.hasText(email)) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        
+        return findExisting(email).isPresent();
+    }
+    
+    // Fallback methods for circuit breaker; a call that ran out of its request deadline is
+    // surfaced as such instead of as an outage or an empty result
     public Contact createContactFallback(ContactDto contactDto, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
         logger.error("Circuit breaker activated for createOrUpdateContact: {}", ex.getMessage());
         throw new RuntimeException("Contact service is temporarily unavailable. Please try again later.");
     }
     
+    public Optional<Contact> patchContactFallback(Long id, ContactPatch patch, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        if (ex instanceof IllegalArgumentException invalid) {
+            // A bad patch, not an outage
+            throw invalid;
+        }
+        logger.error("Circuit breaker activated for patchContact: {}", ex.getMessage());
+        throw new RuntimeException("Contact service is temporarily unavailable. Please try again later.");
+    }
+    
     public Optional<Contact> findContactByIdFallback(Long id, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
         logger.error("Circuit breaker activated for findContactById: {}", ex.getMessage());
         return Optional.empty();
     }
     
     public List<Contact> findAllContactsFallback(Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
         logger.error("Circuit breaker activated for findAllContacts: {}", ex.getMessage());
         return List.of(); // Return empty list as fallback
     }
     
+    public List<Contact> findAllContactsFallback(ContactFieldSet fields, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        logger.error("Circuit breaker activated for findAllContacts: {}", ex.getMessage());
+        return List.of();
+    }
+    
+    public List<Contact> findContactsFallback(ContactListQuery query, ContactFieldSet fields, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        logger.error("Circuit breaker activated for findContacts: {}", ex.getMessage());
+        return List.of();
+    }
+    
+    public Optional<Contact> findContactByIdFallback(Long id, ContactFieldSet fields, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        logger.error("Circuit breaker activated for findContactById: {}", ex.getMessage());
+        return Optional.empty();
+    }
+    
+    public Optional<Contact> findContactByEmailFallback(String email, ContactFieldSet fields, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        logger.error("Circuit breaker activated for findContactByEmail: {}", ex.getMessage());
+        return Optional.empty();
+    }
+    
     public Optional<Contact> findContactByEmailFallback(String email, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
         logger.error("Circuit breaker activated for findContactByEmail: {}", ex.getMessage());
         return Optional.empty();
     }
+    
+    public List<Contact> findContactsByPhoneFallback(String number, Exception ex) {
+        RequestDeadline.rethrowIfExceeded(ex);
+        logger.error("Circuit breaker activated for findContactsByPhone: {}", ex.getMessage());
+        return List.of();
+    }
 }
\ No newline at end of file
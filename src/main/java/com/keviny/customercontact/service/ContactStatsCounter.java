@@ -0,0 +1,149 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardContext;
+import com.keviny.customercontact.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running contact counts behind {@code GET /api/contacts/stats}, so dashboards never scan the
+ * table.
+ * <p>
+ * Each committed create or update adds its delta to a {@link LongAdder}; an update only moves the
+ * primary phone and email counts when the field went from empty to set or back. The counts are
+ * loaded from the database on the first reconciliation, which runs at startup, and reconciled
+ * every {@code contact.stats.reconcile-interval-ms} after that. Reconciling adds the difference
+ * between the database and the counters as read before the query, so upserts committed while it
+ * runs are kept; only those that committed before the query but whose listener had not run yet
+ * are counted twice until the next pass. Writes by other instances or outside the service also
+ * show up at the next pass.
+ */
+@Component
+public class ContactStatsCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactStatsCounter.class);
+
+    private final ContactRepository contactRepository;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder withPrimaryPhone = new LongAdder();
+    private final LongAdder withPrimaryEmail = new LongAdder();
+    private final Counter drift;
+    private volatile boolean loaded;
+
+    public ContactStatsCounter(ContactRepository contactRepository,
+                               ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.contactRepository = contactRepository;
+        this.shardRouter = shardRouter;
+        this.transactionManager = transactionManager;
+        registerGauge(meterRegistry, "all", total);
+        registerGauge(meterRegistry, "primary_phone", withPrimaryPhone);
+        registerGauge(meterRegistry, "primary_email", withPrimaryEmail);
+        this.drift = Counter.builder("contact.stats.reconciliation.drift")
+                .description("Sum of the corrections reconciliation applied to the contact counts")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContactChanged(ContactChangedEvent event) {
+        ContactDto contact = event.getContact();
+        ContactDto previous = event.getPrevious();
+        if (previous == null) {
+            total.increment();
+        }
+        withPrimaryPhone.add(delta(previous != null && previous.getPrimaryPhone() != null, contact.getPrimaryPhone() != null));
+        withPrimaryEmail.add(delta(previous != null && previous.getPrimaryEmail() != null, contact.getPrimaryEmail() != null));
+    }
+
+    public ContactStats snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        return new ContactStats(total.sum(), withPrimaryPhone.sum(), withPrimaryEmail.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${contact.stats.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            // Keep counting; the next pass tries again
+            logger.error("Could not reconcile contact counts: {}", e.getMessage(), e);
+        }
+    }
+
+    synchronized void reconcile() {
+        long start = System.nanoTime();
+        long totalBefore = total.sum();
+        long primaryPhoneBefore = withPrimaryPhone.sum();
+        long primaryEmailBefore = withPrimaryEmail.sum();
+        ContactStats stored = countStored();
+        long totalDrift = stored.getTotal() - totalBefore;
+        long primaryPhoneDrift = stored.getWithPrimaryPhone() - primaryPhoneBefore;
+        long primaryEmailDrift = stored.getWithPrimaryEmail() - primaryEmailBefore;
+        total.add(totalDrift);
+        withPrimaryPhone.add(primaryPhoneDrift);
+        withPrimaryEmail.add(primaryEmailDrift);
+        if (!loaded) {
+            loaded = true;
+            logger.info("Loaded contact counts: {} contacts, {} with primary phone, {} with primary email in {} ms",
+                    stored.getTotal(), stored.getWithPrimaryPhone(), stored.getWithPrimaryEmail(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return;
+        }
+        long corrected = Math.abs(totalDrift) + Math.abs(primaryPhoneDrift) + Math.abs(primaryEmailDrift);
+        drift.increment(corrected);
+        if (corrected > 0) {
+            logger.info("Reconciled contact counts: total {}, primary phone {}, primary email {}",
+                    signed(totalDrift), signed(primaryPhoneDrift), signed(primaryEmailDrift));
+        }
+    }
+
+    private ContactStats countStored() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        ContactStats[] perShard = new ContactStats[shardRouter.getShardCount()];
+        for (int shard = 0; shard < perShard.length; shard++) {
+            int index = shard;
+            ShardContext.run(shard, () -> perShard[index] = transaction.execute(status -> contactRepository.countStats()));
+        }
+        ContactStats stored = new ContactStats(0, 0, 0);
+        for (ContactStats counts : perShard) {
+            stored = stored.plus(counts);
+        }
+        return stored;
+    }
+
+    private static long delta(boolean before, boolean after) {
+        return before == after ? 0 : after ? 1 : -1;
+    }
+
+    private static String signed(long value) {
+        return value > 0 ? "+" + value : String.valueOf(value);
+    }
+
+    private static void registerGauge(MeterRegistry meterRegistry, String kind, LongAdder adder) {
+        Gauge.builder("contact.stats.contacts", adder, LongAdder::sum)
+                .description("Contacts counted by GET /api/contacts/stats")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
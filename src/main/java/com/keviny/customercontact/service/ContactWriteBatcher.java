@@ -0,0 +1,235 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.deadline.RequestDeadline;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.Contact;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Group commit for upserts ({@code contact.group-commit.enabled=true}). Request threads queue
+ * their write and wait on a future; a few writer threads drain the queue and upsert everything
+ * collected within {@code max-wait-micros} (at most {@code max-batch-size} writes) in one
+ * transaction through {@link ContactService#createOrUpdateContacts}, so a burst pays for one
+ * commit per group instead of one per request. If a group fails, its writes are retried one
+ * transaction each so that only the offending write fails. Request threads wait at most
+ * {@code max-response-wait-ms}, or less if their request deadline is nearer, so a stalled writer
+ * cannot pile up Tomcat workers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.group-commit", name = "enabled", havingValue = "true")
+public class ContactWriteBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactWriteBatcher.class);
+
+    private final ContactService contactService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long maxResponseWaitMillis;
+    private final BlockingQueue<PendingWrite> queue;
+    private final ExecutorService writers;
+    private final DistributionSummary groupSize;
+    private final Counter groupFailures;
+    private final Counter queueFull;
+    private final Counter timeouts;
+    private volatile boolean running = true;
+
+    public ContactWriteBatcher(ContactService contactService,
+                               MeterRegistry meterRegistry,
+                               @Value("${contact.group-commit.writer-threads:2}") int writerThreads,
+                               @Value("${contact.group-commit.max-batch-size:64}") int maxBatchSize,
+                               @Value("${contact.group-commit.max-wait-micros:500}") long maxWaitMicros,
+                               @Value("${contact.group-commit.queue-capacity:10000}") int queueCapacity,
+                               @Value("${contact.group-commit.max-response-wait-ms:5000}") long maxResponseWaitMillis) {
+        this.contactService = contactService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.maxResponseWaitMillis = maxResponseWaitMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.groupSize = DistributionSummary.builder("contact.group-commit.size")
+                .description("Upserts committed per transaction")
+                .register(meterRegistry);
+        this.groupFailures = Counter.builder("contact.group-commit.failures")
+                .description("Groups rolled back and retried write by write")
+                .register(meterRegistry);
+        this.queueFull = Counter.builder("contact.group-commit.queue.full")
+                .description("Writes executed directly because the queue was full")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("contact.group-commit.timeouts")
+                .description("Request threads that gave up waiting for their group to commit")
+                .register(meterRegistry);
+        meterRegistry.gauge("contact.group-commit.queue.size", queue, BlockingQueue::size);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("contact-writer-");
+        threadFactory.setDaemon(true);
+        this.writers = Executors.newFixedThreadPool(writerThreads, threadFactory);
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Queues the upsert and completes when its group commits.
+     */
+    public CompletableFuture<Contact> submit(ContactDto contactDto) {
+        return enqueue(contactDto).result;
+    }
+
+    /**
+     * Blocking variant of {@link #submit} for request threads; failures are rethrown as the
+     * exception the direct service call would have thrown.
+     *
+     * @throws GroupCommitTimeoutException if the group did not commit within the request's
+     *         deadline (504) or {@code max-response-wait-ms} (503)
+     */
+    public Contact write(ContactDto contactDto) {
+        PendingWrite write = enqueue(contactDto);
+        long remainingMillis = RequestDeadline.remainingMillis();
+        boolean deadlineBound = remainingMillis < maxResponseWaitMillis;
+        try {
+            return write.result.get(Math.max(0, Math.min(remainingMillis, maxResponseWaitMillis)), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            // Still queued: withdraw it so the caller's timeout means it did not happen
+            boolean withdrawn = queue.remove(write);
+            if (withdrawn) {
+                write.result.cancel(false);
+            }
+            throw new GroupCommitTimeoutException(
+                    deadlineBound ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE, withdrawn,
+                    withdrawn ? "The write was not committed in time and was withdrawn"
+                            : "The write did not commit in time and may still be applied");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", e);
+        }
+    }
+
+    private PendingWrite enqueue(ContactDto contactDto) {
+        PendingWrite write = new PendingWrite(contactDto);
+        if (!running || !queue.offer(write)) {
+            // Saturated: writing inline is better than rejecting, and it slows the caller down
+            queueFull.increment();
+            write.complete(contactService::createOrUpdateContact);
+        }
+        return write;
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxBatchSize) {
+                    // Take whatever is already queued, then wait out the rest of the window
+                    if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Group commit writer failed: {}", e.getMessage(), e);
+                group.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    void commit(List<PendingWrite> group) {
+        groupSize.record(group.size());
+        List<ContactDto> dtos = new ArrayList<>(group.size());
+        for (PendingWrite write : group) {
+            dtos.add(write.contactDto);
+        }
+        List<Contact> saved;
+        try {
+            saved = contactService.createOrUpdateContacts(dtos);
+        } catch (RuntimeException e) {
+            groupFailures.increment();
+            logger.debug("Group of {} upserts failed, retrying one by one: {}", group.size(), e.getMessage());
+            for (PendingWrite write : group) {
+                write.complete(contactService::createOrUpdateContact);
+            }
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).result.complete(saved.get(i));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+            writers.shutdownNow();
+        }
+        // Anything still queued is written directly so no request is left hanging
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            write.complete(contactService::createOrUpdateContact);
+        }
+    }
+
+    static final class PendingWrite {
+        private final ContactDto contactDto;
+        private final CompletableFuture<Contact> result = new CompletableFuture<>();
+
+        PendingWrite(ContactDto contactDto) {
+            this.contactDto = contactDto;
+        }
+
+        CompletableFuture<Contact> result() {
+            return result;
+        }
+
+        void complete(Function<ContactDto, Contact> upsert) {
+            try {
+                result.complete(upsert.apply(contactDto));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.keviny.customercontact.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.wal.AppendOnlyLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingest ({@code contact.write-behind.enabled=true}). Accepted contacts are
+ * appended to a local {@link AppendOnlyLog} and acknowledged as soon as the record is fsynced;
+ * a background applier upserts the log into the database in batches and checkpoints the last
+ * applied sequence.
+ * <p>
+ * After a crash the applier resumes from the checkpoint, so records applied after the last
+ * checkpoint are applied again. Each record is applied as an {@link AcceptedWrite} stamped with
+ * its append time: a contact already holding data accepted later, whether from a newer record or
+ * a synchronous POST or PATCH, is left alone, so a replay never reverts a newer write. The stamps
+ * come from each instance's clock, so writes accepted within clock skew of each other on
+ * different instances may still be applied out of order. Rows the database
+ * rejects (constraint violations) are marked failed and skipped; any other database error
+ * stops the applier at that record and retries it after a pause, so an outage only grows the lag.
+ * Failure details are kept in memory for status queries and do not survive a restart.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contact.write-behind", name = "enabled", havingValue = "true")
+public class ContactWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactWriteBehindService.class);
+    private static final String CHECKPOINT_FILE = "applied.checkpoint";
+    private static final int RETAINED_FAILURES = 10_000;
+
+    private final ContactService contactService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final AppendOnlyLog log;
+    private final Map<Long, String> failures = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > RETAINED_FAILURES;
+        }
+    };
+    private final Object signal = new Object();
+    private final Thread applier;
+    private final Timer appendTimer;
+    private final Counter applied;
+    private final Counter failed;
+    private volatile long appliedSequence;
+    private volatile long oldestPendingTimestamp;
+    private volatile boolean running = true;
+
+    public ContactWriteBehindService(ContactService contactService,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${contact.write-behind.directory:./data/wal}") Path directory,
+                                     @Value("${contact.write-behind.segment-size:64MB}") DataSize segmentSize,
+                                     @Value("${contact.write-behind.batch-size:500}") int batchSize,
+                                     @Value("${contact.write-behind.retry-delay-ms:1000}") long retryDelayMillis) throws IOException {
+        this.contactService = contactService;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.log = new AppendOnlyLog(directory, segmentSize.toBytes());
+        this.appliedSequence = readCheckpoint();
+        logger.info("Write-behind log at {}: applied up to {}, {} records to replay",
+                directory.toAbsolutePath(), appliedSequence, log.getLastSequence() - appliedSequence);
+
+        this.appendTimer = Timer.builder("contact.write-behind.append")
+                .description("Time to append and fsync one accepted write")
+                .register(meterRegistry);
+        this.applied = Counter.builder("contact.write-behind.records").tag("outcome", "applied").register(meterRegistry);
+        this.failed = Counter.builder("contact.write-behind.records").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("contact.write-behind.lag.records", this, service -> service.getLagRecords())
+                .description("Accepted writes not yet applied to the database")
+                .register(meterRegistry);
+        Gauge.builder("contact.write-behind.lag", this, service -> service.getLagSeconds())
+                .baseUnit("seconds")
+                .description("Age of the oldest accepted write not yet applied")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("contact-write-behind-");
+        threadFactory.setDaemon(true);
+        this.applier = threadFactory.newThread(this::applyLoop);
+        applier.start();
+    }
+
+    /**
+     * Durably records the write. Returns once it survives a crash, not once it is applied.
+     *
+     * @return tracking id for {@link #getStatus}
+     */
+    public long submit(ContactDto contactDto) {
+        long start = System.nanoTime();
+        try {
+            long sequence = log.append(objectMapper.writeValueAsBytes(contactDto));
+            synchronized (signal) {
+                signal.notify();
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to write-behind log", e);
+        } finally {
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Optional<WriteBehindStatus> getStatus(long trackingId) {
+        if (trackingId < 1 || trackingId > log.getLastSequence()) {
+            return Optional.empty();
+        }
+        if (trackingId > appliedSequence) {
+            return Optional.of(new WriteBehindStatus(trackingId, WriteBehindStatus.State.PENDING, null));
+        }
+        String error;
+        synchronized (failures) {
+            error = failures.get(trackingId);
+        }
+        return Optional.of(error != null
+                ? new WriteBehindStatus(trackingId, WriteBehindStatus.State.FAILED, error)
+                : new WriteBehindStatus(trackingId, WriteBehindStatus.State.APPLIED, null));
+    }
+
+    public long getLagRecords() {
+        return log.getLastSequence() - appliedSequence;
+    }
+
+    public double getLagSeconds() {
+        long oldest = oldestPendingTimestamp;
+        return oldest == 0 ? 0.0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private void applyLoop() {
+        AppendOnlyLog.Cursor cursor = log.openCursor(appliedSequence);
+        while (running) {
+            try {
+                List<AppendOnlyLog.Record> records = cursor.next(batchSize);
+                if (records.isEmpty()) {
+                    oldestPendingTimestamp = 0;
+                    synchronized (signal) {
+                        if (log.getLastSequence() == cursor.getLastSequence()) {
+                            signal.wait(100);
+                        }
+                    }
+                    continue;
+                }
+                oldestPendingTimestamp = records.get(0).timestamp();
+                long reached = apply(records);
+                writeCheckpoint(reached);
+                appliedSequence = reached;
+                log.deleteUpTo(reached);
+                if (reached < records.get(records.size() - 1).sequence()) {
+                    // Database unavailable: resume from the first unapplied record after a pause
+                    cursor.close();
+                    Thread.sleep(retryDelayMillis);
+                    cursor = log.openCursor(reached);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Write-behind applier failed, retrying: {}", e.getMessage(), e);
+                try {
+                    cursor.close();
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (IOException ignored) {
+                    // Reopened below
+                }
+                cursor = log.openCursor(appliedSequence);
+            }
+        }
+    }
+
+    /**
+     * Applies a batch, falling back to one transaction per record if the batch fails. Records are
+     * retried through the batch method as well: the single-contact method's circuit breaker
+     * fallback would turn a rejected record into an outage, stalling the applier on it and
+     * counting it against the breaker.
+     *
+     * @return the sequence up to which records are settled (applied or failed for good)
+     */
+    long apply(List<AppendOnlyLog.Record> records) {
+        List<ContactDto> dtos = new ArrayList<>(records.size());
+        for (AppendOnlyLog.Record record : records) {
+            ContactDto dto = decode(record);
+            dtos.add(dto != null ? new AcceptedWrite(dto, record.timestamp()) : null);
+        }
+        try {
+            if (!dtos.contains(null)) {
+                contactService.createOrUpdateContacts(dtos);
+                applied.increment(records.size());
+                return records.get(records.size() - 1).sequence();
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Write-behind batch of {} failed, applying one by one: {}", records.size(), e.getMessage());
+        }
+
+        long reached = records.get(0).sequence() - 1;
+        for (int i = 0; i < records.size(); i++) {
+            long sequence = records.get(i).sequence();
+            if (dtos.get(i) == null) {
+                recordFailure(sequence, "Unreadable log record");
+            } else {
+                try {
+                    contactService.createOrUpdateContacts(List.of(dtos.get(i)));
+                    applied.increment();
+                } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+                    recordFailure(sequence, e.getMessage());
+                } catch (RuntimeException e) {
+                    logger.warn("Write-behind apply of record {} failed, will retry: {}", sequence, e.getMessage());
+                    return reached;
+                }
+            }
+            reached = sequence;
+        }
+        return reached;
+    }
+
+    private ContactDto decode(AppendOnlyLog.Record record) {
+        try {
+            return objectMapper.readValue(record.payload(), ContactDto.class);
+        } catch (IOException e) {
+            logger.error("Skipping unreadable write-behind record {}: {}", record.sequence(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void recordFailure(long sequence, String message) {
+        failed.increment();
+        synchronized (failures) {
+            failures.put(sequence, message);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(sequence), StandardCharsets.US_ASCII);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        applier.interrupt();
+        applier.join(5_000);
+        log.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.keviny.customercontact.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A grouped upsert that did not commit within the caller's wait: the request deadline ran out
+ * (504) or the configured cap did (503). When the write was still queued it was withdrawn and
+ * will not happen; otherwise its group may still commit after the response.
+ */
+public class GroupCommitTimeoutException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final boolean withdrawn;
+
+    public GroupCommitTimeoutException(HttpStatus status, boolean withdrawn, String message) {
+        super(message);
+        this.status = status;
+        this.withdrawn = withdrawn;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /** @return whether the write was taken off the queue and is known not to have happened */
+    public boolean isWithdrawn() {
+        return withdrawn;
+    }
+}
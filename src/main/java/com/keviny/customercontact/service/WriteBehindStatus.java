@@ -0,0 +1,25 @@
+package com.keviny.customercontact.service;
+
+/**
+ * Progress of one write accepted through {@code POST /api/contacts?async=true}.
+ */
+public class WriteBehindStatus {
+
+    public enum State { PENDING, APPLIED, FAILED }
+
+    private final long trackingId;
+    private final State state;
+    private final String error;
+
+    public WriteBehindStatus(long trackingId, State state, String error) {
+        this.trackingId = trackingId;
+        this.state = state;
+        this.error = error;
+    }
+
+    public long getTrackingId() { return trackingId; }
+
+    public State getState() { return state; }
+
+    public String getError() { return error; }
+}
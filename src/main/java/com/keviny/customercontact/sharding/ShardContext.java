@@ -0,0 +1,53 @@
+package com.keviny.customercontact.sharding;
+
+/**
+ * Thread-bound shard selection read by {@link ShardRoutingDataSource} when a connection is
+ * opened. Unbound threads use shard 0, which is also the only shard when sharding is off.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    public static <T> T call(int shard, Work<T> work) throws Throwable {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.execute();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        try {
+            call(shard, () -> {
+                work.run();
+                return null;
+            });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute() throws Throwable;
+    }
+}
@@ -0,0 +1,52 @@
+package com.keviny.customercontact.sharding;
+
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps contacts to shards. Placement is by hash of the normalized email, so an upsert always
+ * lands on the shard that already holds that email. Each shard allocates ids from its own range
+ * ({@code shard << ID_SHARD_SHIFT}), so an id alone identifies its shard without a lookup.
+ * Shard 0 keeps ids starting at 1, which keeps an existing single database valid as shard 0.
+ */
+@Component
+public class ShardRouter {
+
+    /** 2^44 ids per shard; ids stay below 2^53 (exact in JSON clients) for up to 512 shards. */
+    public static final int ID_SHARD_SHIFT = 44;
+
+    private final int shardCount;
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties) {
+        this(properties.isEnabled() ? properties.getShards().size() : 1);
+    }
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1 || shardCount > 512) {
+            throw new IllegalArgumentException("Shard count must be between 1 and 512 but was " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForEmail(String email) {
+        return (int) Long.remainderUnsigned(EmailNormalizer.hash(email), shardCount);
+    }
+
+    /**
+     * @return the shard encoded in the id, or -1 if no configured shard could have issued it
+     */
+    public int shardForId(long id) {
+        long shard = id >>> ID_SHARD_SHIFT;
+        return shard < shardCount ? (int) shard : -1;
+    }
+
+    public static long firstIdOf(int shard) {
+        return ((long) shard << ID_SHARD_SHIFT) + 1;
+    }
+}
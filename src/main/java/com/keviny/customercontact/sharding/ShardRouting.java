@@ -0,0 +1,31 @@
+package com.keviny.customercontact.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how a service method is routed when sharding is enabled. The routing advice runs
+ * before the transaction starts, so the transaction is opened on the selected shard. Without
+ * sharding the annotation has no effect.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardRouting {
+
+    Strategy value();
+
+    enum Strategy {
+        /** First argument is an email, or a {@code ContactDto} carrying one. */
+        EMAIL,
+        /** First argument is a contact id, which encodes its shard. */
+        ID,
+        /** First argument is a list of {@code ContactDto}s; each shard gets its slice and results keep input order. */
+        BATCH,
+        /** Runs on every shard in parallel and merges the results. */
+        ALL_SHARDS
+    }
+}
@@ -0,0 +1,47 @@
+package com.keviny.customercontact.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+    private final List<DataSource> targets;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        this.targets = new ArrayList<>(shards);
+        decorateShards(UnaryOperator.identity());
+        setLenientFallback(false);
+    }
+
+    /**
+     * Routes to decorated versions of the shard pools, e.g. with statement instrumentation. Each
+     * call wraps the result of the previous ones; {@link #getShards()} keeps returning the
+     * undecorated pools. Must be called before {@link #afterPropertiesSet()}.
+     */
+    public void decorateShards(UnaryOperator<DataSource> decorator) {
+        Map<Object, Object> routes = new HashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            targets.set(i, decorator.apply(targets.get(i)));
+            routes.put(i, targets.get(i));
+        }
+        setTargetDataSources(routes);
+        setDefaultTargetDataSource(routes.get(0));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public List<DataSource> getShards() {
+        return new ArrayList<>(shards);
+    }
+}
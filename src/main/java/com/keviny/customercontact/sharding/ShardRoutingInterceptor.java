@@ -0,0 +1,175 @@
+package com.keviny.customercontact.sharding;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactListQuery;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Binds a {@link ShardContext} around {@link ShardRouting}-annotated service calls. Ordered
+ * ahead of the transaction interceptor so the transaction and its connection come from the
+ * selected shard. Calls already running on a bound shard pass straight through.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private final ShardRouter router;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRoutingInterceptor(ShardRouter router, ExecutorService scatterExecutor) {
+        this.router = router;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ShardRouting routing = AnnotationUtils.findAnnotation(invocation.getMethod(), ShardRouting.class);
+        if (routing == null || ShardContext.isBound()) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArguments();
+        Object key = args.length > 0 ? args[0] : null;
+        switch (routing.value()) {
+            case EMAIL: {
+                String email = key instanceof ContactDto ? ((ContactDto) key).getEmail() : (String) key;
+                if (email == null) {
+                    return invocation.proceed();
+                }
+                return ShardContext.call(router.shardForEmail(email), invocation::proceed);
+            }
+            case ID: {
+                if (key == null) {
+                    return invocation.proceed();
+                }
+                int shard = router.shardForId((Long) key);
+                if (shard < 0) {
+                    if (Optional.class.equals(invocation.getMethod().getReturnType())) {
+                        return Optional.empty();
+                    }
+                    throw new IllegalArgumentException("Contact ID " + key + " does not belong to any shard");
+                }
+                return ShardContext.call(shard, invocation::proceed);
+            }
+            case BATCH:
+                return batch(invocation);
+            case ALL_SHARDS:
+                return scatterGather(invocation);
+            default:
+                throw new IllegalStateException("Unhandled routing strategy " + routing.value());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object batch(MethodInvocation invocation) throws Throwable {
+        List<ContactDto> dtos = (List<ContactDto>) invocation.getArguments()[0];
+        List<List<Integer>> positions = new ArrayList<>();
+        List<List<ContactDto>> slices = new ArrayList<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            positions.add(new ArrayList<>());
+            slices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < dtos.size(); i++) {
+            int shard = router.shardForEmail(dtos.get(i).getEmail() != null ? dtos.get(i).getEmail() : "");
+            positions.get(shard).add(i);
+            slices.get(shard).add(dtos.get(i));
+        }
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            if (slices.get(shard).isEmpty()) {
+                futures.add(CompletableFuture.completedFuture(List.of()));
+                continue;
+            }
+            Object[] args = invocation.getArguments().clone();
+            args[0] = slices.get(shard);
+            futures.add(submit(shard, ((ProxyMethodInvocation) invocation).invocableClone(args)));
+        }
+
+        Object[] merged = new Object[dtos.size()];
+        for (int shard = 0; shard < futures.size(); shard++) {
+            List<Object> results = (List<Object>) join(futures.get(shard));
+            List<Integer> slots = positions.get(shard);
+            for (int i = 0; i < results.size(); i++) {
+                merged[slots.get(i)] = results.get(i);
+            }
+        }
+        return new ArrayList<>(List.of(merged));
+    }
+
+    private Object scatterGather(MethodInvocation invocation) throws Throwable {
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            futures.add(submit(shard, ((ProxyMethodInvocation) invocation).invocableClone()));
+        }
+        List<Object> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Object> future : futures) {
+            results.add(join(future));
+        }
+        Object key = invocation.getArguments().length > 0 ? invocation.getArguments()[0] : null;
+        return merge(invocation.getMethod().getReturnType(), results, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(Class<?> returnType, List<Object> results, Object key) {
+        if (List.class.isAssignableFrom(returnType)) {
+            List<Object> merged = new ArrayList<>();
+            for (Object result : results) {
+                merged.addAll((List<Object>) result);
+            }
+            if (key instanceof ContactListQuery) {
+                // Each shard returned its first page in query order; keep the global first page
+                ContactListQuery query = (ContactListQuery) key;
+                merged.sort((a, b) -> query.comparator().compare((Contact) a, (Contact) b));
+                return new ArrayList<>(merged.subList(0, Math.min(query.getLimit(), merged.size())));
+            }
+            if (!merged.isEmpty() && merged.get(0) instanceof Contact) {
+                merged.sort(Comparator.comparing(contact -> ((Contact) contact).getId()));
+            }
+            return merged;
+        }
+        if (Optional.class.equals(returnType)) {
+            return results.stream()
+                    .map(result -> (Optional<Object>) result)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        throw new IllegalStateException("Cannot merge shard results of type " + returnType.getName());
+    }
+
+    private CompletableFuture<Object> submit(int shard, MethodInvocation invocation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ShardContext.call(shard, invocation::proceed);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new CompletionException(e);
+            }
+        }, scatterExecutor);
+    }
+
+    private static Object join(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.keviny.customercontact.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.boot.spi.MetadataImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Applies Hibernate's schema management ({@code ddl-auto}) to every shard, not just the default
+ * one Hibernate sees at startup, and moves each shard's identity sequence into its own id range.
+ * The mapping metadata is captured through a Hibernate {@link Integrator} while the session
+ * factory is built.
+ */
+public class ShardSchemaInitializer implements IntegratorProvider, Integrator, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardRoutingDataSource dataSource;
+    private volatile MetadataImplementor metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Integrator> getIntegrators() {
+        return List.of(this);
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = (MetadataImplementor) metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate metadata was not captured; is the integrator provider registered?");
+        }
+        List<DataSource> shards = dataSource.getShards();
+        for (int shard = 1; shard < shards.size(); shard++) {
+            Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+            ShardContext.run(shard, () -> SchemaManagementToolCoordinator.process(
+                    metadata, sessionFactory.getServiceRegistry(), settings, action -> { }));
+            reserveIdRange(shard, shards.get(shard));
+        }
+        logger.info("Contact schema initialised on {} shards", shards.size());
+    }
+
+    private void reserveIdRange(int shard, DataSource shardDataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(shardDataSource);
+        Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM contact", Long.class);
+        long firstId = ShardRouter.firstIdOf(shard);
+        if (maxId != null && maxId >= firstId) {
+            return;
+        }
+        String product = jdbc.execute((Connection connection) -> databaseProduct(connection));
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            jdbc.execute("ALTER TABLE contact AUTO_INCREMENT = " + firstId);
+        } else {
+            jdbc.execute("ALTER TABLE contact ALTER COLUMN id RESTART WITH " + firstId);
+        }
+        logger.info("Shard {} allocates contact ids from {}", shard, firstId);
+    }
+
+    private static String databaseProduct(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,95 @@
+package com.keviny.customercontact.sharding;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Opt-in hash sharding ({@code contact.sharding.enabled=true}). Replaces the auto-configured
+     * DataSource with a router over one Hikari pool per configured shard; every pool inherits the
+     * {@code spring.datasource.hikari} tuning.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "contact.sharding", name = "enabled", havingValue = "true")
+    static class ShardedDataSourceConfig {
+
+        @Bean
+        @Primary
+        public ShardRoutingDataSource dataSource(ShardingProperties properties, Environment environment,
+                                                 MeterRegistry meterRegistry) {
+            if (properties.getShards().isEmpty()) {
+                throw new IllegalStateException("contact.sharding.enabled is set but no contact.sharding.shards are configured");
+            }
+            List<DataSource> shards = new ArrayList<>();
+            for (int i = 0; i < properties.getShards().size(); i++) {
+                ShardingProperties.Shard shard = properties.getShards().get(i);
+                HikariConfig config = new HikariConfig();
+                Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(config));
+                config.setJdbcUrl(shard.getUrl());
+                config.setUsername(shard.getUsername());
+                config.setPassword(shard.getPassword());
+                config.setPoolName(config.getPoolName() != null ? config.getPoolName() + "-shard" + i : "shard" + i);
+                if (shard.getMaximumPoolSize() != null) {
+                    config.setMaximumPoolSize(shard.getMaximumPoolSize());
+                    config.setMinimumIdle(Math.min(config.getMinimumIdle(), shard.getMaximumPoolSize()));
+                }
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                shards.add(new HikariDataSource(config));
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static Advisor shardRoutingAdvisor(ShardingProperties properties) {
+            int threads = properties.getScatterThreads() > 0
+                    ? properties.getScatterThreads() : properties.getShards().size() * 2;
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("contact-shard-");
+            threadFactory.setDaemon(true);
+            ExecutorService scatterExecutor = Executors.newFixedThreadPool(threads, threadFactory);
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                    AnnotationMatchingPointcut.forMethodAnnotation(ShardRouting.class),
+                    new ShardRoutingInterceptor(new ShardRouter(properties.getShards().size()), scatterExecutor));
+            // Must wrap the transaction interceptor so the transaction opens on the routed shard
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return advisor;
+        }
+
+        @Bean
+        public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource dataSource) {
+            return new ShardSchemaInitializer(dataSource);
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer shardMetadataCapture(ShardSchemaInitializer shardSchemaInitializer) {
+            return properties -> properties.put("hibernate.integrator_provider", shardSchemaInitializer);
+        }
+    }
+}
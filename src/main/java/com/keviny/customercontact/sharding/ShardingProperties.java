@@ -0,0 +1,46 @@
+package com.keviny.customercontact.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "contact.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /** Threads used to fan ALL_SHARDS calls out; defaults to two per shard. */
+    private int scatterThreads;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getScatterThreads() { return scatterThreads; }
+    public void setScatterThreads(int scatterThreads) { this.scatterThreads = scatterThreads; }
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(Integer maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
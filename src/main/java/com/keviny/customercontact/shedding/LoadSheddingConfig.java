@@ -0,0 +1,51 @@
+package com.keviny.customercontact.shedding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Early load shedding ({@code contact.load-shedding.enabled=true}). Tomcat's connector is given
+ * a {@link QueueTimedExecutor}, sized from {@code server.tomcat.threads}, and a
+ * {@link LoadSheddingFilter} judges every request by the executor's queue depth and its own wait.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contact.load-shedding", name = "enabled", havingValue = "true")
+public class LoadSheddingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public QueueTimedExecutor queueTimedExecutor(@Value("${server.tomcat.threads.min-spare:10}") int minSpareThreads,
+                                                 @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        return new QueueTimedExecutor(minSpareThreads, maxThreads);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> queueTimedExecutorCustomizer(QueueTimedExecutor executor) {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public LoadSheddingFilter loadSheddingFilter(
+            QueueTimedExecutor executor, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${contact.load-shedding.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${contact.load-shedding.critical.max-queue-depth:1000}") int criticalDepth,
+            @Value("${contact.load-shedding.critical.max-queue-wait-ms:5000}") long criticalWaitMillis,
+            @Value("${contact.load-shedding.default.max-queue-depth:100}") int defaultDepth,
+            @Value("${contact.load-shedding.default.max-queue-wait-ms:1000}") long defaultWaitMillis,
+            @Value("${contact.load-shedding.bulk.max-queue-depth:0}") int bulkDepth,
+            @Value("${contact.load-shedding.bulk.max-queue-wait-ms:100}") long bulkWaitMillis) {
+        return new LoadSheddingFilter(executor::queueDepth, Map.of(
+                RequestPriority.CRITICAL, new LoadSheddingFilter.Limit(criticalDepth, Duration.ofMillis(criticalWaitMillis)),
+                RequestPriority.DEFAULT, new LoadSheddingFilter.Limit(defaultDepth, Duration.ofMillis(defaultWaitMillis)),
+                RequestPriority.BULK, new LoadSheddingFilter.Limit(bulkDepth, Duration.ofMillis(bulkWaitMillis))),
+                retryAfterSeconds, objectMapper, meterRegistry);
+    }
+}
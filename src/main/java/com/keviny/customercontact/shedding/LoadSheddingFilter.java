@@ -0,0 +1,122 @@
+package com.keviny.customercontact.shedding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Turns requests away with 503 and {@code Retry-After} before any work is done when the worker
+ * pool is backed up: when more tasks are queued than the request's {@link RequestPriority}
+ * tolerates, or when the request itself already waited longer than that for a worker. Bulk
+ * limits are the tightest, so under pressure cheap keyed reads keep flowing while list, stream
+ * and batch calls are shed.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+    private final IntSupplier queueDepth;
+    private final Map<RequestPriority, Limit> limits;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shedByDepth = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shedByWait = new EnumMap<>(RequestPriority.class);
+    private final Timer queueWait;
+
+    public LoadSheddingFilter(IntSupplier queueDepth, Map<RequestPriority, Limit> limits, long retryAfterSeconds,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.queueDepth = queueDepth;
+        this.limits = new EnumMap<>(limits);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper;
+        for (RequestPriority priority : RequestPriority.values()) {
+            if (!this.limits.containsKey(priority)) {
+                throw new IllegalArgumentException("No load shedding limit for " + priority);
+            }
+            String tag = priority.name().toLowerCase();
+            admitted.put(priority, requests(meterRegistry, tag, "admitted"));
+            shedByDepth.put(priority, requests(meterRegistry, tag, "shed-queue-depth"));
+            shedByWait.put(priority, requests(meterRegistry, tag, "shed-queue-wait"));
+        }
+        this.queueWait = Timer.builder("contact.load-shedding.queue-wait")
+                .description("Time requests waited for a Tomcat worker")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        meterRegistry.gauge("contact.load-shedding.queue-depth", queueDepth, IntSupplier::getAsInt);
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of every other filter, so a shed request costs as little as possible
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = QueueTimedExecutor.takeQueueWaitNanos();
+        queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        RequestPriority priority = RequestPriority.of(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        Limit limit = limits.get(priority);
+        int depth = queueDepth.getAsInt();
+        if (depth > limit.maxQueueDepth()) {
+            shedByDepth.get(priority).increment();
+            shed(request, response, priority, "Worker queue holds " + depth + " requests");
+            return;
+        }
+        if (waitNanos > limit.maxQueueWait().toNanos()) {
+            shedByWait.get(priority).increment();
+            shed(request, response, priority, "Request waited " + TimeUnit.NANOSECONDS.toMillis(waitNanos)
+                    + " ms for a worker");
+            return;
+        }
+        admitted.get(priority).increment();
+        filterChain.doFilter(request, response);
+    }
+
+    private void shed(HttpServletRequest request, HttpServletResponse response, RequestPriority priority,
+                      String reason) throws IOException {
+        logger.debug("Shedding {} {} ({}): {}", request.getMethod(), request.getRequestURI(), priority, reason);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Service overloaded", Map.of("load", reason + "; retry later")));
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String priority, String result) {
+        return Counter.builder("contact.load-shedding.requests")
+                .description("Requests admitted or shed by the load shedding filter")
+                .tag("priority", priority)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** Queue depth and queue wait above which a priority class is shed. */
+    public record Limit(int maxQueueDepth, Duration maxQueueWait) {
+    }
+}
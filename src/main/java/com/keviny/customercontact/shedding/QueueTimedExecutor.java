@@ -0,0 +1,58 @@
+package com.keviny.customercontact.shedding;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tomcat's worker pool with the same grow-before-queueing behaviour as the connector's own, but
+ * every task is stamped when it is queued. The worker that runs it publishes how long it sat in
+ * the queue, so the request it serves can be shed before any work is done for a client that may
+ * have given up.
+ */
+public class QueueTimedExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<Long> queueWaitNanos = new ThreadLocal<>();
+
+    public QueueTimedExecutor(int minSpareThreads, int maxThreads) {
+        this(minSpareThreads, maxThreads, new TaskQueue());
+    }
+
+    private QueueTimedExecutor(int minSpareThreads, int maxThreads, TaskQueue queue) {
+        super(minSpareThreads, maxThreads, 60, TimeUnit.SECONDS, queue,
+                new TaskThreadFactory("http-exec-", true, Thread.NORM_PRIORITY));
+        queue.setParent(this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        super.execute(() -> {
+            queueWaitNanos.set(System.nanoTime() - queuedAt);
+            try {
+                command.run();
+            } finally {
+                queueWaitNanos.remove();
+            }
+        });
+    }
+
+    /**
+     * How long the task running on this thread waited for a worker; 0 for the second and later
+     * requests served by the same task, or off the pool.
+     */
+    public static long takeQueueWaitNanos() {
+        Long nanos = queueWaitNanos.get();
+        if (nanos == null) {
+            return 0;
+        }
+        queueWaitNanos.set(0L);
+        return nanos;
+    }
+
+    public int queueDepth() {
+        return getQueue().size();
+    }
+}
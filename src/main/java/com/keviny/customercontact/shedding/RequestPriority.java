@@ -0,0 +1,36 @@
+package com.keviny.customercontact.shedding;
+
+import java.util.regex.Pattern;
+
+/**
+ * Shedding class of a request, from its method and path alone so it costs nothing to decide.
+ * Under load {@link #BULK} requests are turned away first and {@link #CRITICAL} ones last.
+ */
+public enum RequestPriority {
+
+    /** Single-row reads by key, existence checks, counters and actuator probes. */
+    CRITICAL,
+    /** Upserts and status polls. */
+    DEFAULT,
+    /** Whole-table reads, streams, imports, snapshots and dedupe runs. */
+    BULK;
+
+    private static final Pattern KEYED_READ = Pattern.compile("/api/contacts(/\\d+|/by-email|/by-phone|/stats)");
+    private static final Pattern BULK_READ = Pattern.compile(
+            "/api/contacts(/stream|/snapshots/[^/]+/download|/dedupe/[^/]+/clusters)?");
+    private static final Pattern BULK_WRITE = Pattern.compile("/api/contacts/(import-jobs|snapshots|dedupe)");
+
+    public static RequestPriority of(String method, String path) {
+        if (path.startsWith("/actuator/")) {
+            return CRITICAL;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (read && KEYED_READ.matcher(path).matches() || "HEAD".equals(method) && "/api/contacts".equals(path)) {
+            return CRITICAL;
+        }
+        if (read ? BULK_READ.matcher(path).matches() : "POST".equals(method) && BULK_WRITE.matcher(path).matches()) {
+            return BULK;
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,388 @@
+package com.keviny.customercontact.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable, append-only record log split into segment files named after their first sequence
+ * number. {@link #append} returns once the record is on disk; concurrent appenders share
+ * fsyncs (group commit): whoever finds no sync in progress forces the file for everything
+ * written so far while the others wait for it.
+ * <p>
+ * Each record is {@code [length][crc32c][sequence][timestamp][payload]}. On open, the newest
+ * segment is scanned and truncated at the first torn or corrupt record, so a crash mid-write
+ * loses at most the records whose {@code append} had not yet returned.
+ */
+public class AppendOnlyLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppendOnlyLog.class);
+
+    static final int HEADER_BYTES = 24;
+    private static final String SUFFIX = ".log";
+
+    public record Record(long sequence, long timestamp, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object syncMonitor = new Object();
+    private final List<Long> segments = new ArrayList<>();
+    private FileChannel channel;
+    private long channelSize;
+    private volatile long writtenSequence;
+    private long syncedSequence;
+    private boolean syncing;
+
+    public AppendOnlyLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            segments.add(1L);
+        }
+        long first = segments.get(segments.size() - 1);
+        channel = FileChannel.open(segmentPath(first),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long[] recovered = recover(channel, first);
+        channel.truncate(recovered[0]);
+        channel.position(recovered[0]);
+        channelSize = recovered[0];
+        writtenSequence = recovered[1];
+        syncedSequence = recovered[1];
+    }
+
+    /**
+     * Appends a record and waits until it is durable.
+     *
+     * @return the record's sequence number, starting at 1 and without gaps
+     */
+    public long append(byte[] payload) throws IOException {
+        long sequence = write(payload);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Appends a record without waiting for it to reach disk. Callers that need to order records
+     * under their own lock write under it and {@link #awaitDurable} after releasing it, so the
+     * fsync is still shared with other writers.
+     *
+     * @return the record's sequence number
+     */
+    public long write(byte[] payload) throws IOException {
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = writtenSequence + 1;
+            if (channelSize > 0 && channelSize + HEADER_BYTES + payload.length > segmentBytes) {
+                roll(sequence);
+            }
+            ByteBuffer buffer = encode(sequence, System.currentTimeMillis(), payload);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channelSize += HEADER_BYTES + payload.length;
+            writtenSequence = sequence;
+        } finally {
+            writeLock.unlock();
+        }
+        return sequence;
+    }
+
+    public long getLastSequence() {
+        return writtenSequence;
+    }
+
+    /**
+     * Opens a reader positioned after {@code afterSequence}. Readers only see durable records.
+     */
+    public Cursor openCursor(long afterSequence) {
+        return new Cursor(afterSequence);
+    }
+
+    /**
+     * Deletes segments that only hold records up to {@code sequence}. The active segment is kept.
+     */
+    public void deleteUpTo(long sequence) throws IOException {
+        List<Long> deletable = new ArrayList<>();
+        writeLock.lock();
+        try {
+            while (segments.size() > 1 && segments.get(1) - 1 <= sequence) {
+                deletable.add(segments.remove(0));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        for (Long first : deletable) {
+            Files.deleteIfExists(segmentPath(first));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void roll(long nextSequence) throws IOException {
+        // Records in the old segment become durable here, so waiting appenders can count them synced
+        channel.force(false);
+        channel.close();
+        segments.add(nextSequence);
+        channel = FileChannel.open(segmentPath(nextSequence),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channelSize = 0;
+    }
+
+    /**
+     * Waits until every record up to {@code sequence} is on disk, forcing the file if no other
+     * thread is already doing so.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        while (true) {
+            synchronized (syncMonitor) {
+                while (syncing && syncedSequence < sequence) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted waiting for log sync");
+                    }
+                }
+                if (syncedSequence >= sequence) {
+                    return;
+                }
+                syncing = true;
+            }
+            long target;
+            FileChannel toSync;
+            writeLock.lock();
+            try {
+                target = writtenSequence;
+                toSync = channel;
+            } finally {
+                writeLock.unlock();
+            }
+            boolean synced = false;
+            try {
+                toSync.force(false);
+                synced = true;
+            } catch (ClosedChannelException e) {
+                // Rolled meanwhile; roll() forced it before closing
+                synced = true;
+            } finally {
+                synchronized (syncMonitor) {
+                    syncing = false;
+                    if (synced) {
+                        syncedSequence = Math.max(syncedSequence, target);
+                    }
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private long durableSequence() {
+        synchronized (syncMonitor) {
+            return syncedSequence;
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    }
+
+    private List<Long> segmentsSnapshot() {
+        writeLock.lock();
+        try {
+            return new ArrayList<>(segments);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    static ByteBuffer encode(long sequence, long timestamp, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(0);
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 8, HEADER_BYTES - 8 + payload.length);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads one record at {@code position}, or returns {@code null} at end of file or at a torn or
+     * corrupt record.
+     */
+    private static Record read(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (readFully(channel, header, position) < HEADER_BYTES) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int storedCrc = header.getInt();
+        long sequence = header.getLong();
+        long timestamp = header.getLong();
+        if (length < 0 || position + HEADER_BYTES + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (readFully(channel, payload, position + HEADER_BYTES) < length) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 8, HEADER_BYTES - 8);
+        crc.update(payload.array(), 0, length);
+        if ((int) crc.getValue() != storedCrc) {
+            return null;
+        }
+        return new Record(sequence, timestamp, payload.array());
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * @return {end of the last valid record, its sequence}
+     */
+    private static long[] recover(FileChannel channel, long firstSequence) throws IOException {
+        long position = 0;
+        long sequence = firstSequence - 1;
+        Record record;
+        while ((record = read(channel, position)) != null && record.sequence() == sequence + 1) {
+            position += HEADER_BYTES + record.payload().length;
+            sequence = record.sequence();
+        }
+        if (position < channel.size()) {
+            logger.warn("Truncating {} bytes of incomplete log records after sequence {}",
+                    channel.size() - position, sequence);
+        }
+        return new long[] {position, sequence};
+    }
+
+    /**
+     * Sequential reader over durable records, following segment rolls. Not thread-safe.
+     */
+    public class Cursor implements Closeable {
+
+        private long lastSequence;
+        private long segment = -1;
+        private FileChannel reader;
+        private long position;
+
+        private Cursor(long afterSequence) {
+            this.lastSequence = afterSequence;
+        }
+
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        /**
+         * @return up to {@code max} records following the last one returned; empty when caught up
+         */
+        public List<Record> next(int max) throws IOException {
+            List<Record> records = new ArrayList<>();
+            long durable = durableSequence();
+            while (records.size() < max && lastSequence < durable) {
+                if (reader == null && !open(lastSequence + 1)) {
+                    break;
+                }
+                Record record = read(reader, position);
+                if (record == null) {
+                    // End of this segment: move on only if the next record starts the following one
+                    Long following = null;
+                    for (Long first : segmentsSnapshot()) {
+                        if (first > segment) {
+                            following = first;
+                            break;
+                        }
+                    }
+                    if (following == null || following != lastSequence + 1) {
+                        break;
+                    }
+                    closeReader();
+                    open(following);
+                    continue;
+                }
+                position += HEADER_BYTES + record.payload().length;
+                if (record.sequence() > lastSequence) {
+                    records.add(record);
+                    lastSequence = record.sequence();
+                }
+            }
+            return records;
+        }
+
+        private boolean open(long sequence) throws IOException {
+            long candidate = -1;
+            for (Long first : segmentsSnapshot()) {
+                if (first <= sequence) {
+                    candidate = first;
+                }
+            }
+            if (candidate == -1) {
+                return false;
+            }
+            segment = candidate;
+            reader = FileChannel.open(segmentPath(candidate), StandardOpenOption.READ);
+            position = 0;
+            return true;
+        }
+
+        private void closeReader() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeReader();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.keviny.customercontact.bulk;
+
+import com.keviny.customercontact.dto.ContactDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCsvReaderTest {
+
+    @Test
+    void next_ShouldMapColumnsByHeaderName() throws IOException {
+        // Given
+        String csv = "email,lastName,firstName,phone\r\n"
+                + "john.doe@email.com,Doe,John,123-456-7890\r\n";
+
+        // When
+        ContactCsvReader reader = new ContactCsvReader(new StringReader(csv));
+        ContactDto dto = reader.next();
+
+        // Then
+        assertNotNull(dto);
+        assertEquals("John", dto.getFirstName());
+        assertEquals("Doe", dto.getLastName());
+        assertEquals("john.doe@email.com", dto.getEmail());
+        assertEquals("123-456-7890", dto.getPhone());
+        assertNull(dto.getAddress());
+        assertEquals(2, reader.getRowLineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldHandleQuotedFieldsWithCommasQuotesAndNewlines() throws IOException {
+        // Given
+        String csv = "firstName,lastName,email,address\n"
+                + "Jane,Smith,jane@email.com,\"456 Oak Ave, \"\"Unit\"\" 2\nSpringfield\"\n"
+                + "Bob,Brown,bob@email.com,\n";
+
+        // When
+        ContactCsvReader reader = new ContactCsvReader(new StringReader(csv));
+        ContactDto first = reader.next();
+        ContactDto second = reader.next();
+
+        // Then
+        assertEquals("456 Oak Ave, \"Unit\" 2\nSpringfield", first.getAddress());
+        assertEquals("bob@email.com", second.getEmail());
+        assertNull(second.getAddress());
+        assertEquals(4, reader.getRowLineNumber());
+    }
+
+    @Test
+    void next_ShouldSkipBlankLines() throws IOException {
+        // Given
+        String csv = "firstName,lastName,email\n\nJohn,Doe,john@email.com\n\n";
+
+        // When
+        ContactCsvReader reader = new ContactCsvReader(new StringReader(csv));
+
+        // Then
+        assertEquals("john@email.com", reader.next().getEmail());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldRejectRowWithWrongColumnCount_AndContinue() throws IOException {
+        // Given
+        String csv = "firstName,lastName,email\nJohn,Doe\nJane,Smith,jane@email.com\n";
+        ContactCsvReader reader = new ContactCsvReader(new StringReader(csv));
+
+        // When & Then
+        ContactCsvReader.CsvFormatException thrown = assertThrows(ContactCsvReader.CsvFormatException.class, reader::next);
+        assertEquals(2, thrown.getLineNumber());
+        assertEquals("jane@email.com", reader.next().getEmail());
+    }
+
+    @Test
+    void readHeader_ShouldRejectUnknownColumn() {
+        ContactCsvReader reader = new ContactCsvReader(new StringReader("firstName,nickname,email\n"));
+
+        assertThrows(ContactCsvReader.CsvFormatException.class, reader::readHeader);
+    }
+
+    @Test
+    void readHeader_ShouldRequireEmailColumn() {
+        ContactCsvReader reader = new ContactCsvReader(new StringReader("firstName,lastName\n"));
+
+        assertThrows(ContactCsvReader.CsvFormatException.class, reader::readHeader);
+    }
+}
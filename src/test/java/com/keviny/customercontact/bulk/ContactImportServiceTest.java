@@ -0,0 +1,112 @@
+package com.keviny.customercontact.bulk;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ContactImportServiceTest {
+
+    private ContactService contactService;
+    private ContactImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        contactService = mock(ContactService.class);
+        importService = new ContactImportService(contactService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new SimpleMeterRegistry(), 2, 2, 1, 10, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldImportValidRowsInChunks_AndReportInvalidOnes() throws Exception {
+        // Given
+        String csv = "firstName,lastName,email\n"
+                + "John,Doe,john@email.com\n"
+                + "Jane,Smith,not-an-email\n"
+                + "Bob,Brown,bob@email.com\n"
+                + "Amy,Adams,amy@email.com\n";
+        when(contactService.createOrUpdateContacts(anyList())).thenAnswer(inv -> List.of());
+
+        // When
+        ImportJob job = importService.submit(file(csv));
+        awaitFinished(job);
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(3, job.getErrors().get(0).getLine());
+        assertTrue(job.getErrors().get(0).getMessage().startsWith("email:"));
+        verify(contactService, times(2)).createOrUpdateContacts(anyList());
+    }
+
+    @Test
+    void submit_ShouldRetryFailedChunkRowByRow() throws Exception {
+        // Given
+        String csv = "firstName,lastName,email\n"
+                + "John,Doe,john@email.com\n"
+                + "Jane,Smith,jane@email.com\n";
+        when(contactService.createOrUpdateContacts(argThat(dtos -> dtos != null && dtos.size() > 1)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(contactService.createOrUpdateContacts(argThat(dtos -> dtos != null && dtos.size() == 1
+                && "john@email.com".equals(dtos.get(0).getEmail()))))
+                .thenReturn(List.of(new Contact()));
+        when(contactService.createOrUpdateContacts(argThat(dtos -> dtos != null && dtos.size() == 1
+                && "jane@email.com".equals(dtos.get(0).getEmail()))))
+                .thenThrow(new DataIntegrityViolationException("duplicate email"));
+
+        // When
+        ImportJob job = importService.submit(file(csv));
+        awaitFinished(job);
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(3, job.getErrors().get(0).getLine());
+        // Rows are retried through the batch path, never the circuit-broken single-row upsert
+        verify(contactService, times(3)).createOrUpdateContacts(anyList());
+        verify(contactService, never()).createOrUpdateContact(any(ContactDto.class));
+    }
+
+    @Test
+    void submit_ShouldRejectInvalidHeader() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.submit(file("first,last,mail\nJohn,Doe,john@email.com\n")));
+        assertTrue(importService.findJob("missing").isEmpty());
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "contacts.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "import job did not finish in time");
+    }
+}
@@ -0,0 +1,119 @@
+package com.keviny.customercontact.cache;
+
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import com.keviny.customercontact.model.Contact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.net.DatagramSocket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCacheTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Test
+    void getByEmailHash_ShouldReturnCopyOfCachedContact() {
+        // Given
+        ContactCache cache = new ContactCache(100, 300, noBus(), new SimpleMeterRegistry());
+        Contact contact = contact(1L, "john@example.com");
+        long emailHash = contact.getEmailHash();
+
+        // When
+        cache.put(emailHash, cache.stamp(emailHash), contact);
+        Contact cached = cache.getByEmailHash(emailHash);
+        cached.setFirstName("Changed");
+
+        // Then
+        assertEquals("John", cache.getById(1L).getFirstName());
+        assertEquals(1L, cached.getId());
+    }
+
+    @Test
+    void put_ShouldDiscardLoad_WhenKeyWasInvalidatedSinceStamp() {
+        // Given
+        ContactCache cache = new ContactCache(100, 300, noBus(), new SimpleMeterRegistry());
+        Contact contact = contact(1L, "john@example.com");
+        long stamp = cache.stamp(1L);
+
+        // When a commit lands between the database read and the put
+        cache.invalidate(1L, contact.getEmailHash());
+        cache.put(1L, stamp, contact);
+
+        // Then
+        assertNull(cache.getById(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_ShouldStayWithinMaxSize() {
+        // Given
+        ContactCache cache = new ContactCache(10, 300, noBus(), new SimpleMeterRegistry());
+
+        // When
+        for (long id = 1; id <= 50; id++) {
+            cache.put(id, cache.stamp(id), contact(id, "user" + id + "@example.com"));
+        }
+
+        // Then
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    void onContactChanged_ShouldEvictContactOnPeer() throws Exception {
+        // Given two instances sharing a multicast group on loopback
+        int port;
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        SimpleMeterRegistry peerRegistry = new SimpleMeterRegistry();
+        MulticastInvalidationBus localBus = new MulticastInvalidationBus("239.255.42.99", port, "lo", 0, new SimpleMeterRegistry());
+        MulticastInvalidationBus peerBus = new MulticastInvalidationBus("239.255.42.99", port, "lo", 0, peerRegistry);
+        try {
+            ContactCache local = new ContactCache(100, 300, provider(localBus), new SimpleMeterRegistry());
+            ContactCache peer = new ContactCache(100, 300, provider(peerBus), peerRegistry);
+            Contact contact = contact(7L, "jane@example.com");
+            local.put(7L, local.stamp(7L), contact);
+            peer.put(7L, peer.stamp(7L), contact);
+
+            // When
+            local.onContactChanged(new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, ContactMapper.toDto(contact)));
+
+            // Then
+            assertNull(local.getById(7L));
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            // The delay is recorded once the peer's listeners have run
+            while (peerRegistry.get("contact.cache.invalidation.delay").timer().count() == 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNull(peer.getById(7L));
+            assertEquals(1, peerRegistry.get("contact.cache.invalidation.delay").timer().count());
+            assertEquals(1.0, peerRegistry.get("contact.cache.invalidations").tag("source", "peer").counter().count());
+        } finally {
+            localBus.close();
+            peerBus.close();
+        }
+    }
+
+    private static Contact contact(long id, String email) {
+        Contact contact = new Contact("John", "Doe", email, "555-0100", "1 Main St");
+        contact.setId(id);
+        contact.setEmailHash(EmailNormalizer.hash(email));
+        return contact;
+    }
+
+    private static ObjectProvider<ContactInvalidationBus> noBus() {
+        return new StaticListableBeanFactory().getBeanProvider(ContactInvalidationBus.class);
+    }
+
+    private static ObjectProvider<ContactInvalidationBus> provider(ContactInvalidationBus bus) {
+        return new StaticListableBeanFactory(Map.of("bus", bus)).getBeanProvider(ContactInvalidationBus.class);
+    }
+}
@@ -1,7 +1,10 @@
 package com.keviny.customercontact.controller;
 
 import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactField;
+import com.keviny.customercontact.dto.ContactFieldSet;
 import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactListQuery;
 import com.keviny.customercontact.service.ContactService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -11,9 +14,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -62,4 +71,136 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.firstName").value("Jane"))
                 .andExpect(jsonPath("$.lastName").value("Smith"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void headContactByEmail_ShouldReflectExistence() throws Exception {
+        // Given
+        when(contactService.contactExists("john.doe@email.com")).thenReturn(true);
+        when(contactService.contactExists("nobody@email.com")).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(head("/api/contacts").param("email", "john.doe@email.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(head("/api/contacts").param("email", "nobody@email.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getContactByEmail_ShouldReturnContact_OrNotFound() throws Exception {
+        // Given
+        Contact contact = new Contact("John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
+        contact.setId(1L);
+        when(contactService.findContactByEmail("John.Doe@Email.com")).thenReturn(Optional.of(contact));
+        when(contactService.findContactByEmail("nobody@email.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/contacts/by-email").param("email", "John.Doe@Email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("john.doe@email.com"));
+        mockMvc.perform(get("/api/contacts/by-email").param("email", "nobody@email.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getContactsByPhone_ShouldReturnMatches_OrRejectUnusableNumber() throws Exception {
+        // Given
+        Contact contact = new Contact("John", "Doe", "john.doe@email.com", "212-555-0100", "123 Main St");
+        contact.setId(1L);
+        when(contactService.findContactsByPhone("+1 (212) 555-0100")).thenReturn(List.of(contact));
+
+        // When & Then
+        mockMvc.perform(get("/api/contacts/by-phone").param("number", "+1 (212) 555-0100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].phone").value("212-555-0100"));
+        mockMvc.perform(get("/api/contacts/by-phone").param("number", "12"))
+                .andExpect(status().isBadRequest());
+        verify(contactService, never()).findContactsByPhone("12");
+    }
+
+    @Test
+    void patchContact_ShouldPassOnlyPresentFields_AndRejectRemovingName() throws Exception {
+        // Given
+        Contact contact = new Contact("John", "Doe", "john.doe@email.com", null, "9 New St");
+        contact.setId(1L);
+        when(contactService.patchContact(eq(1L), argThat(patch -> patch.has(ContactField.ADDRESS)
+                && patch.has(ContactField.PHONE) && patch.getPhone() == null
+                && !patch.has(ContactField.FIRST_NAME)))).thenReturn(Optional.of(contact));
+
+        // When & Then
+        mockMvc.perform(patch("/api/contacts/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"address\":\"9 New St\",\"phone\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("9 New St"));
+        mockMvc.perform(patch("/api/contacts/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":null}"))
+                .andExpect(status().isBadRequest());
+        verify(contactService, never()).patchContact(eq(1L), argThat(patch -> patch.has(ContactField.FIRST_NAME)));
+    }
+
+    @Test
+    void getAllContacts_ShouldPassFiltersAndOrderToService() throws Exception {
+        // Given
+        Contact contact = new Contact("Jane", "Smith", "jane.smith@email.com", "987-654-3210", "456 Oak Ave");
+        contact.setId(2L);
+        when(contactService.findContacts(argThat(query -> "Sm".equals(query.getLastNamePrefix())
+                && query.isPrimaryPhoneRequired()
+                && query.getSort() == ContactListQuery.SortField.NAME
+                && query.getLimit() == 20), eq(ContactFieldSet.ALL))).thenReturn(List.of(contact));
+
+        // When & Then
+        mockMvc.perform(get("/api/contacts").param("lastName", "Sm").param("hasPrimaryPhone", "true").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Smith"));
+    }
+
+    @Test
+    void getAllContacts_ShouldRejectOrderWithoutIndexSupport() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/contacts").param("lastName", "Sm").param("sort", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts").param("sort", "email"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+        verify(contactService, never()).findContacts(any(), any());
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnEveryContact_WhenOnlyFieldsIsGiven() throws Exception {
+        // Given: more contacts than the default list limit
+        List<Contact> contacts = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            Contact contact = new Contact(null, null, "user" + id + "@email.com", null, null);
+            contact.setId(id);
+            contacts.add(contact);
+        }
+        when(contactService.findAllContacts(ContactFieldSet.parse("id,email"))).thenReturn(contacts);
+
+        // When & Then
+        mockMvc.perform(get("/api/contacts").param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(150))
+                .andExpect(jsonPath("$[149].email").value("user150@email.com"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+        verify(contactService, never()).findContacts(any(), any());
+    }
+
+    @Test
+    void getContactById_ShouldReturnOnlyRequestedFields() throws Exception {
+        // Given
+        Contact contact = new Contact(null, null, "john.doe@email.com", null, null);
+        contact.setId(1L);
+        when(contactService.findContactById(1L, ContactFieldSet.parse("id,email"))).thenReturn(Optional.of(contact));
+
+        // When & Then
+        mockMvc.perform(get("/api/contacts/1").param("fields", "email,id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"email\":\"john.doe@email.com\"}", true));
+        mockMvc.perform(get("/api/contacts/1").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package com.keviny.customercontact.controller;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "contact.jdbc-instrumentation.slow-threshold-ms=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContactPatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // With a 0 ms threshold every statement reaches the slow-query log, literals stripped
+    private final ListAppender<ILoggingEvent> statements = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        statements.start();
+        ((Logger) LoggerFactory.getLogger("contact.jdbc.slow-query")).addAppender(statements);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) LoggerFactory.getLogger("contact.jdbc.slow-query")).detachAppender(statements);
+    }
+
+    @Test
+    void patch_ShouldUpdateOnlyChangedColumns_AndSkipWritesThatChangeNothing() throws Exception {
+        // Given
+        long id = create("{\"firstName\":\"Pat\",\"lastName\":\"Ching\",\"email\":\"pat.ching@email.com\","
+                + "\"phone\":\"555-010-0001\",\"address\":\"1 Old St\"}");
+        double suppressedBefore = meterRegistry.counter("contact.writes.suppressed").count();
+        statements.list.clear();
+
+        // When
+        mockMvc.perform(patch("/api/contacts/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"2 New St\",\"primaryEmail\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("2 New St"))
+                .andExpect(jsonPath("$.firstName").value("Pat"))
+                .andExpect(jsonPath("$.phone").value("555-010-0001"));
+        List<String> patchWrites = writes();
+        statements.list.clear();
+        mockMvc.perform(patch("/api/contacts/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"2 New St\",\"email\":\"Pat.Ching@email.com\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/contacts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Pat\",\"lastName\":\"Ching\",\"email\":\"pat.ching@email.com\","
+                                + "\"phone\":\"555-010-0001\",\"address\":\"2 New St\"}"))
+                .andExpect(status().isCreated());
+        List<String> noOpWrites = writes();
+
+        // Then
+        // Only the changed column, plus the written-at stamp every write sets
+        assertEquals(List.of("update contact set address=?,written_at=? where id=?"), patchWrites);
+        assertEquals(List.of(), noOpWrites);
+        assertEquals(suppressedBefore + 2, meterRegistry.counter("contact.writes.suppressed").count());
+    }
+
+    @Test
+    void patch_ShouldRejectChangingEmail_AndAnswerNotFoundForUnknownId() throws Exception {
+        long id = create("{\"firstName\":\"Em\",\"lastName\":\"Keeper\",\"email\":\"em.keeper@email.com\"}");
+
+        mockMvc.perform(patch("/api/contacts/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"someone.else@email.com\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/contacts/999999").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"Nowhere\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private long create(String json) throws Exception {
+        String body = mockMvc.perform(post("/api/contacts").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode contact = objectMapper.readTree(body);
+        return contact.get("id").asLong();
+    }
+
+    private List<String> writes() {
+        return statements.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .map(message -> message.substring(message.indexOf("sql=") + 4))
+                .filter(sql -> !sql.startsWith("select"))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+package com.keviny.customercontact.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.keviny.customercontact.bulk.SnapshotJob;
+import com.keviny.customercontact.dto.ContactDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ContactSnapshotControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void snapshot_ShouldExportContacts_AndServeFullAndRangedDownloads() throws Exception {
+        // Given
+        ContactDto contact = new ContactDto(null, "Snap", "Shot", "snap.shot@example.com", "123-456-7890", "1 Export Way");
+        restTemplate.postForEntity(url("/api/contacts"), contact, ContactDto.class);
+
+        // When
+        ResponseEntity<JsonNode> started = restTemplate.postForEntity(url("/api/contacts/snapshots"), null, JsonNode.class);
+        assertEquals(HttpStatus.ACCEPTED, started.getStatusCode());
+        String id = started.getBody().get("id").asText();
+        awaitCompleted(id);
+
+        ResponseEntity<byte[]> full = restTemplate.getForEntity(url("/api/contacts/snapshots/" + id + "/download"), byte[].class);
+
+        HttpHeaders rangeHeaders = new HttpHeaders();
+        rangeHeaders.set(HttpHeaders.RANGE, "bytes=0-9");
+        ResponseEntity<byte[]> partial = restTemplate.exchange(url("/api/contacts/snapshots/latest/download"),
+                HttpMethod.GET, new HttpEntity<>(rangeHeaders), byte[].class);
+
+        // Then
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        assertEquals("bytes", full.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        String ndjson = gunzip(full.getBody());
+        assertTrue(ndjson.contains("\"email\":\"snap.shot@example.com\""));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, partial.getStatusCode());
+        assertEquals(10, partial.getBody().length);
+        assertArrayEquals(Arrays.copyOf(full.getBody(), 10), partial.getBody());
+        assertEquals("bytes 0-9/" + full.getBody().length, partial.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void download_ShouldReturnNotFound_ForUnknownSnapshot() {
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(url("/api/contacts/snapshots/unknown/download"), byte[].class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void parseRange_ShouldHandleOpenSuffixAndInvalidRanges() {
+        assertArrayEquals(new long[] {0, 99}, ContactSnapshotController.parseRange(null, 100));
+        assertArrayEquals(new long[] {10, 99}, ContactSnapshotController.parseRange("bytes=10-", 100));
+        assertArrayEquals(new long[] {90, 99}, ContactSnapshotController.parseRange("bytes=-10", 100));
+        assertArrayEquals(new long[] {10, 99}, ContactSnapshotController.parseRange("bytes=10-500", 100));
+        assertArrayEquals(new long[] {0, 99}, ContactSnapshotController.parseRange("bytes=0-1,5-6", 100));
+        assertNull(ContactSnapshotController.parseRange("bytes=100-", 100));
+        assertNull(ContactSnapshotController.parseRange("bytes=20-10", 100));
+    }
+
+    private void awaitCompleted(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JsonNode job = restTemplate.getForObject(url("/api/contacts/snapshots/" + id), JsonNode.class);
+            String status = job.get("status").asText();
+            if (SnapshotJob.Status.COMPLETED.name().equals(status)) {
+                return;
+            }
+            assertNotEquals(SnapshotJob.Status.FAILED.name(), status);
+            Thread.sleep(50);
+        }
+        fail("snapshot did not complete in time");
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
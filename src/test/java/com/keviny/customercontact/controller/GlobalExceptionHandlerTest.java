@@ -1,6 +1,8 @@
 package com.keviny.customercontact.controller;
 
+import com.keviny.customercontact.deadline.RequestDeadlineExceededException;
 import com.keviny.customercontact.dto.ErrorResponse;
+import com.keviny.customercontact.service.GroupCommitTimeoutException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataAccessException;
@@ -17,6 +19,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Path;
+import java.sql.SQLTimeoutException;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -215,6 +218,22 @@ class GlobalExceptionHandlerTest {
         assertEquals("Data integrity violation - duplicate or invalid data", response.getBody().getDetails().get("database"));
     }
 
+    @Test
+    void handleRequestDeadlineExceededException_ShouldReturnGatewayTimeout() {
+        // Given
+        RequestDeadlineExceededException exception = new RequestDeadlineExceededException(
+                new SQLTimeoutException("Request deadline passed before a connection was acquired"));
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleRequestDeadlineExceededException(exception);
+
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Deadline exceeded", response.getBody().getMessage());
+        assertTrue(response.getBody().getDetails().containsKey("deadline"));
+    }
+
     @Test
     void handleDataAccessException_ShouldReturnServiceUnavailable() {
         // Given
@@ -231,6 +250,22 @@ class GlobalExceptionHandlerTest {
         assertEquals("Database access error - please try again later", response.getBody().getDetails().get("database"));
     }
 
+    @Test
+    void handleGroupCommitTimeoutException_ShouldReturnExceptionStatus() {
+        // Given
+        GroupCommitTimeoutException exception = new GroupCommitTimeoutException(HttpStatus.GATEWAY_TIMEOUT, false,
+                "The write did not commit in time and may still be applied");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleGroupCommitTimeoutException(exception);
+
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Write timed out", response.getBody().getMessage());
+        assertEquals("The write did not commit in time and may still be applied", response.getBody().getDetails().get("write"));
+    }
+
     @Test
     void handleIllegalArgumentException_ShouldReturnBadRequest() {
         // Given
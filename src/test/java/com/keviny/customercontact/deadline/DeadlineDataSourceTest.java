@@ -0,0 +1,88 @@
+package com.keviny.customercontact.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineDataSourceTest {
+
+    private HikariDataSource pool;
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(30_000);
+        dataSource = new DeadlineDataSource(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        pool.close();
+    }
+
+    @Test
+    void getConnection_ShouldSetTimeLeftAsQueryTimeout() throws SQLException {
+        // Given
+        RequestDeadline.bind(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2_500));
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+
+            // Then
+            assertEquals(3, statement.getQueryTimeout());
+        }
+    }
+
+    @Test
+    void getConnection_ShouldLeaveStatementsAlone_WithoutDeadline() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            assertEquals(0, statement.getQueryTimeout());
+        }
+    }
+
+    @Test
+    void getConnection_ShouldWaitForPoolOnlyUntilDeadline() throws SQLException {
+        // Given the only pooled connection is taken
+        try (Connection held = pool.getConnection()) {
+            RequestDeadline.bind(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300));
+            long start = System.nanoTime();
+
+            // When
+            assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+            // Then the 30 s connection-timeout did not apply
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void getConnection_ShouldFail_WhenDeadlineHasPassed() {
+        // Given
+        RequestDeadline.bind(System.nanoTime() - 1);
+
+        // When & Then
+        assertThrows(SQLTimeoutException.class, () -> dataSource.getConnection());
+    }
+
+    @Test
+    void queryTimeoutSeconds_ShouldRoundUpToAtLeastOneSecond() {
+        assertEquals(1, DeadlineDataSource.queryTimeoutSeconds(1));
+        assertEquals(1, DeadlineDataSource.queryTimeoutSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, DeadlineDataSource.queryTimeoutSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+    }
+}
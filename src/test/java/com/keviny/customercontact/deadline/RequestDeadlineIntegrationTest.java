@@ -0,0 +1,125 @@
+package com.keviny.customercontact.deadline;
+
+import com.keviny.customercontact.jdbc.InstrumentedDataSource;
+import com.keviny.customercontact.service.ContactService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + RequestDeadlineIntegrationTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + RequestDeadlineIntegrationTest.POOL_SIZE
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestDeadlineIntegrationTest {
+
+    static final int POOL_SIZE = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RetryRegistry retryRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void request_ShouldBeAnsweredWithoutWork_WhenDeadlineHasPassed() throws Exception {
+        mockMvc.perform(get("/api/contacts/stats").header("X-Request-Deadline", Instant.now().minusSeconds(1).toString()))
+                .andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/api/contacts/stats").header("X-Request-Timeout", "2s"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/contacts/stats").header("X-Request-Timeout", "soon"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void request_ShouldBeAnswered504_AndSpareTheBreaker_WhenDeadlinePassesDuringTheCall() throws Exception {
+        // Given: every pooled connection is taken, so each call waits out its deadline in the pool
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ContactService.CONTACT_SERVICE);
+        long failedCallsBefore = circuitBreaker.getMetrics().getNumberOfFailedCalls();
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                held.add(dataSource.getConnection());
+            }
+
+            // When & Then: not a 404, empty list or 500 from the fallbacks
+            for (int i = 0; i < 6; i++) {
+                mockMvc.perform(get("/api/contacts/1").header("X-Request-Timeout", "50ms"))
+                        .andExpect(status().isGatewayTimeout())
+                        .andExpect(jsonPath("$.message").value("Deadline exceeded"));
+            }
+            mockMvc.perform(get("/api/contacts").header("X-Request-Timeout", "50ms"))
+                    .andExpect(status().isGatewayTimeout());
+            mockMvc.perform(post("/api/contacts").header("X-Request-Timeout", "50ms")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"firstName\":\"Dee\",\"lastName\":\"Line\",\"email\":\"dee.line@email.com\"}"))
+                    .andExpect(status().isGatewayTimeout());
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        // The clients ran out of time, the database did not fail
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(failedCallsBefore, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        mockMvc.perform(get("/api/contacts").header("X-Request-Timeout", "5s"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void retry_ShouldStop_WhenRemainingBudgetIsTooSmall() {
+        // Given
+        Predicate<Throwable> retryOn = retryRegistry.retry("contactService").getRetryConfig().getExceptionPredicate();
+        QueryTimeoutException failure = new QueryTimeoutException("Statement cancelled");
+
+        // When & Then
+        assertTrue(retryOn.test(failure));
+        RequestDeadline.bind(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200));
+        assertFalse(retryOn.test(failure));
+        RequestDeadline.bind(System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+        assertTrue(retryOn.test(failure));
+        assertFalse(retryOn.test(new IllegalArgumentException("Still ignored")));
+    }
+
+    @Test
+    void dataSource_ShouldWrapPoolWithDeadlineInsideInstrumentation() throws Exception {
+        assertInstanceOf(InstrumentedDataSource.class, dataSource);
+        assertInstanceOf(DeadlineDataSource.class, ((InstrumentedDataSource) dataSource).getTargetDataSource());
+    }
+}
@@ -0,0 +1,89 @@
+package com.keviny.customercontact.dedupe;
+
+import com.keviny.customercontact.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison phase of {@link ContactDeduplicator} over synthetic contacts, by number of fork/join
+ * workers. Time per run should fall close to 1/workers up to the number of cores:
+ * {@code mvn -Pbenchmark verify -Djmh.args="ContactDedupeBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ContactDedupeBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Sandra"};
+    private static final String[] SYLLABLES = {"al", "ber", "cor", "dan", "el", "fen", "gar", "hol", "ing", "jor",
+            "kel", "lan", "mor", "nel", "ost", "par", "quin", "ros", "son", "tam", "ul", "ver", "wick", "yat", "zor"};
+
+    @Param({"200000"})
+    private int contacts;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private ContactDeduplicator deduplicator;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        deduplicator = new ContactDeduplicator(0.85, 1000);
+        Contact previous = null;
+        for (int i = 0; i < contacts; i++) {
+            Contact contact;
+            if (previous != null && i % 20 == 0) {
+                // One in twenty re-registers the previous person under another mailbox
+                contact = new Contact(previous.getFirstName(), previous.getLastName(),
+                        previous.getFirstName().toLowerCase() + previous.getLastName().toLowerCase() + "@mail.example.com",
+                        previous.getPhone(), "Addr");
+            } else {
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                StringBuilder lastName = new StringBuilder();
+                for (int s = 0; s < 3; s++) {
+                    lastName.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                lastName.setCharAt(0, Character.toUpperCase(lastName.charAt(0)));
+                contact = new Contact(firstName, lastName.toString(),
+                        firstName.toLowerCase() + "." + lastName.toString().toLowerCase() + "@example.com",
+                        String.format("555-%07d", random.nextInt(10_000_000)), "Addr");
+            }
+            contact.setId((long) i + 1);
+            deduplicator.add(contact);
+            previous = contact;
+        }
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int compare() {
+        return deduplicator.run(pool).clusters().size();
+    }
+}
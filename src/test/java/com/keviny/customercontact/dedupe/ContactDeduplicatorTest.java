@@ -0,0 +1,83 @@
+package com.keviny.customercontact.dedupe;
+
+import com.keviny.customercontact.model.Contact;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactDeduplicatorTest {
+
+    @Test
+    void blockingKeys_ShouldNormalizeNamesPhonesAndEmails() {
+        assertEquals("R163", BlockingKeys.soundex("Robert"));
+        assertEquals("R163", BlockingKeys.soundex("Rupert"));
+        assertEquals("A261", BlockingKeys.soundex("Ashcraft"));
+        assertEquals("T522", BlockingKeys.soundex("Tymczak"));
+        assertEquals("S530j", BlockingKeys.name("Jane", "Smyth"));
+        assertEquals("5550100", BlockingKeys.phone("555-0100"));
+        assertEquals("2125550100", BlockingKeys.phone("+1 (212) 555-0100"));
+        assertNull(BlockingKeys.phone("123"));
+        assertEquals("janesmith", BlockingKeys.emailLocalPart("Jane.Smith+news@Example.com"));
+    }
+
+    @Test
+    void run_ShouldClusterSamePersonUnderDifferentEmails_AndKeepNamesakesApart() {
+        // Given
+        ContactDeduplicator deduplicator = new ContactDeduplicator(0.85, 1000);
+        deduplicator.add(contact(1, "Jane", "Smith", "jane.smith@example.com", "555-0100"));
+        deduplicator.add(contact(2, "Jane", "Smyth", "janesmith@work.example.com", "(555) 0100"));
+        deduplicator.add(contact(3, "Jane", "Smith", "jane.smith+shop@other.example.com", null));
+        // Same name, different mailbox and phone: a namesake
+        deduplicator.add(contact(4, "Jane", "Smith", "j.s.1987@example.com", "555-0199"));
+        // Shares the household phone only
+        deduplicator.add(contact(5, "Robert", "Jones", "robert.jones@example.com", "555-0100"));
+        deduplicator.add(contact(6, "Michael", "Johnson", "michael@example.com", "555-0300"));
+
+        // When
+        ContactDeduplicator.Result result = deduplicator.run(new ForkJoinPool(2));
+
+        // Then
+        assertEquals(6, result.contacts());
+        assertEquals(1, result.clusters().size());
+        assertEquals(List.of(1L, 2L, 3L), result.clusters().get(0).getContactIds());
+        assertEquals(1.0, result.clusters().get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void run_ShouldScoreEachPairOnce_AndSkipOversizedBlocks() {
+        // Given: twenty contacts sharing one switchboard number, two of them also sharing a name
+        ContactDeduplicator deduplicator = new ContactDeduplicator(0.85, 10);
+        for (int i = 0; i < 20; i++) {
+            deduplicator.add(contact(i + 1, "Person", (char) ('A' + i) + "son", "p" + i + "@corp.example.com",
+                    "555-0000"));
+        }
+        deduplicator.add(contact(21, "Ann", "Lee", "ann.lee@example.com", "555-0400"));
+        deduplicator.add(contact(22, "Ann", "Lee", "annlee@example.com", "555-0400"));
+
+        // When
+        ContactDeduplicator.Result result = deduplicator.run(ForkJoinPool.commonPool());
+
+        // Then: the phone block of 20 is skipped, and 21/22 share name, email and phone blocks
+        assertEquals(1, result.oversizedBlocks());
+        assertEquals(1, result.comparisons());
+        assertEquals(List.of(List.of(21L, 22L)),
+                result.clusters().stream().map(DuplicateCluster::getContactIds).collect(Collectors.toList()));
+    }
+
+    @Test
+    void jaroWinkler_ShouldMatchReferenceValues() {
+        assertEquals(0.961, ContactDeduplicator.jaroWinkler("martha", "marhta"), 1e-3);
+        assertEquals(0.840, ContactDeduplicator.jaroWinkler("dwayne", "duane"), 1e-3);
+        assertEquals(0.813, ContactDeduplicator.jaroWinkler("dixon", "dicksonx"), 1e-3);
+    }
+
+    private static Contact contact(long id, String firstName, String lastName, String email, String phone) {
+        Contact contact = new Contact(firstName, lastName, email, phone, "Addr");
+        contact.setId(id);
+        return contact;
+    }
+}
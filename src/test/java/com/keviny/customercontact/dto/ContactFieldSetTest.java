@@ -0,0 +1,35 @@
+package com.keviny.customercontact.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactFieldSetTest {
+
+    @Test
+    void parse_ShouldShareOneInstancePerCombination_InDeclarationOrder() {
+        // When
+        ContactFieldSet fields = ContactFieldSet.parse("email, id");
+
+        // Then
+        assertSame(fields, ContactFieldSet.parse("id,email"));
+        assertSame(fields, ContactFieldSet.of(ContactField.EMAIL).with(ContactField.ID));
+        assertEquals(List.of(ContactField.ID, ContactField.EMAIL), fields.fields());
+        assertSame(ContactFieldSet.ALL, ContactFieldSet.parse(null));
+        assertSame(ContactFieldSet.ALL, ContactFieldSet.parse(
+                "id,firstName,lastName,email,phone,primaryPhone,address,primaryEmail"));
+    }
+
+    @Test
+    void parse_ShouldRejectFieldsOutsideAllowlist() {
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ContactFieldSet.parse("id,normalizedEmail"));
+
+        // Then
+        assertTrue(exception.getMessage().contains("normalizedEmail"));
+        assertThrows(IllegalArgumentException.class, () -> ContactFieldSet.parse("id,"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.keviny.customercontact.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"contact.idempotency.enabled=true", "contact.idempotency.persist=true"})
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private IdempotencyRecordRepository records;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void post_ShouldReplayFirstResponse_ForSameIdempotencyKey() {
+        // Given
+        ContactDto request = new ContactDto(null, "John", "Doe", "john.idempotent@example.com", "555-0100", "1 Main St");
+
+        // When
+        ResponseEntity<ContactDto> first = post("retry-1", request);
+        ResponseEntity<ContactDto> retry = post("retry-1", request);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(first.getHeaders().getLocation(), retry.getHeaders().getLocation());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertTrue(records.existsById("retry-1"));
+    }
+
+    @Test
+    void post_ShouldRejectKeyReusedForDifferentBody() {
+        // Given
+        post("retry-2", new ContactDto(null, "John", "Doe", "john.reused@example.com", "555-0100", "1 Main St"));
+
+        // When
+        ResponseEntity<Map> reused = restTemplate.postForEntity("/api/contacts",
+                new HttpEntity<>(new ContactDto(null, "Jane", "Doe", "jane.reused@example.com", "555-0100", "1 Main St"),
+                        keyHeader("retry-2")), Map.class);
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+    }
+
+    @Test
+    void execute_ShouldReplayPersistedResponse_OnAnotherInstance() {
+        // Given
+        ContactDto request = new ContactDto(null, "John", "Doe", "john.persisted@example.com", "555-0100", "1 Main St");
+        ResponseEntity<ContactDto> first = post("retry-3", request);
+        ObjectProvider<IdempotencyRecordRepository> provider =
+                new StaticListableBeanFactory(Map.of("records", records)).getBeanProvider(IdempotencyRecordRepository.class);
+        IdempotencyStore otherInstance = new IdempotencyStore(100, 300, 1000, true, provider, objectMapper,
+                new SimpleMeterRegistry());
+
+        // When
+        IdempotentResponse replay = otherInstance.execute("retry-3", request, () -> fail("Should not run again"));
+
+        // Then
+        assertTrue(replay.replayed());
+        assertEquals(first.getHeaders().getLocation().toString(), replay.location());
+        assertEquals(first.getBody().getId(), replay.body().getId());
+        assertEquals("john.persisted@example.com", replay.body().getEmail());
+    }
+
+    private ResponseEntity<ContactDto> post(String key, ContactDto request) {
+        return restTemplate.postForEntity("/api/contacts", new HttpEntity<>(request, keyHeader(key)), ContactDto.class);
+    }
+
+    private static HttpHeaders keyHeader(String key) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        return headers;
+    }
+}
@@ -0,0 +1,193 @@
+package com.keviny.customercontact.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Test
+    void execute_ShouldReplayFirstResponse_WithoutRunningAgain() {
+        // Given
+        IdempotencyStore store = store(100, TIMEOUT_MS);
+        AtomicInteger executions = new AtomicInteger();
+        ContactDto request = request("john@example.com");
+
+        // When
+        IdempotentResponse first = store.execute("key-1", request, () -> response(executions.incrementAndGet()));
+        IdempotentResponse retry = store.execute("key-1", request("john@example.com"), () -> response(executions.incrementAndGet()));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.location(), retry.location());
+        assertSame(first.body(), retry.body());
+    }
+
+    @Test
+    void execute_ShouldMakeConcurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        // Given
+        IdempotencyStore store = store(100, TIMEOUT_MS);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotentResponse> first = executor.submit(() -> store.execute("key-1", request("john@example.com"), () -> {
+                started.countDown();
+                await(release);
+                return response(executions.incrementAndGet());
+            }));
+            assertTrue(started.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+            // When
+            Future<IdempotentResponse> duplicate1 = executor.submit(() -> store.execute("key-1", request("john@example.com"),
+                    () -> response(executions.incrementAndGet())));
+            Future<IdempotentResponse> duplicate2 = executor.submit(() -> store.execute("key-1", request("john@example.com"),
+                    () -> response(executions.incrementAndGet())));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            assertFalse(first.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).replayed());
+            assertTrue(duplicate1.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).replayed());
+            assertTrue(duplicate2.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).replayed());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldReleaseKey_WhenTheExecutionFails() {
+        // Given
+        IdempotencyStore store = store(100, TIMEOUT_MS);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", request("john@example.com"), () -> {
+            throw new IllegalStateException("Database down");
+        }));
+        IdempotentResponse retry = store.execute("key-1", request("john@example.com"), () -> response(7));
+
+        // Then
+        assertFalse(retry.replayed());
+        assertEquals("/api/contacts/7", retry.location());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        // Given
+        IdempotencyStore store = store(100, TIMEOUT_MS);
+        store.execute("key-1", request("john@example.com"), () -> response(1));
+
+        // When
+        IdempotencyConflictException e = assertThrows(IdempotencyConflictException.class,
+                () -> store.execute("key-1", request("jane@example.com"), () -> response(2)));
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest_WhenTheirHashCodesCollide() {
+        // Given: "Aa" and "BB" share a String hash code
+        IdempotencyStore store = store(100, TIMEOUT_MS);
+        ContactDto first = request("john@example.com");
+        first.setFirstName("Aa");
+        ContactDto second = request("john@example.com");
+        second.setFirstName("BB");
+        assertEquals(first.getFirstName().hashCode(), second.getFirstName().hashCode());
+        store.execute("key-1", first, () -> response(1));
+
+        // When
+        IdempotencyConflictException e = assertThrows(IdempotencyConflictException.class,
+                () -> store.execute("key-1", second, () -> response(2)));
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void execute_ShouldGiveUpWaiting_WhenTheFirstExecutionRunsTooLong() throws Exception {
+        // Given
+        IdempotencyStore store = store(100, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> store.execute("key-1", request("john@example.com"), () -> {
+                started.countDown();
+                await(release);
+                return response(1);
+            }));
+            assertTrue(started.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+            // When
+            IdempotencyConflictException e = assertThrows(IdempotencyConflictException.class,
+                    () -> store.execute("key-1", request("john@example.com"), () -> response(2)));
+
+            // Then
+            assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldStayWithinMaxSize() {
+        // Given
+        IdempotencyStore store = store(10, TIMEOUT_MS);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            int id = i;
+            store.execute("key-" + i, request("john@example.com"), () -> response(id));
+        }
+
+        // Then
+        assertEquals(10, store.size());
+    }
+
+    private static IdempotencyStore store(int maxSize, long waitMillis) {
+        ObjectProvider<IdempotencyRecordRepository> noRecords =
+                new StaticListableBeanFactory().getBeanProvider(IdempotencyRecordRepository.class);
+        return new IdempotencyStore(maxSize, 300, waitMillis, false, noRecords, new ObjectMapper(),
+                new SimpleMeterRegistry());
+    }
+
+    private static ContactDto request(String email) {
+        return new ContactDto(null, "John", "Doe", email, "555-0100", "1 Main St");
+    }
+
+    private static IdempotentResponse response(long id) {
+        ContactDto body = request("john@example.com");
+        body.setId(id);
+        return new IdempotentResponse(201, "/api/contacts/" + id, body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.keviny.customercontact.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link InstrumentedDataSource} on a primary-key SELECT against in-memory H2, the
+ * cheapest statement the service issues and so the worst case for relative overhead. Each
+ * operation prepares, binds, executes and reads like Hibernate does, inside a request scope:
+ * {@code mvn -Pbenchmark verify -Djmh.args="JdbcInstrumentationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcInstrumentationBenchmark {
+
+    private static final String SELECT = "select c1_0.id,c1_0.email from contact c1_0 where c1_0.id=?";
+
+    private JdbcInstrumentation instrumentation;
+    private Connection raw;
+    private Connection instrumented;
+
+    @Setup
+    public void setUp() throws SQLException {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:instrumentation-benchmark;DB_CLOSE_DELAY=-1");
+        instrumentation = new JdbcInstrumentation(new SimpleMeterRegistry(), Duration.ofSeconds(1), 1_000_000, 500);
+        raw = target.getConnection();
+        instrumented = instrumentation.instrument(target).getConnection();
+        try (Statement statement = raw.createStatement()) {
+            statement.execute("CREATE TABLE contact (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+            statement.execute("INSERT INTO contact VALUES (1, 'john.doe@email.com')");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        instrumented.close();
+        raw.close();
+    }
+
+    @Benchmark
+    public String raw() throws SQLException {
+        return select(raw);
+    }
+
+    @Benchmark
+    public String instrumented() throws SQLException {
+        instrumentation.beginRequest("GET /api/contacts/1");
+        try {
+            return select(instrumented);
+        } finally {
+            instrumentation.endRequest("GET /api/contacts/{id}");
+        }
+    }
+
+    private static String select(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setLong(1, 1L);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getString(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.keviny.customercontact.jdbc;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcInstrumentationTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ListAppender<ILoggingEvent> slowQueries = new ListAppender<>();
+    private JdbcDataSource target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:instrumentation;DB_CLOSE_DELAY=-1");
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS contact (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+            statement.execute("DELETE FROM contact");
+        }
+        slowQueries.start();
+        ((Logger) JdbcInstrumentation.slowQueryLog).addAppender(slowQueries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) JdbcInstrumentation.slowQueryLog).detachAppender(slowQueries);
+    }
+
+    @Test
+    void normalize_ShouldReplaceLiterals_AndCollapseInLists() {
+        assertEquals("select c1_0.id from contact c1_0 where c1_0.email=? and c1_0.id in (?)",
+                JdbcInstrumentation.normalize("SELECT c1_0.id\n  FROM contact c1_0 WHERE c1_0.email='o''brien@email.com' AND c1_0.id IN (1, 2,3)"));
+        assertEquals("update contact set email=? where id=?",
+                JdbcInstrumentation.normalize("update contact set email=? where id=?"));
+    }
+
+    @Test
+    void preparedStatements_ShouldBeTimedPerShape() throws SQLException {
+        // Given
+        DataSource dataSource = instrumentation(Duration.ofSeconds(10), 10).instrument(target);
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 1; id <= 3; id++) {
+                try (PreparedStatement insert = connection.prepareStatement("insert into contact (id, email) values (?, ?)")) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "user" + id + "@email.com");
+                    insert.executeUpdate();
+                }
+            }
+            try (PreparedStatement batch = connection.prepareStatement("update contact set email=? where id=?")) {
+                batch.setString(1, "a@email.com");
+                batch.setLong(2, 1);
+                batch.addBatch();
+                batch.setString(1, "b@email.com");
+                batch.setLong(2, 2);
+                batch.addBatch();
+                batch.executeBatch();
+            }
+        }
+
+        // Then
+        Timer inserts = meterRegistry.get("contact.jdbc.statement").tag("operation", "insert").tag("table", "contact").timer();
+        assertEquals(3, inserts.count());
+        assertEquals(1, meterRegistry.get("contact.jdbc.statement").tag("operation", "update").timer().count());
+        assertTrue(slowQueries.list.isEmpty());
+    }
+
+    @Test
+    void requestScope_ShouldCountStatements_AndFlagRepeatedSelects() throws SQLException {
+        // Given
+        DataSource dataSource = instrumentation(Duration.ofSeconds(10), 3).instrument(target);
+        JdbcInstrumentation instrumentation = ((InstrumentedDataSource) dataSource).getInstrumentation();
+
+        // When: one select per id instead of one IN query
+        instrumentation.beginRequest("GET /api/contacts");
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 1; id <= 5; id++) {
+                try (PreparedStatement select = connection.prepareStatement("select email from contact where id=?")) {
+                    select.setLong(1, id);
+                    try (ResultSet ignored = select.executeQuery()) {
+                        // Rows are irrelevant here
+                    }
+                }
+            }
+        }
+        instrumentation.endRequest("GET /api/contacts");
+
+        // Then
+        assertEquals(5.0, meterRegistry.get("contact.jdbc.statements.per-request").tag("uri", "GET /api/contacts")
+                .summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("contact.jdbc.n-plus-one").tag("table", "contact").counter().count());
+    }
+
+    @Test
+    void slowStatements_ShouldBeLoggedWithoutLiteralsOrBindValues() throws SQLException {
+        // Given: every statement counts as slow
+        DataSource dataSource = instrumentation(Duration.ZERO, 10).instrument(target);
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into contact (id, email) values (42, 'secret@email.com')");
+            }
+            try (PreparedStatement select = connection.prepareStatement("select id from contact where email=?")) {
+                select.setString(1, "hidden@email.com");
+                select.executeQuery().close();
+            }
+        }
+
+        // Then
+        assertEquals(2, slowQueries.list.size());
+        for (ILoggingEvent event : slowQueries.list) {
+            String message = event.getFormattedMessage();
+            assertFalse(message.contains("secret"), message);
+            assertFalse(message.contains("hidden"), message);
+            assertFalse(message.contains("42"), message);
+        }
+        assertTrue(slowQueries.list.get(1).getFormattedMessage().contains("binds=1"));
+        assertTrue(slowQueries.list.get(1).getFormattedMessage().endsWith("sql=select id from contact where email=?"));
+    }
+
+    @Test
+    void unwrap_ShouldReachTheTargetDataSource() throws SQLException {
+        DataSource dataSource = instrumentation(Duration.ofSeconds(10), 10).instrument(target);
+
+        assertTrue(dataSource.isWrapperFor(JdbcDataSource.class));
+        assertSame(target, dataSource.unwrap(JdbcDataSource.class));
+    }
+
+    private JdbcInstrumentation instrumentation(Duration slowThreshold, int nPlusOneThreshold) {
+        return new JdbcInstrumentation(meterRegistry, slowThreshold, nPlusOneThreshold, 500);
+    }
+}
@@ -0,0 +1,96 @@
+package com.keviny.customercontact.jfr;
+
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactOperationInterceptorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void invoke_ShouldRecordOutcomeRetriesAndConnectionWait() throws Exception {
+        // Given
+        ProxyFactory proxyFactory = new ProxyFactory(new FlakyLookups());
+        proxyFactory.addAdvice(new ContactOperationInterceptor());
+        FlakyLookups lookups = (FlakyLookups) proxyFactory.getProxy();
+        Path file = directory.resolve("operations.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable(ContactOperationEvent.class);
+            recording.start();
+            lookups.findContactById(42L);
+            lookups.findContactByEmail("Someone@Email.com");
+            assertThrows(IllegalStateException.class, () -> lookups.findContactsByPhone("555-0100"));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        // The recording covers the whole JVM; other test contexts may still be serving calls
+        long testThread = Thread.currentThread().getId();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == testThread)
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+        assertEquals(3, events.size());
+        RecordedEvent byId = events.get(0);
+        assertEquals("findContactById", byId.getString("operation"));
+        assertEquals("id=42", byId.getString("key"));
+        assertEquals("success", byId.getString("outcome"));
+        assertEquals(2, byId.getInt("retries"));
+        assertEquals(Duration.ofMillis(3), byId.getDuration("connectionWait"));
+        RecordedEvent byEmail = events.get(1);
+        assertEquals("emailHash=" + EmailNormalizer.hash("someone@email.com"), byEmail.getString("key"));
+        assertEquals("not-found", byEmail.getString("outcome"));
+        RecordedEvent byPhone = events.get(2);
+        assertEquals("", byPhone.getString("key"));
+        assertEquals("error", byPhone.getString("outcome"));
+        assertEquals(IllegalStateException.class.getName(), byPhone.getString("error"));
+    }
+
+    @Test
+    void invoke_ShouldNotTrack_WithoutRecording() {
+        // Given
+        ProxyFactory proxyFactory = new ProxyFactory(new FlakyLookups());
+        proxyFactory.addAdvice(new ContactOperationInterceptor());
+        FlakyLookups lookups = (FlakyLookups) proxyFactory.getProxy();
+
+        // When & Then
+        assertEquals(Optional.of(false), lookups.findContactById(1L));
+    }
+
+    static class FlakyLookups {
+
+        public Optional<Boolean> findContactById(Long id) {
+            ContactOperationInterceptor.connectionAcquired(Duration.ofMillis(1).toNanos());
+            ContactOperationInterceptor.retried();
+            ContactOperationInterceptor.connectionAcquired(Duration.ofMillis(2).toNanos());
+            ContactOperationInterceptor.retried();
+            return Optional.of(ContactOperationInterceptor.isRecording());
+        }
+
+        public Optional<String> findContactByEmail(String email) {
+            return Optional.empty();
+        }
+
+        public List<String> findContactsByPhone(String number) {
+            throw new IllegalStateException("Database unavailable");
+        }
+    }
+}
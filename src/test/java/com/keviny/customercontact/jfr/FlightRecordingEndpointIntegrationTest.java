@@ -0,0 +1,95 @@
+package com.keviny.customercontact.jfr;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.service.ContactService;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,jfr")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlightRecordingEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactService contactService;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jfr_ShouldReturnRecordingWithContactEvents() throws Exception {
+        // Given contact traffic once the recording runs
+        CountDownLatch started = new CountDownLatch(1);
+        FlightRecorderListener listener = new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                if (recording.getState() == RecordingState.RUNNING) {
+                    started.countDown();
+                }
+            }
+        };
+        FlightRecorder.addListener(listener);
+        CompletableFuture<Void> traffic = CompletableFuture.runAsync(() -> {
+            await(started);
+            Long id = contactService.createOrUpdateContact(
+                    new ContactDto(null, "Flo", "Recorder", "flo.recorder@email.com", null, null)).getId();
+            contactService.findContactById(id);
+        });
+
+        // When
+        byte[] body = mockMvc.perform(get("/actuator/jfr").param("seconds", "2").param("settings", "default"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        traffic.get(5, TimeUnit.SECONDS);
+        FlightRecorder.removeListener(listener);
+
+        // Then
+        Path file = Files.write(directory.resolve("recording.jfr"), body);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.keviny.customercontact.ContactOperation")
+                && "findContactById".equals(event.getString("operation")) && "success".equals(event.getString("outcome"))));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.keviny.customercontact.ContactMapping")
+                && ContactMappingEvent.TO_ENTITY.equals(event.getString("operation"))));
+    }
+
+    @Test
+    void jfr_ShouldRejectUnknownSettingsAndOverlongRecordings() throws Exception {
+        mockMvc.perform(get("/actuator/jfr").param("settings", "everything"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/actuator/jfr").param("seconds", "3600"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
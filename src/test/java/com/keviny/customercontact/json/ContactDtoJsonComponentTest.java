@@ -0,0 +1,107 @@
+package com.keviny.customercontact.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.dto.ContactView;
+import com.keviny.customercontact.dto.ErrorResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactDtoJsonComponentTest {
+
+    // Reflection-based reference: what the application produced before the custom codecs
+    private final ObjectMapper beanMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ObjectMapper codecMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SimpleModule()
+                    .addSerializer(ContactDto.class, new ContactDtoJsonComponent.Serializer())
+                    .addDeserializer(ContactDto.class, new ContactDtoJsonComponent.Deserializer())
+                    .addSerializer(ContactView.class, new ContactDtoJsonComponent.ViewSerializer())
+                    .addSerializer(ErrorResponse.class, new ErrorResponseJsonComponent.Serializer())
+                    .addDeserializer(ErrorResponse.class, new ErrorResponseJsonComponent.Deserializer()))
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    void serialize_ShouldMatchBeanSerializerOutput() throws Exception {
+        // Given
+        ContactDto full = new ContactDto(42L, "Zoë", "O\"Brien", "zoe@example.com", "123", "1 Main St\nApt 2");
+        full.setPrimaryPhone("456");
+        full.setPrimaryEmail("primary@example.com");
+        ContactDto sparse = new ContactDto(null, "John", "Doe", "john@example.com", null, null);
+
+        // When & Then
+        for (ContactDto dto : new ContactDto[] {full, sparse, new ContactDto()}) {
+            assertEquals(beanMapper.writeValueAsString(dto), codecMapper.writeValueAsString(dto));
+        }
+    }
+
+    @Test
+    void serializeView_ShouldWriteSelectedFieldsInDeclarationOrder() throws Exception {
+        // Given
+        ContactDto dto = new ContactDto(42L, "Jane", "Smith", "jane@example.com", "123", "1 Main St");
+
+        // When & Then
+        assertEquals("{\"id\":42,\"email\":\"jane@example.com\",\"primaryEmail\":null}",
+                codecMapper.writeValueAsString(new ContactView(dto, ContactFieldSet.parse("primaryEmail, email,id"))));
+        assertEquals(beanMapper.writeValueAsString(dto),
+                codecMapper.writeValueAsString(new ContactView(dto, ContactFieldSet.ALL)));
+    }
+
+    @Test
+    void deserialize_ShouldRoundTrip_AndCoerceScalarsLikeJackson() throws Exception {
+        // Given
+        String json = "{\"email\":\"john@example.com\",\"id\":\"7\",\"firstName\":\"John\",\"phone\":123,\"address\":null}";
+
+        // When
+        ContactDto result = codecMapper.readValue(json, ContactDto.class);
+
+        // Then
+        assertEquals(7L, result.getId());
+        assertEquals("John", result.getFirstName());
+        assertEquals("john@example.com", result.getEmail());
+        assertEquals("123", result.getPhone());
+        assertNull(result.getAddress());
+        assertEquals(beanMapper.writeValueAsString(beanMapper.readValue(json, ContactDto.class)),
+                codecMapper.writeValueAsString(result));
+    }
+
+    @Test
+    void deserialize_ShouldRejectUnknownProperties_AndWrongShapes() {
+        assertThrows(UnrecognizedPropertyException.class,
+                () -> codecMapper.readValue("{\"email\":\"a@b.c\",\"nickname\":\"x\"}", ContactDto.class));
+        assertThrows(JsonMappingException.class, () -> codecMapper.readValue("[1,2]", ContactDto.class));
+        assertThrows(JsonMappingException.class, () -> codecMapper.readValue("{\"firstName\":{}}", ContactDto.class));
+    }
+
+    @Test
+    void errorResponse_ShouldMatchBeanSerializerOutput_AndRoundTrip() throws Exception {
+        // Given
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("email", "Email should be valid");
+        details.put("firstName", "First name is required");
+        ErrorResponse error = new ErrorResponse("Validation failed", details);
+        error.setTimestamp(LocalDateTime.of(2024, 3, 7, 9, 5, 1, 999_000_000));
+        ErrorResponse noDetails = new ErrorResponse("Not found", null);
+
+        // When & Then
+        for (ErrorResponse response : new ErrorResponse[] {error, noDetails}) {
+            String json = codecMapper.writeValueAsString(response);
+            assertEquals(beanMapper.writeValueAsString(response), json);
+            assertEquals(json, codecMapper.writeValueAsString(codecMapper.readValue(json, ErrorResponse.class)));
+        }
+    }
+}
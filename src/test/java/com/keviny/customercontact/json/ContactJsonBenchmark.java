@@ -0,0 +1,111 @@
+package com.keviny.customercontact.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.keviny.customercontact.dto.ContactDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ContactDto} JSON encoding and decoding with Jackson's bean (de)serializer versus
+ * {@link ContactDtoJsonComponent}. Bytes allocated per operation are the number that matters;
+ * run with the GC profiler and read {@code gc.alloc.rate.norm}:
+ * {@code mvn -Pbenchmark verify -Djmh.args="ContactJsonBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactJsonBenchmark {
+
+    // Unlike OutputStream.nullOutputStream(), survives the writer closing it after each value
+    private final OutputStream sink = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private ObjectMapper beanMapper;
+    private ObjectMapper codecMapper;
+    private JsonGenerator beanGenerator;
+    private JsonGenerator codecGenerator;
+    private ObjectWriter beanWriter;
+    private ObjectWriter codecWriter;
+    private ObjectReader beanReader;
+    private ObjectReader codecReader;
+    private ContactDto contact;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        beanMapper = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        codecMapper = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .registerModule(new SimpleModule()
+                        .addSerializer(ContactDto.class, new ContactDtoJsonComponent.Serializer())
+                        .addDeserializer(ContactDto.class, new ContactDtoJsonComponent.Deserializer()));
+        beanWriter = beanMapper.writerFor(ContactDto.class);
+        codecWriter = codecMapper.writerFor(ContactDto.class);
+        beanReader = beanMapper.readerFor(ContactDto.class);
+        codecReader = codecMapper.readerFor(ContactDto.class);
+
+        contact = new ContactDto(1234567L, "Jane", "Smith", "jane.smith@example.com", "987-654-3210", "456 Oak Ave");
+        contact.setPrimaryPhone("555-123-4567");
+        contact.setPrimaryEmail("jane@work.example.com");
+        json = beanWriter.writeValueAsBytes(contact);
+        beanGenerator = beanMapper.createGenerator(sink);
+        codecGenerator = codecMapper.createGenerator(sink);
+    }
+
+    @Benchmark
+    public void serializeBean() throws IOException {
+        beanWriter.writeValue(sink, contact);
+    }
+
+    @Benchmark
+    public void serializeCodec() throws IOException {
+        codecWriter.writeValue(sink, contact);
+    }
+
+    // One long-lived generator, as in the NDJSON snapshot export: leaves only per-value costs
+    @Benchmark
+    public void serializeBeanStreaming() throws IOException {
+        beanMapper.writeValue(beanGenerator, contact);
+    }
+
+    @Benchmark
+    public void serializeCodecStreaming() throws IOException {
+        codecMapper.writeValue(codecGenerator, contact);
+    }
+
+    @Benchmark
+    public ContactDto deserializeBean() throws IOException {
+        return beanReader.readValue(json);
+    }
+
+    @Benchmark
+    public ContactDto deserializeCodec() throws IOException {
+        return codecReader.readValue(json);
+    }
+}
@@ -4,6 +4,8 @@ import com.keviny.customercontact.dto.ContactDto;
 import com.keviny.customercontact.model.Contact;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ContactMapperTest {
@@ -183,4 +185,46 @@ class ContactMapperTest {
         assertEquals("Updated", result.getFirstName()); // Other fields should be updated
         assertEquals("123-456-7890", result.getPhone());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toEntity_ShouldDeriveNormalizedEmailAndHash_ForNewContact() {
+        // Given
+        ContactDto dto = new ContactDto(null, "John", "Doe", " John.Doe@Email.COM ", "123-456-7890", "123 Main St");
+
+        // When
+        Contact result = ContactMapper.toEntity(dto, new Contact());
+
+        // Then
+        assertEquals("john.doe@email.com", result.getNormalizedEmail());
+        assertEquals(EmailNormalizer.hash("john.doe@email.com"), result.getEmailHash());
+    }
+
+    @Test
+    void toEntity_ShouldDeriveNormalizedPhoneNumbers_FromBothPhoneColumns() {
+        // Given
+        ContactDto dto = new ContactDto(null, "John", "Doe", "john.doe@email.com", "(212) 555-0100", "123 Main St");
+        dto.setPrimaryPhone("+1 212.555.0100");
+
+        // When
+        Contact result = ContactMapper.toEntity(dto, new Contact());
+        dto.setPrimaryPhone("0044 20 7946 0958 ext. 12");
+        ContactMapper.toEntity(dto, result);
+
+        // Then
+        assertEquals(Set.of("+12125550100", "+442079460958"), result.getPhoneNumbers());
+    }
+
+    @Test
+    void normalize_ShouldProduceOneKeyPerPhoneNumber() {
+        assertEquals("+12125550100", PhoneNormalizer.normalize("+1 (212) 555-0100"));
+        assertEquals("+12125550100", PhoneNormalizer.normalize("212-555-0100"));
+        assertEquals("+12125550100", PhoneNormalizer.normalize("1 212 555 0100"));
+        assertEquals("+442079460958", PhoneNormalizer.normalize("0044 20 7946 0958"));
+        assertEquals("5550100", PhoneNormalizer.normalize("555-0100 x23"));
+        assertNull(PhoneNormalizer.normalize("12"));
+        assertNull(PhoneNormalizer.normalize("12345678901234567890"));
+        assertNull(PhoneNormalizer.normalize("+1234567890123456"));
+        assertEquals("123456789012345", PhoneNormalizer.normalize("123456789012345"));
+        assertNull(PhoneNormalizer.normalize(null));
+    }
+}
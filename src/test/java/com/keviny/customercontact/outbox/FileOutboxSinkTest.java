@@ -0,0 +1,45 @@
+package com.keviny.customercontact.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOutboxSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deliver_ShouldAppendOneJsonLinePerChange() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Path file = directory.resolve("outbox/changes.ndjson");
+        OutboxMessage created = new OutboxMessage(0, 1, ContactChangedEvent.ChangeType.CREATED,
+                new ContactDto(7L, "Nell", "Line", "nell.line@email.com", null, null), Instant.parse("2024-01-01T00:00:00Z"));
+        OutboxMessage updated = new OutboxMessage(0, 2, ContactChangedEvent.ChangeType.UPDATED,
+                new ContactDto(7L, "Nell", "Line", "nell.line@email.com", null, "1 Log Ln"), Instant.parse("2024-01-01T00:00:01Z"));
+
+        // When
+        try (FileOutboxSink sink = new FileOutboxSink(file, objectMapper)) {
+            sink.deliver(List.of(created));
+            sink.deliver(List.of(updated));
+        }
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(created.id(), objectMapper.readValue(lines.get(0), OutboxMessage.class).id());
+        OutboxMessage read = objectMapper.readValue(lines.get(1), OutboxMessage.class);
+        assertEquals(ContactChangedEvent.ChangeType.UPDATED, read.type());
+        assertEquals("1 Log Ln", read.contact().getAddress());
+    }
+}
@@ -0,0 +1,200 @@
+package com.keviny.customercontact.outbox;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.model.OutboxEvent;
+import com.keviny.customercontact.repository.OutboxEventRepository;
+import com.keviny.customercontact.service.ContactService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "contact.outbox.enabled=true",
+        "contact.outbox.sink=custom",
+        "contact.outbox.batch-size=2",
+        "contact.outbox.max-attempts=3",
+        // Drained by the tests
+        "contact.outbox.poll-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactOutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        relay.drain();
+        // Dead-lettered rows stay behind
+        outboxEventRepository.deleteAll();
+        sink.messages.clear();
+        sink.failing.set(false);
+        sink.rejecting.clear();
+    }
+
+    @Test
+    void drain_ShouldDeliverCommittedChangesInBatches_AndRemoveThem() {
+        // Given
+        double deliveredBefore = meterRegistry.counter("contact.outbox.delivered").count();
+        long batchesBefore = meterRegistry.timer("contact.outbox.batch").count();
+        contactService.createOrUpdateContact(contact("Olive", "Outbox", "olive.outbox@email.com", "1 Queue St"));
+        contactService.createOrUpdateContact(contact("Olive", "Outbox", "olive.outbox@email.com", "2 Queue St"));
+        contactService.createOrUpdateContact(contact("Otto", "Outbox", "otto.outbox@email.com", "3 Queue St"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            contactService.createOrUpdateContact(contact("Rolf", "Back", "rolf.back@email.com", "Nowhere"));
+            status.setRollbackOnly();
+        });
+        assertEquals(3, outboxEventRepository.count());
+
+        // When
+        relay.drain();
+
+        // Then
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(List.of(ContactChangedEvent.ChangeType.CREATED, ContactChangedEvent.ChangeType.UPDATED,
+                ContactChangedEvent.ChangeType.CREATED), sink.messages.stream().map(OutboxMessage::type).toList());
+        assertEquals("2 Queue St", sink.messages.get(1).contact().getAddress());
+        assertEquals(List.of("olive.outbox@email.com", "olive.outbox@email.com", "otto.outbox@email.com"),
+                sink.messages.stream().map(message -> message.contact().getEmail()).toList());
+        assertEquals(deliveredBefore + 3, meterRegistry.counter("contact.outbox.delivered").count());
+        assertEquals(batchesBefore + 2, meterRegistry.timer("contact.outbox.batch").count());
+    }
+
+    @Test
+    void drain_ShouldKeepBatch_WhenSinkFails() {
+        // Given
+        contactService.createOrUpdateContact(contact("Fay", "Lure", "fay.lure@email.com", "1 Retry Rd"));
+        sink.failing.set(true);
+
+        // When
+        relay.drain();
+
+        // Then
+        assertEquals(1, outboxEventRepository.count());
+        sink.failing.set(false);
+        relay.drain();
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(1, sink.messages.size());
+    }
+
+    @Test
+    void drain_ShouldDeadLetterRowTheSinkKeepsRejecting_AndDeliverTheRest() {
+        // Given
+        double deadLetteredBefore = meterRegistry.counter("contact.outbox.dead-lettered").count();
+        sink.rejecting.add("rex.ject@email.com");
+        contactService.createOrUpdateContact(contact("Rex", "Ject", "rex.ject@email.com", "1 Bounce Ave"));
+        contactService.createOrUpdateContact(contact("Ada", "After", "ada.after@email.com", "2 Bounce Ave"));
+
+        // When: blocks its shard until it has used up its attempts
+        relay.drain();
+        relay.drain();
+        assertTrue(sink.messages.isEmpty());
+        relay.drain();
+
+        // Then
+        assertEquals(List.of("ada.after@email.com"),
+                sink.messages.stream().map(message -> message.contact().getEmail()).toList());
+        OutboxEvent deadLetter = outboxEventRepository.findAll().get(0);
+        assertEquals(1, outboxEventRepository.count());
+        assertNotNull(deadLetter.getDeadLetteredAt());
+        assertEquals(3, deadLetter.getAttempts());
+        assertEquals("Rejected", deadLetter.getLastError());
+        assertEquals(deadLetteredBefore + 1, meterRegistry.counter("contact.outbox.dead-lettered").count());
+        assertEquals(0.0, meterRegistry.get("contact.outbox.pending.age").gauge().value());
+    }
+
+    @Test
+    void drain_ShouldDeadLetterUnreadablePayloadAtOnce() {
+        // Given
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxEventRepository.save(
+                new OutboxEvent(1L, ContactChangedEvent.ChangeType.UPDATED, "{not json", Instant.now())));
+        contactService.createOrUpdateContact(contact("Una", "Readable", "una.readable@email.com", "3 Parse Pl"));
+
+        // When
+        relay.drain();
+
+        // Then
+        assertEquals(1, sink.messages.size());
+        assertNotNull(outboxEventRepository.findAll().get(0).getDeadLetteredAt());
+    }
+
+    @Test
+    void pendingAge_ShouldGrow_WhileTheOldestChangeIsUndelivered() throws Exception {
+        // Given
+        contactService.createOrUpdateContact(contact("Gus", "Gauge", "gus.gauge@email.com", "4 Metric Mews"));
+        sink.failing.set(true);
+
+        // When
+        relay.drain();
+        Thread.sleep(50);
+
+        // Then
+        assertTrue(meterRegistry.get("contact.outbox.pending.age").gauge().value() >= 0.05);
+        sink.failing.set(false);
+        relay.drain();
+        assertEquals(0.0, meterRegistry.get("contact.outbox.pending.age").gauge().value());
+    }
+
+    private static ContactDto contact(String firstName, String lastName, String email, String address) {
+        return new ContactDto(null, firstName, lastName, email, null, address);
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+
+        final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failing = new AtomicBoolean();
+        final Set<String> rejecting = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void deliver(List<OutboxMessage> batch) {
+            if (failing.get()) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            if (batch.stream().anyMatch(message -> rejecting.contains(message.contact().getEmail()))) {
+                throw new IllegalArgumentException("Rejected");
+            }
+            messages.addAll(batch);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.keviny.customercontact.perf;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Performance regression check run by {@code mvn -Pperf verify}, not by the unit test build.
+ * Boots the application on a random port with the in-memory H2 of the test profile, seeds
+ * contacts and drives a fixed mix of reads by id, upserts and list pages from {@code perf.threads}
+ * client threads, each with its own seeded random sequence. After {@code perf.warmup-seconds}
+ * the run is measured for {@code perf.duration-seconds}; total throughput and the p99 of each
+ * request kind are compared with {@code perf/baseline.properties}, and the build fails when
+ * throughput drops or a p99 rises beyond the tolerances there. Results are written to
+ * {@code target/perf/results.properties}; {@code -Dperf.update-baseline=true} writes them to the
+ * baseline file instead of comparing, after an intended change or on new CI hardware.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.keviny.customercontact=WARN"
+})
+@ActiveProfiles("test")
+class ContactWorkloadPerformanceIT {
+
+    enum Kind {
+        // Share of requests in percent
+        READ(70), UPSERT(20), LIST(10);
+
+        final int percent;
+
+        Kind(int percent) {
+            this.percent = percent;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final int THREADS = Integer.getInteger("perf.threads", 16);
+    private static final int SEED_CONTACTS = Integer.getInteger("perf.seed-contacts", 2000);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("perf.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("perf.duration-seconds", 30));
+    private static final Path BASELINE = Path.of(System.getProperty("perf.baseline", "src/test/resources/perf/baseline.properties"));
+    private static final Path RESULTS = Path.of(System.getProperty("perf.results", "target/perf/results.properties"));
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+
+    @Test
+    void mixedWorkload_ShouldStayWithinBaseline() throws Exception {
+        // Given
+        for (int i = 0; i < SEED_CONTACTS; i++) {
+            assertEquals(201, send(upsert(i, "Seed")));
+        }
+
+        // When
+        run(WARMUP);
+        Map<Kind, long[]> latencies = run(MEASURE);
+
+        // Then
+        Properties results = results(latencies);
+        Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(RESULTS)) {
+            results.store(out, "mvn -Pperf verify, " + THREADS + " threads, " + MEASURE.toSeconds() + " s");
+        }
+        if (Boolean.getBoolean("perf.update-baseline")) {
+            Files.write(BASELINE, updated(Files.readAllLines(BASELINE), results));
+            return;
+        }
+        List<String> regressions = compare(results, load(BASELINE));
+        assertTrue(regressions.isEmpty(), "Performance regressed against " + BASELINE + ":\n  "
+                + String.join("\n  ", regressions) + "\nMeasured: " + results);
+    }
+
+    /** Runs the mix on every client thread for the given time; returns latencies in nanos per kind. */
+    private Map<Kind, long[]> run(Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<Kind, Latencies>>> futures = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(31L * t + duration.toSeconds());
+            futures.add(clients.submit(() -> {
+                Map<Kind, Latencies> latencies = new EnumMap<>(Kind.class);
+                for (Kind kind : Kind.values()) {
+                    latencies.put(kind, new Latencies());
+                }
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    Kind kind = pick(random);
+                    HttpRequest request = switch (kind) {
+                        case READ -> get("/api/contacts/" + (1 + random.nextInt(SEED_CONTACTS)));
+                        case UPSERT -> upsert(random.nextInt(SEED_CONTACTS * 2), "Load");
+                        case LIST -> get("/api/contacts?sort=id&limit=50");
+                    };
+                    long begin = System.nanoTime();
+                    int status = send(request);
+                    latencies.get(kind).add(System.nanoTime() - begin);
+                    if (status >= 400) {
+                        throw new IllegalStateException(kind + " answered " + status);
+                    }
+                }
+                return latencies;
+            }));
+        }
+        start.countDown();
+        Map<Kind, long[]> merged = new EnumMap<>(Kind.class);
+        try {
+            for (Future<Map<Kind, Latencies>> future : futures) {
+                for (Map.Entry<Kind, Latencies> entry : future.get().entrySet()) {
+                    merged.merge(entry.getKey(), entry.getValue().toArray(), ContactWorkloadPerformanceIT::concat);
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return merged;
+    }
+
+    private Properties results(Map<Kind, long[]> latencies) {
+        Properties results = new Properties();
+        long requests = 0;
+        for (Kind kind : Kind.values()) {
+            long[] sorted = latencies.get(kind);
+            Arrays.sort(sorted);
+            requests += sorted.length;
+            results.setProperty("p99-ms." + kind.key(), format(percentile(sorted, 0.99) / 1e6));
+        }
+        results.setProperty("throughput", format((double) requests / MEASURE.toSeconds()));
+        return results;
+    }
+
+    static List<String> compare(Properties results, Properties baseline) {
+        List<String> regressions = new ArrayList<>();
+        double throughputTolerance = Double.parseDouble(baseline.getProperty("tolerance.throughput", "0.3"));
+        double p99Tolerance = Double.parseDouble(baseline.getProperty("tolerance.p99", "0.5"));
+        double throughput = Double.parseDouble(results.getProperty("throughput"));
+        double expectedThroughput = Double.parseDouble(baseline.getProperty("throughput"));
+        if (throughput < expectedThroughput * (1 - throughputTolerance)) {
+            regressions.add(String.format("throughput %.1f req/s is more than %.0f%% below the baseline %.1f req/s",
+                    throughput, throughputTolerance * 100, expectedThroughput));
+        }
+        for (Kind kind : Kind.values()) {
+            String key = "p99-ms." + kind.key();
+            double p99 = Double.parseDouble(results.getProperty(key));
+            double expectedP99 = Double.parseDouble(baseline.getProperty(key));
+            if (p99 > expectedP99 * (1 + p99Tolerance)) {
+                regressions.add(String.format("%s p99 %.2f ms is more than %.0f%% above the baseline %.2f ms",
+                        kind.key(), p99, p99Tolerance * 100, expectedP99));
+            }
+        }
+        return regressions;
+    }
+
+    /** The baseline file with its measured values replaced, keeping comments, tolerances and order. */
+    static List<String> updated(List<String> baseline, Properties results) {
+        List<String> lines = new ArrayList<>();
+        Properties pending = (Properties) results.clone();
+        for (String line : baseline) {
+            int separator = line.indexOf('=');
+            String key = separator > 0 && !line.startsWith("#") ? line.substring(0, separator).trim() : null;
+            lines.add(key != null && pending.containsKey(key) ? key + "=" + pending.remove(key) : line);
+        }
+        pending.stringPropertyNames().stream().sorted().forEach(key -> lines.add(key + "=" + pending.getProperty(key)));
+        return lines;
+    }
+
+    private static Kind pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Kind kind : Kind.values()) {
+            roll -= kind.percent;
+            if (roll < 0) {
+                return kind;
+            }
+        }
+        return Kind.READ;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpRequest upsert(int n, String firstName) {
+        String json = "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Contact" + n + "\",\"email\":\"perf" + n
+                + "@email.com\",\"phone\":\"555-01" + String.format("%02d", n % 100) + "\",\"address\":\"" + n + " Load St\"}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/contacts"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static String format(double value) {
+        return String.format(java.util.Locale.ROOT, "%.2f", value);
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] both = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        return both;
+    }
+
+    /** Growable array of one client thread's latencies. */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
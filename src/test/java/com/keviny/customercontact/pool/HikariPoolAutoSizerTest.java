@@ -0,0 +1,132 @@
+package com.keviny.customercontact.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikariPoolAutoSizerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:autosize;DB_CLOSE_DELAY=-1");
+        config.setPoolName("autosize");
+        config.setMaximumPoolSize(4);
+        config.setMinimumIdle(2);
+        config.setConnectionTimeout(5000);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        dataSource = new HikariDataSource(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void constructor_ShouldClampConfiguredSizeIntoBounds() throws Exception {
+        // When
+        HikariPoolAutoSizer autoSizer = autoSizer(6, 20);
+
+        // Then
+        assertEquals(6, autoSizer.getMaximumPoolSize("autosize"));
+        assertEquals(6, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void evaluate_ShouldGrowOnlyAfterConsecutiveSaturatedWindows() throws Exception {
+        // Given: every connection is checked out and another thread is waiting for one
+        HikariPoolAutoSizer autoSizer = autoSizer(4, 20);
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            held.add(dataSource.getConnection());
+        }
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        waiter.submit(() -> {
+            try (Connection ignored = dataSource.getConnection()) {
+                return null;
+            }
+        });
+        try {
+            awaitWaitingThread();
+
+            // When / Then: one saturated window is not enough
+            autoSizer.evaluate();
+            assertEquals(4, autoSizer.getMaximumPoolSize("autosize"));
+
+            autoSizer.evaluate();
+            assertEquals(8, autoSizer.getMaximumPoolSize("autosize"));
+            assertEquals(1.0, meterRegistry.get("contact.pool.autosize.adjustments")
+                    .tag("pool", "autosize").tag("direction", "grow").counter().count());
+            assertEquals(8.0, meterRegistry.get("contact.pool.autosize.maximum-pool-size").gauge().value());
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+            waiter.shutdownNow();
+        }
+    }
+
+    @Test
+    void evaluate_ShouldShrinkAfterIdleWindows_AndNotBelowMinimum() throws Exception {
+        // Given
+        HikariPoolAutoSizer autoSizer = autoSizer(2, 20);
+        dataSource.getHikariConfigMXBean().setMaximumPoolSize(5);
+
+        // When: two idle windows are needed per step
+        autoSizer.evaluate();
+        assertEquals(5, autoSizer.getMaximumPoolSize("autosize"));
+        autoSizer.evaluate();
+        assertEquals(3, autoSizer.getMaximumPoolSize("autosize"));
+        for (int i = 0; i < 10; i++) {
+            autoSizer.evaluate();
+        }
+
+        // Then
+        assertEquals(2, autoSizer.getMaximumPoolSize("autosize"));
+        assertEquals(2, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void evaluate_ShouldHoldSizeBetweenThresholds() throws Exception {
+        // Given: 2 of 4 connections in use is neither saturated nor idle
+        HikariPoolAutoSizer autoSizer = autoSizer(2, 20);
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            // When
+            for (int i = 0; i < 5; i++) {
+                autoSizer.sample();
+                autoSizer.evaluate();
+            }
+        }
+
+        // Then
+        assertEquals(4, autoSizer.getMaximumPoolSize("autosize"));
+    }
+
+    private HikariPoolAutoSizer autoSizer(int minSize, int maxSize) throws Exception {
+        return new HikariPoolAutoSizer(dataSource, meterRegistry, minSize, maxSize, 0.9, 0.5, 1000, 4, 2, 2, 2);
+    }
+
+    private void awaitWaitingThread() throws InterruptedException {
+        for (int i = 0; i < 500 && dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+    }
+}
@@ -0,0 +1,208 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactListQuery;
+import com.keviny.customercontact.service.ContactService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every list endpoint query variant, captures the SQL Hibernate actually issued and checks
+ * H2's plan for it: the rows must come off an index already in the requested order, and a
+ * last-name prefix must be a range on {@code idx_name}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.keviny.customercontact.repository.ContactRepositoryExplainTest$CapturingInspector")
+@ActiveProfiles("test")
+class ContactRepositoryExplainTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        statements.clear();
+    }
+
+    @Test
+    void findContacts_ShouldReadPrimaryKeyInOrder_WhenSortedById() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of(null, null, "id", 10));
+
+        // Then
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldReadPrimaryKeyInOrder_WhenFilteringByPrimaryPhone() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of(null, true, "id", 10));
+
+        // Then
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldReadNameIndexInOrder_WhenSortedByName() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of(null, null, "name", 10));
+
+        // Then
+        assertTrue(plan.contains("IDX_NAME"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldReadNameIndexInOrder_WhenFilteringByPrimaryPhoneAndSortedByName() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of(null, true, "name", 10));
+
+        // Then
+        assertTrue(plan.contains("IDX_NAME"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldRangeScanNameIndex_WhenFilteringByLastNamePrefix() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of("Sm", null, null, 10));
+
+        // Then
+        assertTrue(plan.contains("IDX_NAME: LAST_NAME >= 'Sm'"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldRangeScanNameIndex_WhenFilteringByLastNamePrefixAndPrimaryPhone() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of("Sm", true, "name", 10));
+
+        // Then
+        assertTrue(plan.contains("IDX_NAME: LAST_NAME >= 'Sm'"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldSelectOnlyRequestedColumnsAndSortKeys() throws Exception {
+        // When
+        String plan = explain(ContactListQuery.of("Sm", null, null, 10), ContactFieldSet.parse("email"));
+
+        // Then
+        String select = statements.get(0);
+        assertTrue(select.startsWith("select c1_0.id,c1_0.first_name,c1_0.last_name,c1_0.email from contact"), select);
+        assertTrue(plan.contains("IDX_NAME: LAST_NAME >= 'Sm'"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void findContacts_ShouldReturnMatchesInNameOrder() {
+        // Given
+        for (String[] name : new String[][] {{"Zoe", "Smith"}, {"Adam", "Smith"}, {"Eve", "Smythe"}, {"Bob", "Jones"}}) {
+            contactService.createOrUpdateContact(new ContactDto(null, name[0], name[1],
+                    name[0].toLowerCase() + "." + name[1].toLowerCase() + "@explain.example.com", null, null));
+        }
+
+        // When
+        List<Contact> contacts = contactService.findContacts(ContactListQuery.of("Sm", null, null, 10), ContactFieldSet.ALL);
+
+        // Then
+        assertEquals(List.of("Adam Smith", "Zoe Smith", "Eve Smythe"),
+                contacts.stream().map(c -> c.getFirstName() + " " + c.getLastName()).toList());
+    }
+
+    @Test
+    void findContactsByPhone_ShouldSeekPhoneIndex_ForEitherPhoneColumn() throws Exception {
+        // Given
+        ContactDto byPhone = new ContactDto(null, "Ann", "Caller", "ann.caller@explain.example.com", "(646) 555-0199", null);
+        ContactDto byPrimaryPhone = new ContactDto(null, "Ben", "Caller", "ben.caller@explain.example.com", "000", null);
+        byPrimaryPhone.setPrimaryPhone("+1 646.555.0199");
+        contactService.createOrUpdateContact(byPhone);
+        contactService.createOrUpdateContact(byPrimaryPhone);
+        statements.clear();
+
+        // When
+        List<Contact> contacts = contactService.findContactsByPhone("646-555-0199");
+
+        // Then
+        assertEquals(List.of("Ann", "Ben"), contacts.stream().map(Contact::getFirstName).toList());
+        String sql = statements.stream().filter(statement -> statement.startsWith("select")).findFirst().orElseThrow();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            explain.setString(1, "+16465550199");
+            try (ResultSet plan = explain.executeQuery()) {
+                assertTrue(plan.next());
+                assertTrue(plan.getString(1).contains("IDX_CONTACT_PHONE_NUMBER: PHONE_NUMBER ="), plan.getString(1));
+            }
+        }
+    }
+
+    @Test
+    void createOrUpdateContact_ShouldStorePhoneTooLongForLookupKey_WithoutIndexingIt() {
+        // Given: 20 digits, valid for the phone column but beyond E.164 and the lookup key
+        ContactDto contact = new ContactDto(null, "Long", "Number", "long.number@explain.example.com",
+                "12345678901234567890", null);
+
+        // When
+        Contact saved = contactService.createOrUpdateContact(contact);
+
+        // Then
+        assertEquals("12345678901234567890", saved.getPhone());
+        assertTrue(saved.getPhoneNumbers().isEmpty());
+        assertEquals(List.of(), contactService.findContactsByPhone("12345678901234567890"));
+    }
+
+    /** Runs the query, then EXPLAINs the single SELECT it issued with the same kind of arguments. */
+    private String explain(ContactListQuery query) throws Exception {
+        return explain(query, ContactFieldSet.ALL);
+    }
+
+    private String explain(ContactListQuery query, ContactFieldSet fields) throws Exception {
+        contactService.findContacts(query, fields);
+        List<String> selects = statements.stream().filter(sql -> sql.startsWith("select")).toList();
+        assertEquals(1, selects.size(), selects.toString());
+        String sql = selects.get(0);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            int parameter = 1;
+            if (sql.contains(" like ")) {
+                explain.setString(parameter++, query.getLastNamePrefix() + "%");
+            }
+            explain.setInt(parameter, query.getLimit());
+            try (ResultSet plan = explain.executeQuery()) {
+                assertTrue(plan.next());
+                return plan.getString(1);
+            }
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.replaceAll("\\s+", " ").trim());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email lookup through the legacy unique VARCHAR(100) index versus the 8-byte email_hash index,
+ * on file-backed embedded H2 databases. Setup prints each index's footprint, measured as the
+ * growth of the compacted database file over an unindexed copy of the same rows.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args=EmailLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailLookupBenchmark {
+
+    private static final String SELECT = "SELECT id, first_name, email, normalized_email, email_hash FROM contact WHERE ";
+
+    @Param("200000")
+    public int rows;
+
+    private Path directory;
+    private Connection byEmailDatabase;
+    private Connection byHashDatabase;
+    private PreparedStatement byEmail;
+    private PreparedStatement byHash;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        directory = Files.createTempDirectory("email-lookup-benchmark");
+        long plain = createDatabase("plain", null);
+        long emailIndexed = createDatabase("email", "CREATE UNIQUE INDEX uk_contact_email ON contact (email)");
+        long hashIndexed = createDatabase("hash", "CREATE UNIQUE INDEX uk_contact_email_hash ON contact (email_hash)");
+        System.out.printf("%nIndex footprint for %d rows: email VARCHAR(100) %d KiB, email_hash BIGINT %d KiB%n",
+                rows, (emailIndexed - plain) / 1024, (hashIndexed - plain) / 1024);
+
+        byEmailDatabase = open("email");
+        byHashDatabase = open("hash");
+        byEmail = byEmailDatabase.prepareStatement(SELECT + "email = ?");
+        byHash = byHashDatabase.prepareStatement(SELECT + "email_hash = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        byEmailDatabase.close();
+        byHashDatabase.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long lookupByEmailString() throws SQLException {
+        byEmail.setString(1, randomEmail());
+        return firstId(byEmail);
+    }
+
+    @Benchmark
+    public long lookupByEmailHash() throws SQLException {
+        String email = randomEmail();
+        byHash.setLong(1, EmailNormalizer.hash(email));
+        return firstId(byHash);
+    }
+
+    private String randomEmail() {
+        return email(ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    private static long firstId(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Creates and loads one database, compacts it on shutdown and returns its file size.
+     */
+    private long createDatabase(String name, String indexDdl) throws SQLException, IOException {
+        try (Connection connection = open(name); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contact (id BIGINT PRIMARY KEY, first_name VARCHAR(100), "
+                    + "email VARCHAR(100) NOT NULL, normalized_email VARCHAR(100), email_hash BIGINT)");
+            if (indexDdl != null) {
+                statement.execute(indexDdl);
+            }
+            load(connection);
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        return Files.size(directory.resolve(name + ".mv.db"));
+    }
+
+    private Connection open(String name) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + directory.resolve(name), "sa", "");
+    }
+
+    private void load(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO contact (id, first_name, email, normalized_email, email_hash) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                String email = email(i);
+                insert.setLong(1, i + 1);
+                insert.setString(2, "Customer");
+                insert.setString(3, email);
+                insert.setString(4, EmailNormalizer.normalize(email));
+                insert.setLong(5, EmailNormalizer.hash(email));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static String email(int i) {
+        return "customer.number." + i + "@example-enterprise-mail.com";
+    }
+}
@@ -0,0 +1,154 @@
+package com.keviny.customercontact.repository;
+
+import com.keviny.customercontact.mapper.PhoneNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-ID lookup by a free-form number through the {@code contact_phone} key table, seeking
+ * {@code idx_contact_phone_number} and then the contact's primary key the way
+ * {@code ContactRepository.findByPhoneNumber} does, on a file-backed embedded H2 database with
+ * a million contacts. Every contact has a phone and every other one a different primary phone
+ * as well, so the key table holds one and a half million rows. The unindexed comparison on the
+ * raw phone column shows what the key table saves.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args=PhoneLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhoneLookupBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    private Path directory;
+    private Connection database;
+    private PreparedStatement byPhoneKey;
+    private PreparedStatement byPhoneColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        directory = Files.createTempDirectory("phone-lookup-benchmark");
+        long start = System.nanoTime();
+        try (Connection connection = open(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contact (id BIGINT PRIMARY KEY, first_name VARCHAR(100), "
+                    + "email VARCHAR(100) NOT NULL, phone VARCHAR(20), primary_phone VARCHAR(20))");
+            statement.execute("CREATE TABLE contact_phone (contact_id BIGINT NOT NULL, phone_number VARCHAR(16) NOT NULL)");
+            statement.execute("CREATE INDEX idx_contact_phone_number ON contact_phone (phone_number, contact_id)");
+            load(connection);
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        System.out.printf("%nLoaded %d contacts in %d s, database file %d MiB%n", rows,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                Files.size(directory.resolve("phones.mv.db")) / (1024 * 1024));
+
+        database = open();
+        byPhoneKey = database.prepareStatement("SELECT c.id, c.first_name, c.email, c.phone, c.primary_phone "
+                + "FROM contact_phone p JOIN contact c ON c.id = p.contact_id WHERE p.phone_number = ? ORDER BY c.id");
+        byPhoneColumn = database.prepareStatement("SELECT id, first_name, email, phone, primary_phone "
+                + "FROM contact WHERE phone = ? OR primary_phone = ? ORDER BY id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        database.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /** Normalizes the dialled number like the endpoint does, then seeks the key index. */
+    @Benchmark
+    public long lookupByPhoneKey() throws SQLException {
+        byPhoneKey.setString(1, PhoneNormalizer.normalize(dialled(ThreadLocalRandom.current().nextInt(rows))));
+        return firstId(byPhoneKey);
+    }
+
+    /** Exact match on the stored text, which only finds numbers written the same way. */
+    @Benchmark
+    @Measurement(iterations = 3, time = 5)
+    public long scanPhoneColumns() throws SQLException {
+        String phone = phone(ThreadLocalRandom.current().nextInt(rows));
+        byPhoneColumn.setString(1, phone);
+        byPhoneColumn.setString(2, phone);
+        return firstId(byPhoneColumn);
+    }
+
+    private static long firstId(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("phones"), "sa", "");
+    }
+
+    private void load(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement contact = connection.prepareStatement(
+                "INSERT INTO contact (id, first_name, email, phone, primary_phone) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement key = connection.prepareStatement(
+                     "INSERT INTO contact_phone (contact_id, phone_number) VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                String primaryPhone = i % 2 == 0 ? phone(rows + i) : null;
+                contact.setLong(1, i + 1);
+                contact.setString(2, "Customer");
+                contact.setString(3, "customer.number." + i + "@example-enterprise-mail.com");
+                contact.setString(4, phone(i));
+                contact.setString(5, primaryPhone);
+                contact.addBatch();
+                for (String number : PhoneNormalizer.numbers(phone(i), primaryPhone)) {
+                    key.setLong(1, i + 1);
+                    key.setString(2, number);
+                    key.addBatch();
+                }
+                if (i % 1000 == 999) {
+                    contact.executeBatch();
+                    key.executeBatch();
+                    connection.commit();
+                }
+            }
+            contact.executeBatch();
+            key.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /** Stored form: a North American number as a person would type it. */
+    private static String phone(int i) {
+        String digits = String.format("%07d", i % 10_000_000);
+        return "(" + (212 + i / 10_000_000) + ") " + digits.substring(0, 3) + "-" + digits.substring(3);
+    }
+
+    /** The same number as a caller-ID feed delivers it. */
+    private static String dialled(int i) {
+        return "+1" + phone(i).replaceAll("[^0-9]", "");
+    }
+}
@@ -0,0 +1,82 @@
+package com.keviny.customercontact.repository.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongMapTest {
+
+    @Test
+    void operations_ShouldMatchHashMap_ThroughResizesAndRemovals() {
+        // Given
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When: a small key range forces collisions, probe chains and backward shifts
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        for (long key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key), "key " + key);
+        }
+        assertEquals(expected.size(), map.values().size());
+    }
+
+    @Test
+    void get_ShouldNeverSeeTornStateWhileWritersRun() throws Exception {
+        // Given: keys 0..999 always map to "k<key>"; writers churn other keys in the same segments
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, "k" + key);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int w = 0; w < 2; w++) {
+                long base = 1_000_000L * (w + 1);
+                executor.submit(() -> {
+                    Random random = new Random(base);
+                    while (running.get()) {
+                        long key = base + random.nextInt(50_000);
+                        if (random.nextBoolean()) {
+                            map.put(key, "churn");
+                        } else {
+                            map.remove(key);
+                        }
+                    }
+                });
+            }
+            Future<?> reader = executor.submit(() -> {
+                for (int round = 0; round < 500; round++) {
+                    for (long key = 0; key < 1_000; key++) {
+                        assertEquals("k" + key, map.get(key));
+                    }
+                }
+            });
+
+            // Then
+            reader.get();
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+}
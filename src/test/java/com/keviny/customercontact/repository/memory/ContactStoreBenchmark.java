@@ -0,0 +1,116 @@
+package com.keviny.customercontact.repository.memory;
+
+import com.keviny.customercontact.CustomerContactApplication;
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ContactService} on the default file-backed H2 database through JPA versus the
+ * {@code memory} profile's {@link ContactStore}, each in a full application context without
+ * the web layer. Updates include the commit: a transaction on H2, an fsynced log append on the
+ * store. Run with {@code mvn -Pbenchmark verify -Djmh.args=ContactStoreBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactStoreBenchmark {
+
+    @Param({"h2-file", "memory"})
+    public String storage;
+
+    @Param("10000")
+    public int contacts;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("contact-store-benchmark");
+        SpringApplicationBuilder application = new SpringApplicationBuilder(CustomerContactApplication.class)
+                .web(WebApplicationType.NONE);
+        if (storage.equals("memory")) {
+            application.profiles("memory");
+        }
+        // Command-line arguments, so they take precedence over application.yml
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("contactdb").toAbsolutePath()
+                        + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--contact.memory-store.directory=" + directory.resolve("memory-store").toAbsolutePath(),
+                "--contact.snapshot.directory=" + directory.resolve("snapshots").toAbsolutePath(),
+                "--contact.snapshot.cron=-",
+                "--logging.level.root=WARN",
+                "--logging.level.com.keviny.customercontact=WARN");
+        contactService = context.getBean(ContactService.class);
+
+        List<ContactDto> batch = new ArrayList<>();
+        for (int i = 0; i < contacts; i++) {
+            batch.add(dto(i, "Initial"));
+            if (batch.size() == 500) {
+                contactService.createOrUpdateContacts(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<Contact> findByEmail() {
+        return contactService.findContactByEmail(email(ThreadLocalRandom.current().nextInt(contacts)));
+    }
+
+    @Benchmark
+    public Optional<Contact> findById() {
+        return contactService.findContactById(1L + ThreadLocalRandom.current().nextInt(contacts));
+    }
+
+    @Benchmark
+    public Contact update() {
+        return contactService.createOrUpdateContact(dto(ThreadLocalRandom.current().nextInt(contacts), "Updated"));
+    }
+
+    private static ContactDto dto(int i, String firstName) {
+        return new ContactDto(null, firstName, "Benchmark", email(i), "555-0100", "1 Benchmark Way");
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,190 @@
+package com.keviny.customercontact.repository.memory;
+
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.model.Contact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ContactStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void save_ShouldAssignIds_AndIndexByEmailHash() {
+        // When
+        Contact saved = store.save(contact("john.doe@email.com", "John"));
+
+        // Then
+        assertEquals(1L, saved.getId());
+        Contact found = store.findByEmailHash(saved.getEmailHash());
+        assertEquals("John", found.getFirstName());
+        assertNotSame(saved, found);
+    }
+
+    @Test
+    void save_ShouldRejectSecondContactWithSameEmailHash() {
+        // Given
+        store.save(contact("john.doe@email.com", "John"));
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(contact("John.Doe@email.com", "Other")));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void returnedContacts_ShouldBeCopies() {
+        // Given
+        Contact saved = store.save(contact("john.doe@email.com", "John"));
+
+        // When
+        store.findById(saved.getId()).setFirstName("Changed");
+
+        // Then
+        assertEquals("John", store.findById(saved.getId()).getFirstName());
+    }
+
+    @Test
+    void rollback_ShouldUndoEveryWriteOfTheTransaction() {
+        // Given
+        Contact existing = store.save(contact("john.doe@email.com", "John"));
+        TransactionTemplate transaction = new TransactionTemplate(new InMemoryTransactionManager(store));
+
+        // When
+        assertThrows(DataIntegrityViolationException.class, () -> transaction.executeWithoutResult(status -> {
+            existing.setFirstName("Updated");
+            store.save(existing);
+            store.save(contact("jane.doe@email.com", "Jane"));
+            store.save(contact("JOHN.DOE@email.com", "Duplicate"));
+        }));
+
+        // Then
+        assertEquals(1, store.count());
+        assertEquals("John", store.findById(existing.getId()).getFirstName());
+        assertNull(store.findByEmailHash(contact("jane.doe@email.com", "Jane").getEmailHash()));
+    }
+
+    @Test
+    void uncommittedWrites_ShouldBeVisibleOnlyToTheirTransaction() {
+        // Given
+        Contact existing = store.save(contact("john.doe@email.com", "John"));
+        long janeHash = contact("jane.doe@email.com", "Jane").getEmailHash();
+        TransactionTemplate transaction = new TransactionTemplate(new InMemoryTransactionManager(store));
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            transaction.executeWithoutResult(status -> {
+                existing.setFirstName("Updated");
+                store.save(existing);
+                store.save(contact("jane.doe@email.com", "Jane"));
+                store.deleteById(existing.getId());
+
+                // Then: the transaction sees its own changes, other threads only committed data
+                assertNull(store.findById(existing.getId()));
+                assertEquals("Jane", store.findByEmailHash(janeHash).getFirstName());
+                assertEquals(1, store.count());
+                Contact seenElsewhere = join(otherThread.submit(() -> store.findById(existing.getId())));
+                assertEquals("John", seenElsewhere.getFirstName());
+                assertNull(join(otherThread.submit(() -> store.findByEmailHash(janeHash))));
+                status.setRollbackOnly();
+            });
+        } finally {
+            otherThread.shutdownNow();
+        }
+
+        // Then
+        assertEquals("John", store.findById(existing.getId()).getFirstName());
+        assertNull(store.findByEmailHash(janeHash));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void reopen_ShouldRecoverFromSnapshotAndLogTail() throws IOException {
+        // Given: two committed writes, a snapshot, then more writes only in the log
+        TransactionTemplate transaction = new TransactionTemplate(new InMemoryTransactionManager(store));
+        transaction.executeWithoutResult(status -> {
+            store.save(contact("one@email.com", "One"));
+            Contact two = contact("two@email.com", "Two");
+            two.setWrittenAt(2_000L);
+            store.save(two);
+        });
+        store.snapshot();
+        Contact three = store.save(contact("three@email.com", "Three"));
+        store.deleteById(1L);
+        three.setFirstName("Third");
+        three.setWrittenAt(3_000L);
+        store.save(three);
+        // Abandoned without close(), so no final snapshot is written
+        store = open();
+
+        // Then
+        assertEquals(2, store.count());
+        assertNull(store.findById(1L));
+        assertEquals("Two", store.findById(2L).getFirstName());
+        assertEquals("Third", store.findById(3L).getFirstName());
+        assertEquals(2_000L, store.findById(2L).getWrittenAt());
+        assertEquals(3_000L, store.findById(3L).getWrittenAt());
+        assertEquals(4L, store.save(contact("four@email.com", "Four")).getId());
+    }
+
+    @Test
+    void reopen_ShouldRestoreDeleteAll() throws IOException {
+        // Given
+        store.save(contact("one@email.com", "One"));
+        store.deleteAll();
+        store.save(contact("two@email.com", "Two"));
+        store.close();
+
+        // When
+        store = open();
+
+        // Then
+        assertEquals(1, store.count());
+        assertEquals("Two", store.findById(2L).getFirstName());
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ContactStore open() throws IOException {
+        return new ContactStore(directory, 1 << 20, new SimpleMeterRegistry());
+    }
+
+    private static Contact contact(String email, String firstName) {
+        Contact contact = new Contact(firstName, "Doe", email, null, null);
+        ContactMapper.updateEmailKey(contact);
+        return contact;
+    }
+}
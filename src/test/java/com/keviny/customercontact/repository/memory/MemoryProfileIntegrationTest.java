@@ -0,0 +1,80 @@
+package com.keviny.customercontact.repository.memory;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.service.ContactService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "contact.memory-store.directory=./target/test-memory-store/${random.uuid}")
+@ActiveProfiles({"test", "memory"})
+class MemoryProfileIntegrationTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void context_ShouldRunWithoutDataSource_OnTheInMemoryRepository() {
+        assertInstanceOf(InMemoryContactRepository.class, contactRepository);
+        assertTrue(applicationContext.getBeansOfType(DataSource.class).isEmpty());
+    }
+
+    @Test
+    void contactService_ShouldUpsertByEmail_Unchanged() {
+        // When
+        Contact created = contactService.createOrUpdateContact(new ContactDto(null, "John", "Doe", "memory.john@email.com", "123", "Addr"));
+        Contact updated = contactService.createOrUpdateContact(new ContactDto(null, "Johnny", "Doe", "Memory.John@email.com", "456", "Addr"));
+
+        // Then
+        assertEquals(created.getId(), updated.getId());
+        assertEquals("Johnny", contactService.findContactByEmail("memory.john@email.com").orElseThrow().getFirstName());
+        assertEquals("456", contactService.findContactById(created.getId()).orElseThrow().getPhone());
+        assertTrue(contactService.contactExists("MEMORY.JOHN@email.com"));
+    }
+
+    @Test
+    void createOrUpdateContacts_ShouldUpsertBatchInOrder() {
+        // Given
+        List<ContactDto> batch = List.of(
+                new ContactDto(null, "First", "Batch", "memory.batch.1@email.com", "1", "Addr"),
+                new ContactDto(null, "Second", "Batch", "memory.batch.2@email.com", "2", "Addr"),
+                new ContactDto(null, "First again", "Batch", "memory.batch.1@email.com", "3", "Addr"));
+
+        // When
+        List<Contact> saved = contactService.createOrUpdateContacts(batch);
+
+        // Then
+        assertEquals(saved.get(0).getId(), saved.get(2).getId());
+        assertEquals("First again", contactService.findContactById(saved.get(0).getId()).orElseThrow().getFirstName());
+        assertTrue(contactService.findAllContacts().stream().map(Contact::getId).toList()
+                .containsAll(List.of(saved.get(0).getId(), saved.get(1).getId())));
+    }
+
+    @Test
+    void save_ShouldEnforceUniqueEmailHash() {
+        // Given
+        contactService.createOrUpdateContact(new ContactDto(null, "Unique", "Doe", "memory.unique@email.com", "1", "Addr"));
+        Contact duplicate = new Contact("Other", "Doe", "memory.unique@email.com", null, null);
+        ContactMapper.updateEmailKey(duplicate);
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class, () -> contactRepository.save(duplicate));
+    }
+}
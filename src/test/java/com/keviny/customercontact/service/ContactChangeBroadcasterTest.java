@@ -0,0 +1,193 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactChangeBroadcasterTest {
+
+    private ContactChangeBroadcaster broadcaster;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new ContactChangeBroadcaster(2, 8, 2, 1, 60, 5000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publish_ShouldDeliverEventsToSubscriber() throws Exception {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter(2);
+        assertTrue(broadcaster.subscribe(emitter, null));
+
+        // When
+        broadcaster.publish(event(1L));
+        broadcaster.publish(event(2L));
+
+        // Then
+        assertTrue(emitter.await());
+        assertEquals(2, emitter.ids.size());
+        assertTrue(emitter.ids.get(0).endsWith(":1"));
+        assertTrue(emitter.ids.get(1).endsWith(":2"));
+    }
+
+    @Test
+    void subscribe_ShouldReplayEventsAfterLastEventId() throws Exception {
+        // Given
+        RecordingEmitter first = new RecordingEmitter(1);
+        broadcaster.subscribe(first, null);
+        broadcaster.publish(event(1L));
+        assertTrue(first.await());
+        String lastSeen = first.ids.get(0);
+        broadcaster.publish(event(2L));
+
+        // When
+        RecordingEmitter resumed = new RecordingEmitter(1);
+        broadcaster.subscribe(resumed, lastSeen);
+
+        // Then
+        assertTrue(resumed.await());
+        assertTrue(resumed.ids.get(0).endsWith(":2"));
+    }
+
+    @Test
+    void subscribe_ShouldRequestResync_WhenLastEventIdIsUnknown() throws Exception {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter(1);
+
+        // When
+        broadcaster.subscribe(emitter, "other-epoch:42");
+
+        // Then
+        assertTrue(emitter.await());
+        assertEquals(1, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("event:" + ContactChangeBroadcaster.RESYNC_EVENT));
+    }
+
+    @Test
+    void subscribe_ShouldReject_WhenSubscriberLimitReached() {
+        assertTrue(broadcaster.subscribe(new RecordingEmitter(0), null));
+        assertTrue(broadcaster.subscribe(new RecordingEmitter(0), null));
+        assertFalse(broadcaster.subscribe(new RecordingEmitter(0), null));
+    }
+
+    @Test
+    void publish_ShouldEvictSlowSubscriber_WhenBufferOverflows() throws Exception {
+        // Given
+        BlockingEmitter slow = new BlockingEmitter();
+        broadcaster.subscribe(slow, null);
+
+        // When
+        broadcaster.publish(event(1L));
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        broadcaster.publish(event(2L));
+        broadcaster.publish(event(3L));
+        broadcaster.publish(event(4L));
+        slow.release.countDown();
+
+        // Then
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("contact.stream.evictions").counter().count());
+    }
+
+    @Test
+    void publish_ShouldEvictSubscriberThatNeverReads_WithoutHoldingTheDispatcher() throws Exception {
+        // Given: a single dispatcher thread and a client whose writes never complete
+        broadcaster.shutdown();
+        broadcaster = new ContactChangeBroadcaster(2, 8, 2, 1, 60, 200, meterRegistry);
+        BlockingEmitter stalled = new BlockingEmitter();
+        RecordingEmitter reader = new RecordingEmitter(2);
+        broadcaster.subscribe(stalled, null);
+        broadcaster.subscribe(reader, null);
+
+        try {
+            // When
+            broadcaster.publish(event(1L));
+            assertTrue(stalled.entered.await(5, TimeUnit.SECONDS));
+            broadcaster.publish(event(2L));
+
+            // Then: the reader still gets both events and the stalled client is dropped
+            assertTrue(reader.await());
+            assertEquals(1, broadcaster.getSubscriberCount());
+            assertEquals(1.0, meterRegistry.get("contact.stream.evictions").counter().count());
+            assertEquals(1, stalled.completed.getCount(), "Left to the blocked write");
+        } finally {
+            stalled.release.countDown();
+        }
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private static ContactChangedEvent event(Long id) {
+        ContactDto dto = new ContactDto(id, "John", "Doe", "john" + id + "@email.com", null, null);
+        return new ContactChangedEvent(ContactChangedEvent.ChangeType.CREATED, dto);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        final List<String> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        RecordingEmitter(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            String event = text.toString();
+            if (event.startsWith(":")) {
+                return;
+            }
+            sent.add(event);
+            if (event.startsWith("id:")) {
+                ids.add(event.substring(3, event.indexOf('\n')));
+            }
+            latch.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
@@ -1,24 +1,26 @@
 package com.keviny.customercontact.service;
 
+import com.keviny.customercontact.cache.ContactCache;
+import com.keviny.customercontact.cache.ContactInvalidationBus;
 import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactFieldSet;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.mapper.ContactMapper;
+import com.keviny.customercontact.mapper.EmailNormalizer;
 import com.keviny.customercontact.model.Contact;
 import com.keviny.customercontact.repository.ContactRepository;
-import org.junit.jupiter.a    @Test
-    void createContactFallback_ShouldThrowRuntimeException() {
-        // Given
-        ContactDto contactDto = new ContactDto(null, "John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
-        Exception exception = new RuntimeException("Service unavailable");
-
-        // When & Then
-        RuntimeException thrown = assertThrows(RuntimeException.class, 
-            () -> contactService.createContactFallback(contactDto, exception));
-        
-        assertEquals("Contact service is temporarily unavailable. Please try again later.", thrown.getMessage());
-    }t org.junit.jupiter.api.extension.ExtendWith;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +28,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,9 +38,51 @@ class ContactServiceTest {
     @Mock
     private ContactRepository contactRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ContactEmailFilter emailFilter;
+
     @InjectMocks
     private ContactService contactService;
 
+    @BeforeEach
+    void setUp() {
+        // Filter not ruling anything out: every lookup reaches the repository
+        lenient().when(emailFilter.mightContain(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void createOrUpdateContact_ShouldSkipLookup_WhenFilterRulesOutEmail() {
+        // Given
+        ContactDto contactDto = new ContactDto(null, "New", "Person", "new.person@email.com", "123-456-7890", "1 New St");
+        when(emailFilter.mightContain("new.person@email.com")).thenReturn(false);
+        when(contactRepository.save(any(Contact.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Contact result = contactService.createOrUpdateContact(contactDto);
+
+        // Then
+        assertEquals("new.person@email.com", result.getEmail());
+        verify(contactRepository, never()).findByEmailHash(anyLong());
+        verify(emailFilter).add("new.person@email.com");
+    }
+
+    @Test
+    void contactExists_ShouldAnswerFromFilter_WhenEmailRuledOut() {
+        // Given
+        when(emailFilter.mightContain("absent@email.com")).thenReturn(false);
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("present@email.com")))
+                .thenReturn(Optional.of(new Contact("P", "R", "Present@Email.com", null, null)));
+
+        // When & Then
+        assertFalse(contactService.contactExists("absent@email.com"));
+        assertTrue(contactService.contactExists("present@email.com"));
+        verify(contactRepository, never()).findByEmailHash(EmailNormalizer.hash("absent@email.com"));
+        verify(emailFilter).recordLookup(true);
+    }
+
     @Test
     void createOrUpdateContact_ShouldCreateNewContact() {
         // Given
@@ -45,7 +90,7 @@ class ContactServiceTest {
         Contact savedContact = new Contact("John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
         savedContact.setId(1L);
         
-        when(contactRepository.findByEmail("john.doe@email.com")).thenReturn(Optional.empty());
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("john.doe@email.com"))).thenReturn(Optional.empty());
         when(contactRepository.save(any(Contact.class))).thenReturn(savedContact);
 
         // When
@@ -57,8 +102,9 @@ class ContactServiceTest {
         assertEquals("Doe", result.getLastName());
         assertEquals("john.doe@email.com", result.getEmail());
         assertEquals(1L, result.getId());
-        verify(contactRepository).findByEmail("john.doe@email.com");
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash("john.doe@email.com"));
         verify(contactRepository).save(any(Contact.class));
+        verify(eventPublisher).publishEvent(any(ContactChangedEvent.class));
     }
 
     @Test
@@ -70,7 +116,7 @@ class ContactServiceTest {
         Contact updatedContact = new Contact("Jane", "Smith", "jane.smith@email.com", "987-654-3210", "456 Oak Ave");
         updatedContact.setId(2L);
         
-        when(contactRepository.findByEmail("jane.smith@email.com")).thenReturn(Optional.of(existingContact));
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("jane.smith@email.com"))).thenReturn(Optional.of(existingContact));
         when(contactRepository.save(any(Contact.class))).thenReturn(updatedContact);
 
         // When
@@ -82,10 +128,51 @@ class ContactServiceTest {
         assertEquals("Smith", result.getLastName());
         assertEquals("987-654-3210", result.getPhone());
         assertEquals("456 Oak Ave", result.getAddress());
-        verify(contactRepository).findByEmail("jane.smith@email.com");
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash("jane.smith@email.com"));
         verify(contactRepository).save(any(Contact.class));
     }
 
+    @Test
+    void createOrUpdateContact_ShouldSuppressWrite_WhenNothingChanged() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(contactService, "meterRegistry", meterRegistry);
+        ContactDto contactDto = new ContactDto(null, "Jane", "Smith", "jane.smith@email.com", "987-654-3210", "456 Oak Ave");
+        Contact existingContact = new Contact("Jane", "Smith", "jane.smith@email.com", "987-654-3210", "456 Oak Ave");
+        existingContact.setId(2L);
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("jane.smith@email.com"))).thenReturn(Optional.of(existingContact));
+
+        // When
+        Contact result = contactService.createOrUpdateContact(contactDto);
+
+        // Then
+        assertSame(existingContact, result);
+        verify(contactRepository, never()).save(any(Contact.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(1.0, meterRegistry.counter("contact.writes.suppressed").count());
+    }
+
+    @Test
+    void createOrUpdateContact_ShouldSkipAcceptedWrite_WhenStoredDataIsNewer() {
+        // Given: a write-behind record accepted before the synchronous write now in the row
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(contactService, "meterRegistry", meterRegistry);
+        Contact existingContact = new Contact("Jane", "Smith", "jane.smith@email.com", "987-654-3210", "9 New St");
+        existingContact.setId(2L);
+        existingContact.setWrittenAt(2_000L);
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("jane.smith@email.com"))).thenReturn(Optional.of(existingContact));
+        ContactDto replayed = new ContactDto(null, "Jane", "Smith", "jane.smith@email.com", "987-654-3210", "1 Old St");
+
+        // When
+        Contact result = contactService.createOrUpdateContact(new AcceptedWrite(replayed, 1_000L));
+
+        // Then
+        assertSame(existingContact, result);
+        assertEquals("9 New St", result.getAddress());
+        verify(contactRepository, never()).save(any(Contact.class));
+        assertEquals(1.0, meterRegistry.counter("contact.writes.superseded").count());
+    }
+
     @Test
     void createOrUpdateContact_ShouldThrowException_WhenEmailIsBlank() {
         // Given
@@ -93,7 +180,7 @@ class ContactServiceTest {
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> contactService.createOrUpdateContact(contactDto));
-        verify(contactRepository, never()).findByEmail(anyString());
+        verify(contactRepository, never()).findByEmailHash(anyLong());
         verify(contactRepository, never()).save(any(Contact.class));
     }
 
@@ -104,7 +191,7 @@ class ContactServiceTest {
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> contactService.createOrUpdateContact(contactDto));
-        verify(contactRepository, never()).findByEmail(anyString());
+        verify(contactRepository, never()).findByEmailHash(anyLong());
         verify(contactRepository, never()).save(any(Contact.class));
     }
 
@@ -112,15 +199,50 @@ class ContactServiceTest {
     void createOrUpdateContact_ShouldHandleDatabaseException() {
         // Given
         ContactDto contactDto = new ContactDto(null, "John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
-        when(contactRepository.findByEmail("john.doe@email.com")).thenReturn(Optional.empty());
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("john.doe@email.com"))).thenReturn(Optional.empty());
         when(contactRepository.save(any(Contact.class))).thenThrow(new DataAccessException("Database error") {});
 
         // When & Then
         assertThrows(DataAccessException.class, () -> contactService.createOrUpdateContact(contactDto));
-        verify(contactRepository).findByEmail("john.doe@email.com");
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash("john.doe@email.com"));
         verify(contactRepository).save(any(Contact.class));
     }
 
+    @Test
+    void createOrUpdateContacts_ShouldUpsertEveryContactInOrder() {
+        // Given
+        ContactDto newDto = new ContactDto(null, "John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
+        ContactDto existingDto = new ContactDto(null, "Jane", "Smith", "jane.smith@email.com", "987-654-3210", "456 Oak Ave");
+        Contact existingContact = new Contact("Jane", "Doe", "jane.smith@email.com", "555-123-4567", "123 Old St");
+        existingContact.setId(2L);
+
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("john.doe@email.com"))).thenReturn(Optional.empty());
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash("jane.smith@email.com"))).thenReturn(Optional.of(existingContact));
+        when(contactRepository.save(any(Contact.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Contact> result = contactService.createOrUpdateContacts(Arrays.asList(newDto, existingDto));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("john.doe@email.com", result.get(0).getEmail());
+        assertEquals("Smith", result.get(1).getLastName());
+        verify(contactRepository, times(2)).save(any(Contact.class));
+        verify(eventPublisher, times(2)).publishEvent(any(ContactChangedEvent.class));
+    }
+
+    @Test
+    void createOrUpdateContacts_ShouldRejectBatch_WhenAnyEmailIsBlank() {
+        // Given
+        ContactDto valid = new ContactDto(null, "John", "Doe", "john.doe@email.com", null, null);
+        ContactDto blank = new ContactDto(null, "Jane", "Smith", " ", null, null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> contactService.createOrUpdateContacts(Arrays.asList(valid, blank)));
+        verify(contactRepository, never()).save(any(Contact.class));
+    }
+
     @Test
     void findContactById_ShouldReturnContact_WhenExists() {
         // Given
@@ -138,6 +260,28 @@ class ContactServiceTest {
         verify(contactRepository).findById(contactId);
     }
 
+    @Test
+    void findContactById_ShouldServeRepeatLookupsFromCache_UntilContactChanges() {
+        // Given
+        ContactCache cache = new ContactCache(100, 300,
+                new StaticListableBeanFactory().getBeanProvider(ContactInvalidationBus.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(contactService, "contactCache", cache);
+        Contact contact = new Contact("John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
+        contact.setId(1L);
+        ContactMapper.updateEmailKey(contact);
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact));
+
+        // When
+        contactService.findContactById(1L);
+        Optional<Contact> cached = contactService.findContactById(1L);
+        cache.onContactChanged(new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, ContactMapper.toDto(contact)));
+        contactService.findContactById(1L);
+
+        // Then
+        assertEquals("john.doe@email.com", cached.orElseThrow().getEmail());
+        verify(contactRepository, times(2)).findById(1L);
+    }
+
     @Test
     void findContactById_ShouldReturnEmpty_WhenNotExists() {
         // Given
@@ -181,6 +325,21 @@ class ContactServiceTest {
         verify(contactRepository).findAll();
     }
 
+    @Test
+    void findAllContacts_WithFields_ShouldReadUnpagedProjection() {
+        // Given
+        ContactFieldSet fields = ContactFieldSet.parse("id,email");
+        List<Contact> expectedContacts = List.of(new Contact(null, null, "john.doe@email.com", null, null));
+        when(contactRepository.findProjected(null, false, Pageable.unpaged(), fields)).thenReturn(expectedContacts);
+
+        // When
+        List<Contact> result = contactService.findAllContacts(fields);
+
+        // Then
+        assertEquals(expectedContacts, result);
+        verify(contactRepository, never()).findAll();
+    }
+
     @Test
     void findAllContacts_ShouldReturnEmptyList_WhenNoContacts() {
         // Given
@@ -210,7 +369,7 @@ class ContactServiceTest {
         // Given
         String email = "john.doe@email.com";
         Contact expectedContact = new Contact("John", "Doe", email, "123-456-7890", "123 Main St");
-        when(contactRepository.findByEmail(email)).thenReturn(Optional.of(expectedContact));
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash(email))).thenReturn(Optional.of(expectedContact));
 
         // When
         Optional<Contact> result = contactService.findContactByEmail(email);
@@ -218,49 +377,60 @@ class ContactServiceTest {
         // Then
         assertTrue(result.isPresent());
         assertEquals(expectedContact, result.get());
-        verify(contactRepository).findByEmail(email);
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash(email));
+    }
+
+    @Test
+    void findContactByEmail_ShouldIgnoreHashCollision_WithDifferentEmail() {
+        // Given
+        String email = "john.doe@email.com";
+        Contact collidingContact = new Contact("Other", "Person", "other@email.com", null, null);
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash(email))).thenReturn(Optional.of(collidingContact));
+
+        // When
+        Optional<Contact> result = contactService.findContactByEmail(email);
+
+        // Then
+        assertTrue(result.isEmpty());
     }
 
     @Test
     void findContactByEmail_ShouldReturnEmpty_WhenNotExists() {
         // Given
         String email = "nonexistent@email.com";
-        when(contactRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash(email))).thenReturn(Optional.empty());
 
         // When
         Optional<Contact> result = contactService.findContactByEmail(email);
 
         // Then
         assertFalse(result.isPresent());
-        verify(contactRepository).findByEmail(email);
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash(email));
     }
 
     @Test
     void findContactByEmail_ShouldHandleDatabaseException() {
         // Given
         String email = "john.doe@email.com";
-        when(contactRepository.findByEmail(email)).thenThrow(new DataAccessException("Database error") {});
+        when(contactRepository.findByEmailHash(EmailNormalizer.hash(email))).thenThrow(new DataAccessException("Database error") {});
 
         // When & Then
         assertThrows(DataAccessException.class, () -> contactService.findContactByEmail(email));
-        verify(contactRepository).findByEmail(email);
+        verify(contactRepository).findByEmailHash(EmailNormalizer.hash(email));
     }
 
     // Test fallback methods (circuit breaker scenarios)
     @Test
-    void createContactFallback_ShouldReturnNewContact() {
+    void createContactFallback_ShouldThrowRuntimeException() {
         // Given
         ContactDto contactDto = new ContactDto(null, "John", "Doe", "john.doe@email.com", "123-456-7890", "123 Main St");
         Exception exception = new RuntimeException("Service unavailable");
 
-        // When
-        Contact result = contactService.createContactFallback(contactDto, exception);
-
-        // Then
-        assertNotNull(result);
-        assertEquals("Fallback", result.getFirstName());
-        assertEquals("Contact", result.getLastName());
-        assertEquals("fallback@email.com", result.getEmail());
+        // When & Then
+        RuntimeException thrown = assertThrows(RuntimeException.class, 
+            () -> contactService.createContactFallback(contactDto, exception));
+        
+        assertEquals("Contact service is temporarily unavailable. Please try again later.", thrown.getMessage());
     }
 
     @Test
@@ -0,0 +1,70 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.event.ContactChangedEvent;
+import com.keviny.customercontact.repository.ContactRepository;
+import com.keviny.customercontact.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContactStatsCounterTest {
+
+    private final ContactRepository contactRepository = mock(ContactRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ContactStatsCounter counter = new ContactStatsCounter(contactRepository, new ShardRouter(1),
+            mock(PlatformTransactionManager.class), meterRegistry);
+
+    @Test
+    void onContactChanged_ShouldApplyDeltas_OnTopOfLoadedCounts() {
+        // Given
+        when(contactRepository.countStats()).thenReturn(new ContactStats(10, 4, 2));
+        counter.reconcile();
+        ContactDto created = contact("555-0100", null);
+        ContactDto updated = contact(null, "primary@example.com");
+
+        // When: a create with a primary phone, then an update that swaps it for a primary email
+        counter.onContactChanged(new ContactChangedEvent(ContactChangedEvent.ChangeType.CREATED, created));
+        counter.onContactChanged(new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, updated, created));
+        ContactStats stats = counter.snapshot();
+
+        // Then
+        assertEquals(11, stats.getTotal());
+        assertEquals(4, stats.getWithPrimaryPhone());
+        assertEquals(3, stats.getWithPrimaryEmail());
+        verify(contactRepository, times(1)).countStats();
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift_FromWritesTheCountersMissed() {
+        // Given
+        when(contactRepository.countStats()).thenReturn(new ContactStats(10, 4, 2), new ContactStats(12, 5, 2));
+        counter.reconcile();
+        counter.onContactChanged(new ContactChangedEvent(ContactChangedEvent.ChangeType.CREATED, contact(null, null)));
+
+        // When: another writer added one more contact, with a primary phone
+        counter.reconcile();
+        ContactStats stats = counter.snapshot();
+
+        // Then
+        assertEquals(12, stats.getTotal());
+        assertEquals(5, stats.getWithPrimaryPhone());
+        assertEquals(2, stats.getWithPrimaryEmail());
+        assertEquals(2.0, meterRegistry.get("contact.stats.reconciliation.drift").counter().count());
+        assertEquals(12.0, meterRegistry.get("contact.stats.contacts").tag("kind", "all").gauge().value());
+    }
+
+    private static ContactDto contact(String primaryPhone, String primaryEmail) {
+        ContactDto dto = new ContactDto(1L, "Stats", "Test", "stats@example.com", "123", "Addr");
+        dto.setPrimaryPhone(primaryPhone);
+        dto.setPrimaryEmail(primaryEmail);
+        return dto;
+    }
+}
@@ -0,0 +1,131 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.model.Contact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ContactWriteBatcherTest {
+
+    private final ContactService contactService = mock(ContactService.class);
+    private ContactWriteBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.shutdown();
+    }
+
+    @Test
+    void submit_ShouldCommitConcurrentWritesAsOneGroup_AndCompleteEachInOrder() throws Exception {
+        // Given: the first group blocks so the remaining writes pile up behind it
+        CountDownLatch firstGroupStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstGroup = new CountDownLatch(1);
+        List<Integer> groupSizes = new ArrayList<>();
+        when(contactService.createOrUpdateContacts(anyList())).thenAnswer(invocation -> {
+            List<ContactDto> dtos = invocation.getArgument(0);
+            synchronized (groupSizes) {
+                groupSizes.add(dtos.size());
+            }
+            firstGroupStarted.countDown();
+            releaseFirstGroup.await(5, TimeUnit.SECONDS);
+            return dtos.stream().map(ContactWriteBatcherTest::saved).collect(Collectors.toList());
+        });
+        batcher = new ContactWriteBatcher(contactService, new SimpleMeterRegistry(), 1, 64, 1_000, 100, 5_000);
+
+        // When
+        CompletableFuture<Contact> first = batcher.submit(dto("first@email.com"));
+        assertTrue(firstGroupStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Contact>> rest = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rest.add(batcher.submit(dto("user" + i + "@email.com")));
+        }
+        releaseFirstGroup.countDown();
+
+        // Then
+        assertEquals("first@email.com", first.get(5, TimeUnit.SECONDS).getEmail());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("user" + i + "@email.com", rest.get(i).get(5, TimeUnit.SECONDS).getEmail());
+        }
+        assertEquals(List.of(1, 10), groupSizes);
+        verify(contactService, never()).createOrUpdateContact(any());
+    }
+
+    @Test
+    void submit_ShouldRetryFailedGroupOneByOne_SoOnlyTheBadWriteFails() throws Exception {
+        // Given
+        when(contactService.createOrUpdateContacts(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(contactService.createOrUpdateContact(any(ContactDto.class))).thenAnswer(invocation -> {
+            ContactDto dto = invocation.getArgument(0);
+            if (dto.getEmail().startsWith("bad")) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return saved(dto);
+        });
+        batcher = new ContactWriteBatcher(contactService, new SimpleMeterRegistry(), 1, 64, 1_000, 100, 5_000);
+        ContactWriteBatcher.PendingWrite good = new ContactWriteBatcher.PendingWrite(dto("good@email.com"));
+        ContactWriteBatcher.PendingWrite bad = new ContactWriteBatcher.PendingWrite(dto("bad@email.com"));
+
+        // When
+        batcher.commit(List.of(good, bad));
+
+        // Then
+        assertEquals("good@email.com", good.result().get(1, TimeUnit.SECONDS).getEmail());
+        assertThrows(DataIntegrityViolationException.class, () -> batcher.write(dto("bad@email.com")));
+        assertTrue(bad.result().isCompletedExceptionally());
+    }
+
+    @Test
+    void write_ShouldGiveUpAfterMaxResponseWait_AndWithdrawTheQueuedWrite() throws Exception {
+        // Given: the writer is stuck on a first group, so the next write stays queued
+        CountDownLatch firstGroupStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstGroup = new CountDownLatch(1);
+        when(contactService.createOrUpdateContacts(anyList())).thenAnswer(invocation -> {
+            firstGroupStarted.countDown();
+            releaseFirstGroup.await(5, TimeUnit.SECONDS);
+            List<ContactDto> dtos = invocation.getArgument(0);
+            return dtos.stream().map(ContactWriteBatcherTest::saved).collect(Collectors.toList());
+        });
+        batcher = new ContactWriteBatcher(contactService, new SimpleMeterRegistry(), 1, 64, 1_000, 100, 200);
+        batcher.submit(dto("first@email.com"));
+        assertTrue(firstGroupStarted.await(5, TimeUnit.SECONDS));
+
+        // When
+        long start = System.nanoTime();
+        GroupCommitTimeoutException timeout = assertThrows(GroupCommitTimeoutException.class,
+                () -> batcher.write(dto("stuck@email.com")));
+        releaseFirstGroup.countDown();
+
+        // Then
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timeout.getStatus());
+        assertTrue(timeout.isWithdrawn());
+        verify(contactService, after(500).times(1)).createOrUpdateContacts(anyList());
+        verify(contactService, never()).createOrUpdateContact(any());
+    }
+
+    private static ContactDto dto(String email) {
+        return new ContactDto(null, "First", "Last", email, null, null);
+    }
+
+    private static Contact saved(ContactDto dto) {
+        Contact contact = new Contact(dto.getFirstName(), dto.getLastName(), dto.getEmail(), null, null);
+        contact.setId((long) dto.getEmail().hashCode());
+        return contact;
+    }
+}
@@ -0,0 +1,80 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.dto.ContactDto;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "contact.write-behind.enabled=true",
+        "contact.write-behind.retry-delay-ms=50"
+})
+@ActiveProfiles("test")
+class ContactWriteBehindIntegrationTest {
+
+    @Autowired
+    private ContactWriteBehindService writeBehindService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @DynamicPropertySource
+    static void writeBehindDirectory(DynamicPropertyRegistry registry) throws IOException {
+        // A fresh log per run, so nothing is replayed from an earlier build
+        String directory = Files.createTempDirectory("write-behind-it").toString();
+        registry.add("contact.write-behind.directory", () -> directory);
+    }
+
+    @Test
+    void submit_ShouldMarkRecordsTheDatabaseRejectsFailed_AndApplyTheRest() throws Exception {
+        // Given
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ContactService.CONTACT_SERVICE);
+        long failedCallsBefore = circuitBreaker.getMetrics().getNumberOfFailedCalls();
+
+        // When
+        long first = writeBehindService.submit(dto("Wendy", "wendy.behind@email.com"));
+        long tooLong = writeBehindService.submit(dto("W".repeat(101), "long.behind@email.com"));
+        long blank = writeBehindService.submit(dto("Walter", " "));
+        long last = writeBehindService.submit(dto("Wanda", "wanda.behind@email.com"));
+        awaitSettled(last);
+
+        // Then
+        assertEquals(WriteBehindStatus.State.APPLIED, writeBehindService.getStatus(first).orElseThrow().getState());
+        assertEquals(WriteBehindStatus.State.FAILED, writeBehindService.getStatus(tooLong).orElseThrow().getState());
+        assertEquals(WriteBehindStatus.State.FAILED, writeBehindService.getStatus(blank).orElseThrow().getState());
+        assertEquals(WriteBehindStatus.State.APPLIED, writeBehindService.getStatus(last).orElseThrow().getState());
+        assertTrue(contactService.contactExists("wendy.behind@email.com"));
+        assertTrue(contactService.contactExists("wanda.behind@email.com"));
+        assertFalse(contactService.contactExists("long.behind@email.com"));
+        assertEquals(0, writeBehindService.getLagRecords());
+        // Rejected records are not an outage
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(failedCallsBefore, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    private void awaitSettled(long trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (writeBehindService.getStatus(trackingId).orElseThrow().getState() == WriteBehindStatus.State.PENDING) {
+            assertTrue(System.nanoTime() < deadline, "Write " + trackingId + " was not applied");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ContactDto dto(String firstName, String email) {
+        return new ContactDto(null, firstName, "Behind", email, null, null);
+    }
+}
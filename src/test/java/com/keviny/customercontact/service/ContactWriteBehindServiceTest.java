@@ -0,0 +1,101 @@
+package com.keviny.customercontact.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keviny.customercontact.dto.ContactDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ContactWriteBehindServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void submit_ShouldApplyInBackground_AndMarkRejectedWritesFailed() throws Exception {
+        // Given
+        ContactService contactService = mock(ContactService.class);
+        when(contactService.createOrUpdateContacts(anyList())).thenAnswer(invocation -> {
+            List<ContactDto> dtos = invocation.getArgument(0);
+            if (dtos.stream().anyMatch(dto -> dto.getEmail().startsWith("dup"))) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return List.of();
+        });
+        ContactWriteBehindService service = create(contactService);
+
+        try {
+            // When
+            long first = service.submit(dto("first@email.com"));
+            long duplicate = service.submit(dto("dup@email.com"));
+            awaitApplied(service, duplicate);
+
+            // Then
+            assertEquals(WriteBehindStatus.State.APPLIED, service.getStatus(first).orElseThrow().getState());
+            assertEquals(WriteBehindStatus.State.FAILED, service.getStatus(duplicate).orElseThrow().getState());
+            assertTrue(service.getStatus(duplicate + 1).isEmpty());
+            assertEquals(0, service.getLagRecords());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void restart_ShouldReplayWritesNotAppliedBeforeShutdown() throws Exception {
+        // Given: the database is down while the writes are accepted
+        ContactService unavailable = mock(ContactService.class);
+        when(unavailable.createOrUpdateContacts(anyList())).thenThrow(new CannotCreateTransactionException("Database down"));
+        ContactWriteBehindService service = create(unavailable);
+        long last = 0;
+        for (int i = 0; i < 3; i++) {
+            last = service.submit(dto("user" + i + "@email.com"));
+        }
+        Thread.sleep(200);
+        assertEquals(WriteBehindStatus.State.PENDING, service.getStatus(last).orElseThrow().getState());
+        service.shutdown();
+
+        // When
+        ContactService available = mock(ContactService.class);
+        when(available.createOrUpdateContacts(anyList())).thenReturn(List.of());
+        ContactWriteBehindService restarted = create(available);
+
+        try {
+            // Then
+            awaitApplied(restarted, last);
+            // Stamped with their append time so they cannot revert anything written since
+            verify(available).createOrUpdateContacts(argThat(dtos -> dtos.size() == 3 && dtos.stream()
+                    .allMatch(dto -> dto instanceof AcceptedWrite accepted && accepted.getAcceptedAt() <= System.currentTimeMillis())));
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    private ContactWriteBehindService create(ContactService contactService) throws Exception {
+        return new ContactWriteBehindService(contactService, new ObjectMapper(), new SimpleMeterRegistry(),
+                directory, DataSize.ofKilobytes(64), 100, 50);
+    }
+
+    private static void awaitApplied(ContactWriteBehindService service, long trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (service.getStatus(trackingId).orElseThrow().getState() == WriteBehindStatus.State.PENDING) {
+            assertTrue(System.nanoTime() < deadline, "Write " + trackingId + " was not applied");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ContactDto dto(String email) {
+        return new ContactDto(null, "First", "Last", email, null, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.keviny.customercontact.service;
+
+import com.keviny.customercontact.mapper.EmailNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverReturnFalseForAddedEmails() {
+        // Given
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(EmailNormalizer.hash("user" + i + "@example.com"));
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(EmailNormalizer.hash("USER" + i + "@example.com")));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate_AtCapacity() {
+        // Given
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(EmailNormalizer.hash("user" + i + "@example.com"));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(EmailNormalizer.hash("other" + i + "@example.org"))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertEquals(7, filter.getHashFunctions());
+        assertTrue(filter.getSizeBytes() < 12_500);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,130 @@
+package com.keviny.customercontact.sharding;
+
+import com.keviny.customercontact.dto.ContactDto;
+import com.keviny.customercontact.dto.ContactStats;
+import com.keviny.customercontact.model.Contact;
+import com.keviny.customercontact.service.ContactService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "contact.sharding.enabled=true",
+        "contact.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "contact.sharding.shards[0].username=sa",
+        "contact.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "contact.sharding.shards[1].username=sa"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Test
+    void createOrUpdateContact_ShouldStoreEachContactOnItsShard_WithShardEncodedId() {
+        // Given
+        List<String> emails = emails("route", 20);
+
+        // When
+        List<Contact> saved = new ArrayList<>();
+        for (String email : emails) {
+            saved.add(contactService.createOrUpdateContact(new ContactDto(null, "Route", "Test", email, "123", "Addr")));
+        }
+
+        // Then
+        for (Contact contact : saved) {
+            int shard = shardRouter.shardForEmail(contact.getEmail());
+            assertEquals(shard, shardRouter.shardForId(contact.getId()));
+            assertEquals(1, countOnShard(shard, contact.getEmail()));
+            assertEquals(0, countOnShard(1 - shard, contact.getEmail()));
+            assertEquals(Optional.of(contact.getId()), contactService.findContactById(contact.getId()).map(Contact::getId));
+            assertTrue(contactService.findContactByEmail(contact.getEmail()).isPresent());
+        }
+        assertTrue(saved.stream().anyMatch(contact -> contact.getId() >= ShardRouter.firstIdOf(1)),
+                "20 emails should not all hash to shard 0");
+    }
+
+    @Test
+    void createOrUpdateContacts_ShouldSplitBatchAcrossShards_AndKeepInputOrder() {
+        // Given
+        List<String> emails = emails("batch", 10);
+        List<ContactDto> dtos = emails.stream()
+                .map(email -> new ContactDto(null, "Batch", "Test", email, "123", "Addr"))
+                .collect(Collectors.toList());
+
+        // When
+        List<Contact> saved = contactService.createOrUpdateContacts(dtos);
+
+        // Then
+        assertEquals(emails, saved.stream().map(Contact::getEmail).collect(Collectors.toList()));
+        List<String> all = contactService.findAllContacts().stream().map(Contact::getEmail).collect(Collectors.toList());
+        assertTrue(all.containsAll(emails));
+    }
+
+    @Test
+    void getContactStats_ShouldCountUpsertsOnEveryShard_WithoutQueryingTheTable() {
+        // Given
+        ContactStats before = contactService.getContactStats();
+        List<ContactDto> dtos = emails("stats", 6).stream()
+                .map(email -> new ContactDto(null, "Stats", "Test", email, "123", "Addr"))
+                .collect(Collectors.toList());
+        dtos.get(0).setPrimaryPhone("555-0100");
+        dtos.get(1).setPrimaryPhone("555-0101");
+        contactService.createOrUpdateContacts(dtos);
+
+        // When: one contact gains a primary email, another loses its primary phone
+        ContactDto gainsEmail = new ContactDto(null, "Stats", "Test", dtos.get(2).getEmail(), "123", "Addr");
+        gainsEmail.setPrimaryEmail("primary@shard.example.com");
+        contactService.createOrUpdateContact(gainsEmail);
+        contactService.createOrUpdateContact(new ContactDto(null, "Stats", "Test", dtos.get(0).getEmail(), "123", "Addr"));
+        ContactStats after = contactService.getContactStats();
+
+        // Then
+        assertEquals(6, after.getTotal() - before.getTotal());
+        assertEquals(1, after.getWithPrimaryPhone() - before.getWithPrimaryPhone());
+        assertEquals(1, after.getWithPrimaryEmail() - before.getWithPrimaryEmail());
+        assertEquals(countAllShards(), after.getTotal());
+    }
+
+    @Test
+    void findContactById_ShouldReturnEmpty_ForIdOutsideAnyShard() {
+        assertTrue(contactService.findContactById(ShardRouter.firstIdOf(7)).isEmpty());
+    }
+
+    private long countOnShard(int shard, String email) {
+        return new JdbcTemplate(dataSource.getShards().get(shard))
+                .queryForObject("SELECT COUNT(*) FROM contact WHERE email = ?", Long.class, email);
+    }
+
+    private long countAllShards() {
+        long count = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            count += new JdbcTemplate(dataSource.getShards().get(shard)).queryForObject("SELECT COUNT(*) FROM contact", Long.class);
+        }
+        return count;
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            emails.add(prefix + i + "@shard.example.com");
+        }
+        return emails;
+    }
+}
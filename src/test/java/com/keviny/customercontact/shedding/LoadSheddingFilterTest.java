@@ -0,0 +1,102 @@
+package com.keviny.customercontact.shedding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingFilterTest {
+
+    private static final Map<RequestPriority, LoadSheddingFilter.Limit> LIMITS = Map.of(
+            RequestPriority.CRITICAL, new LoadSheddingFilter.Limit(100, Duration.ofSeconds(5)),
+            RequestPriority.DEFAULT, new LoadSheddingFilter.Limit(10, Duration.ofSeconds(1)),
+            RequestPriority.BULK, new LoadSheddingFilter.Limit(0, Duration.ofMillis(100)));
+
+    @Test
+    void of_ShouldRankKeyedReadsAboveUpsertsAboveBulkCalls() {
+        assertEquals(RequestPriority.CRITICAL, RequestPriority.of("GET", "/api/contacts/42"));
+        assertEquals(RequestPriority.CRITICAL, RequestPriority.of("GET", "/api/contacts/by-email"));
+        assertEquals(RequestPriority.CRITICAL, RequestPriority.of("HEAD", "/api/contacts"));
+        assertEquals(RequestPriority.CRITICAL, RequestPriority.of("GET", "/actuator/health"));
+        assertEquals(RequestPriority.DEFAULT, RequestPriority.of("POST", "/api/contacts"));
+        assertEquals(RequestPriority.DEFAULT, RequestPriority.of("GET", "/api/contacts/import-jobs/7"));
+        assertEquals(RequestPriority.BULK, RequestPriority.of("GET", "/api/contacts"));
+        assertEquals(RequestPriority.BULK, RequestPriority.of("GET", "/api/contacts/stream"));
+        assertEquals(RequestPriority.BULK, RequestPriority.of("POST", "/api/contacts/import-jobs"));
+        assertEquals(RequestPriority.BULK, RequestPriority.of("POST", "/api/contacts/dedupe"));
+    }
+
+    @Test
+    void doFilter_ShouldShedBulkCallsButAdmitKeyedReads_WhenWorkersAreQueued() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoadSheddingFilter filter = new LoadSheddingFilter(() -> 5, LIMITS, 2, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+
+        // When
+        MockHttpServletResponse list = filter(filter, "GET", "/api/contacts");
+        MockHttpServletResponse byId = filter(filter, "GET", "/api/contacts/42");
+
+        // Then
+        assertEquals(503, list.getStatus());
+        assertEquals("2", list.getHeader("Retry-After"));
+        assertTrue(list.getContentAsString().contains("Service overloaded"), list.getContentAsString());
+        assertEquals(200, byId.getStatus());
+        assertEquals(1.0, meterRegistry.get("contact.load-shedding.requests")
+                .tags("priority", "bulk", "result", "shed-queue-depth").counter().count());
+        assertEquals(1.0, meterRegistry.get("contact.load-shedding.requests")
+                .tags("priority", "critical", "result", "admitted").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldShedRequestThatWaitedTooLongForAWorker() throws Exception {
+        // Given
+        LoadSheddingFilter filter = new LoadSheddingFilter(() -> 0, LIMITS, 1, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        QueueTimedExecutor executor = new QueueTimedExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger status = new AtomicInteger();
+        try {
+            // When the only worker is busy for longer than the DEFAULT limit
+            executor.execute(() -> await(release));
+            executor.execute(() -> status.set(filter(filter, "POST", "/api/contacts").getStatus()));
+            Thread.sleep(1_200);
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(503, status.get());
+    }
+
+    private static MockHttpServletResponse filter(LoadSheddingFilter filter, String method, String path) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.keviny.customercontact.shedding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"contact.load-shedding.enabled=true", "server.tomcat.threads.max=4", "server.tomcat.threads.min-spare=1"})
+@ActiveProfiles("test")
+class LoadSheddingIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private QueueTimedExecutor executor;
+
+    @Test
+    void tomcat_ShouldServeRequestsOnTheQueueTimedExecutor() {
+        // Given
+        long tasksBefore = executor.getTaskCount();
+
+        // When
+        HttpStatus status = HttpStatus.valueOf(restTemplate.getForEntity("/api/contacts/stats", String.class)
+                .getStatusCode().value());
+
+        // Then
+        assertEquals(HttpStatus.OK, status);
+        assertTrue(executor.getTaskCount() > tasksBefore);
+        assertEquals(4, executor.getMaximumPoolSize());
+    }
+}
@@ -0,0 +1,136 @@
+package com.keviny.customercontact.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldAssignSequences_AndCursorShouldReadAcrossSegments() throws IOException {
+        // Given: segments small enough to hold two records each
+        try (AppendOnlyLog log = new AppendOnlyLog(directory, 70)) {
+            // When
+            for (int i = 1; i <= 5; i++) {
+                assertEquals(i, log.append(bytes("record-" + i)));
+            }
+
+            // Then
+            assertEquals(3, segmentCount());
+            try (AppendOnlyLog.Cursor cursor = log.openCursor(1)) {
+                List<AppendOnlyLog.Record> records = cursor.next(10);
+                assertEquals(List.of(2L, 3L, 4L, 5L), records.stream().map(AppendOnlyLog.Record::sequence).toList());
+                assertEquals("record-4", new String(records.get(2).payload(), StandardCharsets.UTF_8));
+                assertTrue(cursor.next(10).isEmpty());
+
+                log.append(bytes("record-6"));
+                assertEquals(6, cursor.next(10).get(0).sequence());
+            }
+        }
+    }
+
+    @Test
+    void open_ShouldTruncateTornTail_AndContinueSequence() throws IOException {
+        // Given
+        try (AppendOnlyLog log = new AppendOnlyLog(directory, 1 << 20)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+        }
+        Path segment = segments().get(0);
+        // A crash mid-append leaves half a record behind
+        Files.write(segment, new byte[] {0, 0, 0, 9, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (AppendOnlyLog log = new AppendOnlyLog(directory, 1 << 20)) {
+            // Then
+            assertEquals(2, log.getLastSequence());
+            assertEquals(3, log.append(bytes("three")));
+            try (AppendOnlyLog.Cursor cursor = log.openCursor(0)) {
+                assertEquals(List.of("one", "two", "three"), cursor.next(10).stream()
+                        .map(record -> new String(record.payload(), StandardCharsets.UTF_8)).toList());
+            }
+        }
+    }
+
+    @Test
+    void deleteUpTo_ShouldDropOnlyFullyConsumedSegments() throws IOException {
+        // Given
+        try (AppendOnlyLog log = new AppendOnlyLog(directory, 70)) {
+            for (int i = 1; i <= 5; i++) {
+                log.append(bytes("record-" + i));
+            }
+
+            // When
+            log.deleteUpTo(3);
+
+            // Then: segment 1-2 is gone, 3-4 still holds unconsumed record 4
+            assertEquals(2, segmentCount());
+            try (AppendOnlyLog.Cursor cursor = log.openCursor(3)) {
+                assertEquals(List.of(4L, 5L), cursor.next(10).stream().map(AppendOnlyLog.Record::sequence).toList());
+            }
+        }
+    }
+
+    @Test
+    void append_ShouldGiveConcurrentWritersUniqueGaplessSequences() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (AppendOnlyLog log = new AppendOnlyLog(directory, 4096)) {
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        log.append(bytes("payload"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // Then
+            assertEquals(800, log.getLastSequence());
+            try (AppendOnlyLog.Cursor cursor = log.openCursor(0)) {
+                List<AppendOnlyLog.Record> records = cursor.next(1000);
+                assertEquals(800, records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    assertEquals(i + 1, records.get(i).sequence());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}